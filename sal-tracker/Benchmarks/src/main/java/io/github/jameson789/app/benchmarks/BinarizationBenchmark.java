@@ -0,0 +1,65 @@
+package io.github.jameson789.app.benchmarks;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.jameson789.app.BinaryImage;
+import io.github.jameson789.app.DistanceImageBinarizer;
+import io.github.jameson789.app.PixelSource;
+
+/**
+ * The binarization stage: DistanceImageBinarizer turning a frame into a packed BinaryImage, as
+ * the group finders consume it, and into the original int[][] array, and rendering a black and
+ * white preview of it at full size and downscaled to fit 640x360.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BinarizationBenchmark {
+    private DistanceImageBinarizer binarizer;
+
+    @Setup(Level.Trial)
+    public void createBinarizer() {
+        binarizer = FrameState.newBinarizer();
+    }
+
+    @Benchmark
+    public BinaryImage toBinaryImage(FrameState frame) {
+        return binarizer.toBinaryImage(frame.image);
+    }
+
+    @Benchmark
+    public int[][] toBinaryArray(FrameState frame) {
+        return binarizer.toBinaryArray(frame.image);
+    }
+
+    @Benchmark
+    public BufferedImage toBufferedImage(FrameState frame) {
+        return binarizer.toBufferedImage(binarizer.toBinaryImage(frame.image));
+    }
+
+    @Benchmark
+    public BufferedImage toPreviewFullSize(FrameState frame) {
+        return binarizer.toPreview(PixelSource.of(frame.image), frame.image.getWidth(), frame.image.getHeight());
+    }
+
+    @Benchmark
+    public BufferedImage toPreview640x360(FrameState frame) {
+        return binarizer.toPreview(PixelSource.of(frame.image), 640, 360);
+    }
+}
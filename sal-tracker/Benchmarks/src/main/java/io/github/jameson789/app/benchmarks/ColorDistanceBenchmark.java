@@ -0,0 +1,54 @@
+package io.github.jameson789.app.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.jameson789.app.ColorDistanceFinder;
+import io.github.jameson789.app.EuclideanColorDistance;
+
+/**
+ * The color distance stage on its own: EuclideanColorDistance called once per pixel of a frame,
+ * the cost every binarizer without a lookup table or kernel pays.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ColorDistanceBenchmark {
+    @Param({"720p", "1080p", "4K"})
+    public String resolution;
+
+    private final ColorDistanceFinder distance = new EuclideanColorDistance();
+    private int[] pixels;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        int[] size = SyntheticFrames.size(resolution);
+        pixels = SyntheticFrames.generate(resolution, 0.2, 50).getRGB(0, 0, size[0], size[1], null, 0, size[0]);
+    }
+
+    @Benchmark
+    public int distancePerPixel() {
+        int matches = 0;
+        for (int pixel : pixels) {
+            if (distance.distance(pixel, SyntheticFrames.TARGET_COLOR) <= SyntheticFrames.THRESHOLD) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.jameson789.app.benchmarks;
+
+import java.awt.image.BufferedImage;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import io.github.jameson789.app.DistanceImageBinarizer;
+import io.github.jameson789.app.EuclideanColorDistance;
+
+/**
+ * The frame parameters shared by the benchmarks: the resolution, the density of isolated
+ * foreground pixels and the number of blobs.
+ */
+@State(Scope.Benchmark)
+public class FrameState {
+    @Param({"720p", "1080p", "4K"})
+    public String resolution;
+
+    @Param({"0.01", "0.2"})
+    public double density;
+
+    @Param({"1", "50"})
+    public int blobs;
+
+    public BufferedImage image;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        image = SyntheticFrames.generate(resolution, density, blobs);
+    }
+
+    /**
+     * @return a new binarizer for the benchmark target color and threshold
+     */
+    public static DistanceImageBinarizer newBinarizer() {
+        return new DistanceImageBinarizer(new EuclideanColorDistance(), SyntheticFrames.TARGET_COLOR,
+                SyntheticFrames.THRESHOLD);
+    }
+}
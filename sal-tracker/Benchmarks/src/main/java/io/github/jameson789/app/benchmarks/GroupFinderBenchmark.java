@@ -0,0 +1,84 @@
+package io.github.jameson789.app.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.jameson789.app.BinaryImage;
+import io.github.jameson789.app.DfsBinaryGroupFinder;
+import io.github.jameson789.app.DistanceImageBinarizer;
+import io.github.jameson789.app.Group;
+import io.github.jameson789.app.ParallelBinaryGroupFinder;
+import io.github.jameson789.app.UnionFindBinaryGroupFinder;
+
+/**
+ * The labeling stage on an already binarized frame.
+ *
+ * DfsBinaryGroupFinder clears the pixels it visits, so its benchmark labels a fresh copy of the
+ * array each time; copyBinaryArray measures that copy alone so it can be subtracted. The DFS
+ * recursion is as deep as the largest blob, hence the large thread stack of its fork.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss1g")
+@State(Scope.Benchmark)
+public class GroupFinderBenchmark {
+    private final DfsBinaryGroupFinder dfs = new DfsBinaryGroupFinder();
+    private final UnionFindBinaryGroupFinder unionFind = new UnionFindBinaryGroupFinder();
+    private final ParallelBinaryGroupFinder parallel = new ParallelBinaryGroupFinder();
+    private BinaryImage binary;
+    private int[][] array;
+
+    @Setup(Level.Trial)
+    public void binarize(FrameState frame) {
+        DistanceImageBinarizer binarizer = FrameState.newBinarizer();
+        binary = binarizer.toBinaryImage(frame.image);
+        array = binary.toArray();
+    }
+
+    @Benchmark
+    public int[][] copyBinaryArray() {
+        return copy(array);
+    }
+
+    @Benchmark
+    public List<Group> dfsAllGroups() {
+        return dfs.findConnectedGroups(copy(array));
+    }
+
+    @Benchmark
+    public List<Group> unionFindAllGroups() {
+        return unionFind.findConnectedGroups(binary);
+    }
+
+    @Benchmark
+    public Group unionFindLargestGroup() {
+        return unionFind.findLargestGroup(binary);
+    }
+
+    @Benchmark
+    public Group parallelLargestGroup() {
+        return parallel.findLargestGroup(binary);
+    }
+
+    private static int[][] copy(int[][] array) {
+        int[][] copy = new int[array.length][];
+        for (int row = 0; row < array.length; row++) {
+            copy[row] = array[row].clone();
+        }
+        return copy;
+    }
+}
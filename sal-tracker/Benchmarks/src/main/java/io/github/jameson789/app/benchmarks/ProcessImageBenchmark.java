@@ -0,0 +1,65 @@
+package io.github.jameson789.app.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.jameson789.app.BinarizingImageGroupFinder;
+import io.github.jameson789.app.CentroidResult;
+import io.github.jameson789.app.DfsBinaryGroupFinder;
+import io.github.jameson789.app.DistanceImageBinarizer;
+import io.github.jameson789.app.ImageProcessor;
+import io.github.jameson789.app.PyramidGroupFinder;
+
+/**
+ * End to end: ImageProcessor.processImage from a decoded frame to the centroid of the largest
+ * group, with the default fused pipeline, the original binarize-then-DFS pipeline and the
+ * coarse to fine search.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss1g")
+@State(Scope.Benchmark)
+public class ProcessImageBenchmark {
+    private ImageProcessor fused;
+    private ImageProcessor dfs;
+    private ImageProcessor pyramid;
+
+    @Setup(Level.Trial)
+    public void createProcessors() {
+        fused = new ImageProcessor(SyntheticFrames.TARGET_COLOR, SyntheticFrames.THRESHOLD);
+
+        DistanceImageBinarizer binarizer = FrameState.newBinarizer();
+        dfs = new ImageProcessor(binarizer, new BinarizingImageGroupFinder(binarizer, new DfsBinaryGroupFinder()));
+
+        DistanceImageBinarizer pyramidBinarizer = FrameState.newBinarizer();
+        pyramid = new ImageProcessor(pyramidBinarizer, new PyramidGroupFinder(pyramidBinarizer, 4, 4));
+    }
+
+    @Benchmark
+    public CentroidResult fusedPipeline(FrameState frame) {
+        return fused.processImage(frame.image);
+    }
+
+    @Benchmark
+    public CentroidResult binarizeThenDfs(FrameState frame) {
+        return dfs.processImage(frame.image);
+    }
+
+    @Benchmark
+    public CentroidResult pyramidSearch(FrameState frame) {
+        return pyramid.processImage(frame.image);
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.jameson789.app.benchmarks;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/**
+ * Generates deterministic synthetic frames for the benchmarks.
+ *
+ * A frame has a dark random background, a number of round blobs close to TARGET_COLOR that
+ * together cover BLOB_COVERAGE of the frame, and isolated foreground pixels sprinkled over the
+ * whole frame with the given density. The frames use TYPE_3BYTE_BGR, the layout the video
+ * decoder delivers.
+ */
+public class SyntheticFrames {
+    /**
+     * The color the benchmarks search for.
+     */
+    public static final int TARGET_COLOR = 0xD03020;
+
+    /**
+     * The threshold the benchmarks binarize with.
+     */
+    public static final int THRESHOLD = 60;
+
+    /**
+     * The share of the frame covered by all blobs together.
+     */
+    public static final double BLOB_COVERAGE = 0.05;
+
+    /**
+     * Returns the width and height of a named resolution.
+     *
+     * @param resolution 720p, 1080p or 4K
+     * @return the width and the height in pixels
+     * @throws IllegalArgumentException if the resolution is unknown
+     */
+    public static int[] size(String resolution) {
+        switch (resolution) {
+            case "720p":
+                return new int[] {1280, 720};
+            case "1080p":
+                return new int[] {1920, 1080};
+            case "4K":
+                return new int[] {3840, 2160};
+            default:
+                throw new IllegalArgumentException("Unknown resolution: " + resolution);
+        }
+    }
+
+    /**
+     * Generates a frame.
+     *
+     * @param resolution 720p, 1080p or 4K
+     * @param density the share of background pixels replaced by isolated foreground pixels
+     * @param blobs the number of blobs
+     * @return the frame, the same for the same arguments
+     */
+    public static BufferedImage generate(String resolution, double density, int blobs) {
+        int[] size = size(resolution);
+        int width = size[0];
+        int height = size[1];
+        Random random = new Random(width * 31L + blobs);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                row[x] = random.nextDouble() < density ? nearTarget(random) : random.nextInt(0x404040);
+            }
+            image.setRGB(0, y, width, 1, row, 0, width);
+        }
+
+        if (blobs > 0) {
+            int radius = (int) Math.sqrt(BLOB_COVERAGE * width * height / (blobs * Math.PI));
+            for (int blob = 0; blob < blobs; blob++) {
+                int centerX = radius + random.nextInt(Math.max(1, width - 2 * radius));
+                int centerY = radius + random.nextInt(Math.max(1, height - 2 * radius));
+                for (int y = Math.max(0, centerY - radius); y < Math.min(height, centerY + radius); y++) {
+                    for (int x = Math.max(0, centerX - radius); x < Math.min(width, centerX + radius); x++) {
+                        long dx = x - centerX;
+                        long dy = y - centerY;
+                        if (dx * dx + dy * dy < (long) radius * radius) {
+                            image.setRGB(x, y, nearTarget(random));
+                        }
+                    }
+                }
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Returns a color within the threshold of the target color.
+     */
+    private static int nearTarget(Random random) {
+        int red = (TARGET_COLOR >> 16 & 0xFF) + random.nextInt(21) - 10;
+        int green = (TARGET_COLOR >> 8 & 0xFF) + random.nextInt(21) - 10;
+        int blue = (TARGET_COLOR & 0xFF) + random.nextInt(21) - 10;
+        return red << 16 | green << 8 | blue;
+    }
+}
@@ -0,0 +1,132 @@
+package io.github.jameson789.app;
+
+import java.io.PrintWriter;
+import java.util.Locale;
+
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.Frame;
+
+/**
+ * Processes a video with a sampling rate that follows the motion of the group, see
+ * MotionAdaptiveSchedule, instead of one frame per second.
+ *
+ * The video is decoded forward once like with StreamingFrameSampler. After every sample the
+ * schedule sets the timestamp of the next one, and the first frame at or after that timestamp,
+ * give or take half a frame, is grabbed with conversion and analyzed; the frames before it are
+ * decoded without conversion. Since samples no longer fall on whole seconds, every row is
+ * written as "time,x,y" with the presentation time of the analyzed frame in seconds, with
+ * millisecond precision.
+ */
+public class AdaptiveVideoProcessor {
+    /**
+     * The movement in pixels between samples that still counts as idle, unless configured otherwise.
+     */
+    public static final int DEFAULT_TOLERANCE = 4;
+
+    private final ImageProcessor processor;
+    private final long maxInterval;
+    private final int tolerance;
+
+    /**
+     * Constructs a processor that samples at least every maxIntervalSeconds.
+     *
+     * @param processor analyzes the sampled frames in video order
+     * @param maxIntervalSeconds the longest time between two samples
+     * @param tolerance the movement in pixels between samples that still counts as idle
+     * @throws IllegalArgumentException if maxIntervalSeconds is not positive or tolerance is negative
+     */
+    public AdaptiveVideoProcessor(ImageProcessor processor, int maxIntervalSeconds, int tolerance) {
+        if (maxIntervalSeconds <= 0) {
+            throw new IllegalArgumentException("maxIntervalSeconds must be positive: " + maxIntervalSeconds);
+        }
+        if (tolerance < 0) {
+            throw new IllegalArgumentException("tolerance must not be negative: " + tolerance);
+        }
+        this.processor = processor;
+        this.maxInterval = maxIntervalSeconds * 1_000_000L;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Processes the video from startSecond to its end and writes one "time,x,y" row per sample
+     * with a centroid, in order.
+     *
+     * @param grabber a started grabber for the video
+     * @param startSecond the second to start sampling at
+     * @param writer receives the CSV rows
+     * @param metrics receives the measurements
+     * @param checkpoint notified whenever a sample starts a new second, or null
+     * @throws Exception if decoding or writing fails
+     */
+    public void process(FFmpegFrameGrabber grabber, int startSecond, PrintWriter writer, JobMetrics metrics,
+            Checkpoint checkpoint) throws Exception {
+        long frameDuration = Math.max(1, Math.round(1_000_000.0 / grabber.getFrameRate()));
+        MotionAdaptiveSchedule[] schedules = new MotionAdaptiveSchedule[processor.getTargetCount()];
+        for (int i = 0; i < schedules.length; i++) {
+            schedules[i] = new MotionAdaptiveSchedule(frameDuration, Math.max(frameDuration, maxInterval), tolerance);
+        }
+
+        long[] target = {startSecond * 1_000_000L};
+        if (startSecond > 0) {
+            grabber.setTimestamp(target[0]);
+        }
+
+        // each sample covers the video time since the previous one, the first one none
+        long[] covered = {target[0]};
+        int[] previousSecond = {-1};
+        SampledFrameHandler handler = metrics.timeDecoding((second, frame) -> {
+            metrics.addVideoTime(Math.max(0, frame.timestamp - covered[0]));
+            covered[0] = Math.max(covered[0], frame.timestamp);
+
+            if (checkpoint != null && second > previousSecond[0]) {
+                // resuming seeks to a whole second, so this is complete before the first row in it
+                checkpoint.completed(second, writer);
+            }
+            previousSecond[0] = second;
+
+            ImageSummaryApp.printFrameLoaded(formatTime(frame.timestamp) + " s", frame);
+
+            CentroidResult[] results = metrics.analyze(processor, frame);
+
+            long start = System.nanoTime();
+            writer.print(CsvRows.format(formatTime(frame.timestamp), results));
+            metrics.record(JobMetrics.Stage.WRITE, System.nanoTime() - start);
+
+            // every target has its own schedule, and the one that needs the next sample first wins
+            long interval = Long.MAX_VALUE;
+            for (int i = 0; i < results.length; i++) {
+                interval = Math.min(interval, schedules[i].next(results[i]));
+            }
+            target[0] = frame.timestamp + interval;
+        }, 0);
+
+        long lastTimestamp = Long.MIN_VALUE;
+        while (true) {
+            // the next frame is about one frame after the last one, so convert it if that reaches the target
+            boolean sample = lastTimestamp == Long.MIN_VALUE
+                    || lastTimestamp + frameDuration + frameDuration / 2 >= target[0];
+            Frame frame = grabber.grabFrame(false, true, sample, false, false);
+            if (frame == null) {
+                // the last sample stands for the rest of the video
+                if (lastTimestamp != Long.MIN_VALUE) {
+                    metrics.addVideoTime(Math.max(0, lastTimestamp + frameDuration - covered[0]));
+                }
+                return;
+            }
+            lastTimestamp = frame.timestamp;
+
+            if (sample) {
+                handler.handle((int) (frame.timestamp / 1_000_000), frame);
+            } else {
+                handler.skipped();
+            }
+        }
+    }
+
+    /**
+     * Formats a timestamp in microseconds as seconds with three decimals.
+     */
+    static String formatTime(long micros) {
+        return String.format(Locale.ROOT, "%.3f", micros / 1_000_000.0);
+    }
+}
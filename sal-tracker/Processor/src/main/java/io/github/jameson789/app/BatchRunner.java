@@ -0,0 +1,184 @@
+package io.github.jameson789.app;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a manifest of video jobs in one JVM, with all of them sharing one pool of threads.
+ *
+ * The manifest has one job per line, with the arguments given to ImageSummaryApp in the same
+ * form as a WorkerServer request: separated by whitespace, with double quotes around arguments
+ * that contain whitespace. Empty lines and lines starting with "#" are ignored. A line that can
+ * not be parsed does not stop the batch; it is answered with "failed - Line N: MESSAGE" and
+ * counts as a failed job.
+ *
+ * All work runs on a ForkJoinPool with one thread per core by default. A job splits its video
+ * into segments, see SegmentedVideoProcessor, and queues them on that pool, where idle threads
+ * steal segments from whichever video has work left. So the batch keeps every core busy until
+ * its last segment, no matter how long the individual videos are, and never runs more analysis
+ * threads than the pool has. Each job is driven by a coordinator thread that opens the video,
+ * waits for its segments and writes its CSV; at most as many jobs as the pool has threads are
+ * open at a time, which bounds the grabbers and buffers in memory. Jobs with --workers or
+ * --adaptive do not split into segments and run on their coordinator thread instead.
+ *
+ * Every job writes its usual CSV. When a job ends, one line is written, like the replies of
+ * WorkerServer, in completion order:
+ *
+ *   done TASK_ID CSV_PATH
+ *   failed TASK_ID MESSAGE
+ */
+public class BatchRunner implements AutoCloseable {
+    /**
+     * The jobs of a manifest, and the lines that could not be parsed.
+     *
+     * @param jobs the arguments of every job, in manifest order
+     * @param errors one "Line N: MESSAGE" entry per line that could not be parsed
+     */
+    public record Manifest(List<String[]> jobs, List<String> errors) {
+    }
+
+    /**
+     * Processes one job of a batch.
+     */
+    @FunctionalInterface
+    public interface Job {
+        /**
+         * Runs the job with the given arguments.
+         *
+         * @param args the arguments of the manifest line
+         * @param pool the shared pool to run the segments of the job on
+         * @return the CSV file written by the job
+         * @throws Exception if the job fails
+         */
+        public File run(String[] args, ForkJoinPool pool) throws Exception;
+    }
+
+    private final Job job;
+    private final ForkJoinPool pool;
+    private final ExecutorService coordinators;
+
+    /**
+     * Constructs a runner with a pool of the given number of threads.
+     *
+     * @param job processes the jobs
+     * @param threads the number of threads of the shared pool and the most jobs open at a time
+     * @throws IllegalArgumentException if threads is not positive
+     */
+    public BatchRunner(Job job, int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be positive: " + threads);
+        }
+        this.job = job;
+        this.pool = new ForkJoinPool(threads);
+        this.coordinators = Executors.newFixedThreadPool(threads);
+    }
+
+    /**
+     * Reads the jobs of a manifest. Lines that can not be parsed or have fewer than four
+     * arguments are collected as errors, the other lines are still read.
+     *
+     * @param manifest the manifest lines
+     * @return the jobs and the errors, in manifest order
+     * @throws IOException if the manifest can not be read
+     */
+    public static Manifest readManifest(Reader manifest) throws IOException {
+        BufferedReader reader = new BufferedReader(manifest);
+        List<String[]> jobs = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        String line;
+        int number = 0;
+        while ((line = reader.readLine()) != null) {
+            number++;
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                jobs.add(WorkerServer.parseJob(line));
+            } catch (IllegalArgumentException e) {
+                errors.add("Line " + number + ": " + e.getMessage());
+            }
+        }
+        return new Manifest(List.copyOf(jobs), List.copyOf(errors));
+    }
+
+    /**
+     * Answers every line of the manifest that could not be parsed, then runs its jobs and
+     * waits until all of them have ended.
+     *
+     * @param manifest the manifest to run
+     * @param replies receives one line per job and per line that could not be parsed
+     * @return the number of jobs that failed, including the lines that could not be parsed
+     * @throws InterruptedException if interrupted while waiting for the jobs
+     */
+    public int run(Manifest manifest, PrintWriter replies) throws InterruptedException {
+        for (String error : manifest.errors()) {
+            replies.println(WorkerServer.failedReply("-", new IllegalArgumentException(error)));
+        }
+        return manifest.errors().size() + run(manifest.jobs(), replies);
+    }
+
+    /**
+     * Runs the jobs and waits until all of them have ended.
+     *
+     * @param jobs the arguments of every job
+     * @param replies receives one line per job
+     * @return the number of jobs that failed
+     * @throws InterruptedException if interrupted while waiting for the jobs
+     */
+    public int run(List<String[]> jobs, PrintWriter replies) throws InterruptedException {
+        List<Future<Boolean>> running = new ArrayList<>();
+        for (String[] args : jobs) {
+            running.add(coordinators.submit(() -> runJob(args, replies)));
+        }
+
+        int failed = 0;
+        for (Future<Boolean> future : running) {
+            try {
+                if (!future.get()) {
+                    failed++;
+                }
+            } catch (ExecutionException e) {
+                failed++;
+            }
+        }
+        return failed;
+    }
+
+    private boolean runJob(String[] args, PrintWriter replies) {
+        try {
+            replies.println(WorkerServer.doneReply(args[3], job.run(args, pool)));
+            return true;
+        } catch (Throwable e) {
+            replies.println(WorkerServer.failedReply(args[3], e));
+            return false;
+        }
+    }
+
+    /**
+     * Stops both pools, waiting for running jobs to end. If interrupted while waiting, stops
+     * the pools without waiting further and returns with the interrupt flag set.
+     */
+    @Override
+    public void close() {
+        coordinators.shutdown();
+        pool.shutdown();
+        try {
+            coordinators.awaitTermination(1, TimeUnit.HOURS);
+            pool.awaitTermination(1, TimeUnit.HOURS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -3,12 +3,14 @@ package io.github.jameson789.app;
 import java.awt.image.BufferedImage;
 import java.util.List;
 
+import org.bytedeco.javacv.Frame;
+
 /**
  * An implementation of the ImageGroupFinder interface that first binarizes a given image and then finds
  * connected groups of white pixels using a BinaryGroupFinder.
  * 
- * This class uses an ImageBinarizer to convert an RGB image into a binary 2D array (where each pixel is either 0 or 1).
- * The BinaryGroupFinder is then applied to the binary array to locate connected groups of white pixels.
+ * This class uses an ImageBinarizer to convert an RGB image into a bit-packed BinaryImage (where each pixel is either 0 or 1).
+ * The BinaryGroupFinder is then applied to the binary image to locate connected groups of white pixels.
  * The connected groups are returned sorted in descending order based on the criteria defined in the Group record.
  */
 public class BinarizingImageGroupFinder implements ImageGroupFinder {
@@ -29,9 +31,9 @@ public class BinarizingImageGroupFinder implements ImageGroupFinder {
     /**
      * Finds connected groups of white pixels in the given image.
      * 
-     * The method first converts the input BufferedImage into a binary array using the ImageBinarizer.
+     * The method first converts the input BufferedImage into a binary image using the ImageBinarizer.
      * White pixels are represented by 1 and black pixels by 0. It then uses the BinaryGroupFinder to
-     * locate connected groups (neighbors connected vertically and horizontally) within the binary array.
+     * locate connected groups (neighbors connected vertically and horizontally) within the binary image.
      * The identified groups are returned in descending order, according to the sorting defined in the Group record.
      *
      * @param image the input BufferedImage to process
@@ -39,7 +41,27 @@ public class BinarizingImageGroupFinder implements ImageGroupFinder {
      */
     @Override
     public List<Group> findConnectedGroups(BufferedImage image) {
-        int[][] binaryImage = binarizer.toBinaryArray(image);
+        BinaryImage binaryImage = binarizer.toBinaryImage(image);
+        if (binaryImage == null) throw new NullPointerException("Binarizer returned null");
+
+        List<Group> groups = groupFinder.findConnectedGroups(binaryImage);
+        if (groups == null) throw new NullPointerException("GroupFinder returned null");
+
+        return groups;
+    }
+
+    /**
+     * Finds connected groups of white pixels in the given video frame.
+     *
+     * The frame is binarized straight from its pixel buffer with ImageBinarizer.toBinaryImage(Frame),
+     * so no intermediate BufferedImage is created when the binarizer supports it.
+     *
+     * @param frame the input video frame to process
+     * @return a list of groups representing connected white pixels in the frame
+     */
+    @Override
+    public List<Group> findConnectedGroups(Frame frame) {
+        BinaryImage binaryImage = binarizer.toBinaryImage(frame);
         if (binaryImage == null) throw new NullPointerException("Binarizer returned null");
 
         List<Group> groups = groupFinder.findConnectedGroups(binaryImage);
@@ -47,4 +69,61 @@ public class BinarizingImageGroupFinder implements ImageGroupFinder {
 
         return groups;
     }
+
+    /**
+     * Finds the largest connected group of white pixels in the given image without building
+     * the full list of groups, see BinaryGroupFinder.findLargestGroup(BinaryImage).
+     *
+     * @param image the input BufferedImage to process
+     * @return the largest group, or null if the image has no white pixels
+     */
+    @Override
+    public Group findLargestGroup(BufferedImage image) {
+        return groupFinder.findLargestGroup(checkBinary(binarizer.toBinaryImage(image)));
+    }
+
+    /**
+     * Finds the largest connected group of white pixels in the given video frame.
+     *
+     * @param frame the input video frame to process
+     * @return the largest group, or null if the frame has no white pixels
+     */
+    @Override
+    public Group findLargestGroup(Frame frame) {
+        return groupFinder.findLargestGroup(checkBinary(binarizer.toBinaryImage(frame)));
+    }
+
+    /**
+     * Finds the k largest connected groups of white pixels in the given image.
+     *
+     * @param image the input BufferedImage to process
+     * @param k the maximum number of groups to return
+     * @return at most k groups in descending order
+     */
+    @Override
+    public List<Group> findLargestGroups(BufferedImage image, int k) {
+        return checkGroups(groupFinder.findLargestGroups(checkBinary(binarizer.toBinaryImage(image)), k));
+    }
+
+    /**
+     * Finds the k largest connected groups of white pixels in the given video frame.
+     *
+     * @param frame the input video frame to process
+     * @param k the maximum number of groups to return
+     * @return at most k groups in descending order
+     */
+    @Override
+    public List<Group> findLargestGroups(Frame frame, int k) {
+        return checkGroups(groupFinder.findLargestGroups(checkBinary(binarizer.toBinaryImage(frame)), k));
+    }
+
+    private static BinaryImage checkBinary(BinaryImage binaryImage) {
+        if (binaryImage == null) throw new NullPointerException("Binarizer returned null");
+        return binaryImage;
+    }
+
+    private static List<Group> checkGroups(List<Group> groups) {
+        if (groups == null) throw new NullPointerException("GroupFinder returned null");
+        return groups;
+    }
 }
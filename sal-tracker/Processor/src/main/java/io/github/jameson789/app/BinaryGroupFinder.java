@@ -1,5 +1,6 @@
 package io.github.jameson789.app;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public interface BinaryGroupFinder {
@@ -34,4 +35,72 @@ public interface BinaryGroupFinder {
     * @return the found groups of connected pixels in descending order
     */
    public List<Group> findConnectedGroups(int[][] image);
-}
\ No newline at end of file
+
+   /**
+    * Finds connected pixel groups of white pixels in a bit-packed binary image.
+    *
+    * The result follows the same rules as findConnectedGroups(int[][]). The default
+    * implementation unpacks the image into an int[][] and delegates to that method;
+    * implementations that can work on the packed words directly should override it.
+    *
+    * @param image a bit-packed binary image
+    * @return the found groups of connected pixels in descending order
+    */
+   public default List<Group> findConnectedGroups(BinaryImage image) {
+      return findConnectedGroups(image.toArray());
+   }
+
+   /**
+    * Finds the largest connected group of 1s, the group findConnectedGroups would list first.
+    *
+    * The default implementation takes the first entry of findConnectedGroups(int[][]).
+    * Implementations should override it to avoid building and sorting every group.
+    *
+    * @param image a rectangular 2D array containing only 1s and 0s
+    * @return the largest group, or null if the image has no 1s
+    */
+   public default Group findLargestGroup(int[][] image) {
+      List<Group> groups = findConnectedGroups(image);
+      return groups.isEmpty() ? null : groups.get(0);
+   }
+
+   /**
+    * Finds the largest connected group of white pixels in a bit-packed binary image.
+    *
+    * @param image a bit-packed binary image
+    * @return the largest group, or null if the image has no white pixels
+    * @see #findLargestGroup(int[][])
+    */
+   public default Group findLargestGroup(BinaryImage image) {
+      List<Group> groups = findConnectedGroups(image);
+      return groups.isEmpty() ? null : groups.get(0);
+   }
+
+   /**
+    * Finds the k largest connected groups of 1s, the first k groups findConnectedGroups would list.
+    *
+    * @param image a rectangular 2D array containing only 1s and 0s
+    * @param k the maximum number of groups to return
+    * @return at most k groups in descending order
+    * @throws IllegalArgumentException if k is not positive
+    */
+   public default List<Group> findLargestGroups(int[][] image, int k) {
+      if (k <= 0) throw new IllegalArgumentException("k must be positive: " + k);
+      List<Group> groups = findConnectedGroups(image);
+      return new ArrayList<>(groups.subList(0, Math.min(k, groups.size())));
+   }
+
+   /**
+    * Finds the k largest connected groups of white pixels in a bit-packed binary image.
+    *
+    * @param image a bit-packed binary image
+    * @param k the maximum number of groups to return
+    * @return at most k groups in descending order
+    * @throws IllegalArgumentException if k is not positive
+    */
+   public default List<Group> findLargestGroups(BinaryImage image, int k) {
+      if (k <= 0) throw new IllegalArgumentException("k must be positive: " + k);
+      List<Group> groups = findConnectedGroups(image);
+      return new ArrayList<>(groups.subList(0, Math.min(k, groups.size())));
+   }
+}
@@ -0,0 +1,181 @@
+package io.github.jameson789.app;
+
+import java.util.Arrays;
+
+/**
+ * A black-and-white image packed into a bitset, one bit per pixel.
+ *
+ * White pixels are 1 bits and black pixels are 0 bits. Each row starts on a fresh 64-bit word,
+ * so row y occupies words [y * wordsPerRow, (y + 1) * wordsPerRow) of the backing array, and
+ * pixel (x, y) is bit (x % 64) of word (y * wordsPerRow + x / 64), counting from the least
+ * significant bit. Bits past the width of a row are always 0, which lets consumers scan a row
+ * a whole word at a time and skip runs of 64 black pixels with a single comparison.
+ *
+ * Compared with the int[][] representation this takes 32 times less memory: a 3840x2160
+ * mask is about 1 MB instead of 33 MB.
+ *
+ * The top-left pixel is (x:0, y:0). Y increases downward and X increases to the right.
+ */
+public class BinaryImage {
+    private final int width;
+    private final int height;
+    private final int wordsPerRow;
+    private final long[] words;
+
+    /**
+     * Constructs an all-black binary image.
+     *
+     * @param width the width in pixels
+     * @param height the height in pixels
+     * @throws IllegalArgumentException if the width or height is negative
+     */
+    public BinaryImage(int width, int height) {
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("Invalid size: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = (width + 63) >>> 6;
+        this.words = new long[wordsPerRow * height];
+    }
+
+    /**
+     * Packs a binary 2D array. Entries equal to 1 become white pixels; every other value is black.
+     *
+     * @param image a rectangular 2D array indexed as image[y][x]
+     * @return the packed image
+     * @throws IllegalArgumentException if the array or one of its rows is null, or it is not rectangular
+     */
+    public static BinaryImage fromArray(int[][] image) {
+        if (image == null) {
+            throw new IllegalArgumentException("Invalid image input");
+        }
+        int height = image.length;
+        int width = height == 0 || image[0] == null ? 0 : image[0].length;
+
+        BinaryImage result = new BinaryImage(width, height);
+        for (int y = 0; y < height; y++) {
+            if (image[y] == null || image[y].length != width) {
+                throw new IllegalArgumentException("Input binary array is not rectangular.");
+            }
+            int rowStart = y * result.wordsPerRow;
+            for (int x = 0; x < width; x++) {
+                if (image[y][x] == 1) {
+                    result.words[rowStart + (x >>> 6)] |= 1L << x;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Unpacks this image into a binary 2D array of 0s and 1s indexed as [y][x].
+     *
+     * @return a new 2D array where 1 represents white and 0 represents black
+     */
+    public int[][] toArray() {
+        int[][] result = new int[height][width];
+        for (int y = 0; y < height; y++) {
+            int rowStart = y * wordsPerRow;
+            for (int x = 0; x < width; x++) {
+                result[y][x] = (int) (words[rowStart + (x >>> 6)] >>> x) & 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the width in pixels
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the height in pixels
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return the number of 64-bit words each row occupies in the backing array
+     */
+    public int getWordsPerRow() {
+        return wordsPerRow;
+    }
+
+    /**
+     * Returns the backing array of this image. Changes to the array are visible in the image;
+     * callers that write to it must keep the bits past the width of each row at 0.
+     *
+     * @return the packed pixel words, row by row
+     */
+    public long[] getWords() {
+        return words;
+    }
+
+    /**
+     * @param x the column of the pixel
+     * @param y the row of the pixel
+     * @return true if the pixel is white
+     */
+    public boolean get(int x, int y) {
+        checkBounds(x, y);
+        return (words[y * wordsPerRow + (x >>> 6)] & (1L << x)) != 0;
+    }
+
+    /**
+     * Sets a pixel to white or black.
+     *
+     * @param x the column of the pixel
+     * @param y the row of the pixel
+     * @param white true to make the pixel white, false to make it black
+     */
+    public void set(int x, int y, boolean white) {
+        checkBounds(x, y);
+        int index = y * wordsPerRow + (x >>> 6);
+        if (white) {
+            words[index] |= 1L << x;
+        } else {
+            words[index] &= ~(1L << x);
+        }
+    }
+
+    /**
+     * Makes every pixel black.
+     */
+    public void clear() {
+        Arrays.fill(words, 0L);
+    }
+
+    /**
+     * @return the number of white pixels in the image
+     */
+    public int countWhite() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private void checkBounds(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            throw new IndexOutOfBoundsException("Pixel (" + x + "," + y + ") is outside " + width + "x" + height);
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof BinaryImage image
+                && width == image.width
+                && height == image.height
+                && Arrays.equals(words, image.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * width + height) + Arrays.hashCode(words);
+    }
+}
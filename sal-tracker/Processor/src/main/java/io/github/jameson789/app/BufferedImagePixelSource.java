@@ -0,0 +1,133 @@
+package io.github.jameson789.app;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.PixelInterleavedSampleModel;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
+
+/**
+ * A PixelSource that reads a BufferedImage.
+ *
+ * The common layouts produced by ImageIO and Java2DFrameConverter (TYPE_INT_RGB,
+ * TYPE_INT_ARGB and TYPE_3BYTE_BGR) are read straight from the backing array of the raster.
+ * Every other image falls back to BufferedImage.getRGB for a whole row at a time, which goes
+ * through the color model but still avoids a call per pixel. Both paths return exactly the
+ * values BufferedImage.getRGB returns.
+ */
+public class BufferedImagePixelSource implements PixelSource {
+    private final BufferedImage image;
+    private final Raster raster;
+    private final int[] intData;
+    private final byte[] byteData;
+    private final int scanlineStride;
+    private final int pixelStride;
+    private final int[] bandOffsets;
+
+    /**
+     * Constructs a PixelSource for the given image.
+     *
+     * @param image the image to read
+     */
+    public BufferedImagePixelSource(BufferedImage image) {
+        this.image = image;
+        this.raster = image.getRaster();
+
+        int type = image.getType();
+        if ((type == BufferedImage.TYPE_INT_RGB || type == BufferedImage.TYPE_INT_ARGB)
+                && raster.getDataBuffer() instanceof DataBufferInt buffer
+                && raster.getSampleModel() instanceof SinglePixelPackedSampleModel model) {
+            this.intData = buffer.getData();
+            this.byteData = null;
+            this.scanlineStride = model.getScanlineStride();
+            this.pixelStride = 1;
+            this.bandOffsets = null;
+        } else if (type == BufferedImage.TYPE_3BYTE_BGR
+                && raster.getDataBuffer() instanceof DataBufferByte buffer
+                && raster.getSampleModel() instanceof PixelInterleavedSampleModel model) {
+            this.intData = null;
+            this.byteData = buffer.getData();
+            this.scanlineStride = model.getScanlineStride();
+            this.pixelStride = model.getPixelStride();
+            this.bandOffsets = model.getBandOffsets();
+        } else {
+            this.intData = null;
+            this.byteData = null;
+            this.scanlineStride = 0;
+            this.pixelStride = 0;
+            this.bandOffsets = null;
+        }
+    }
+
+    @Override
+    public int getWidth() {
+        return image.getWidth();
+    }
+
+    @Override
+    public int getHeight() {
+        return image.getHeight();
+    }
+
+    @Override
+    public void readRow(int y, int x, int length, int[] dest) {
+        if (intData != null) {
+            int index = offset(x, y);
+            if (image.getType() == BufferedImage.TYPE_INT_ARGB) {
+                System.arraycopy(intData, index, dest, 0, length);
+            } else {
+                // TYPE_INT_RGB has no alpha, getRGB reports it as opaque
+                for (int i = 0; i < length; i++) {
+                    dest[i] = 0xFF000000 | intData[index + i];
+                }
+            }
+        } else if (byteData != null) {
+            int index = offset(x, y);
+            int red = bandOffsets[0];
+            int green = bandOffsets[1];
+            int blue = bandOffsets[2];
+            for (int i = 0; i < length; i++, index += pixelStride) {
+                dest[i] = 0xFF000000
+                        | (byteData[index + red] & 0xFF) << 16
+                        | (byteData[index + green] & 0xFF) << 8
+                        | (byteData[index + blue] & 0xFF);
+            }
+        } else {
+            image.getRGB(x, y, length, 1, dest, 0, length);
+        }
+    }
+
+    @Override
+    public void readSampledRow(int y, int x, int step, int count, int[] dest) {
+        if (intData != null) {
+            int index = offset(x, y);
+            int alpha = image.getType() == BufferedImage.TYPE_INT_ARGB ? 0 : 0xFF000000;
+            for (int i = 0; i < count; i++, index += step) {
+                dest[i] = alpha | intData[index];
+            }
+        } else if (byteData != null) {
+            int index = offset(x, y);
+            int red = bandOffsets[0];
+            int green = bandOffsets[1];
+            int blue = bandOffsets[2];
+            for (int i = 0; i < count; i++, index += step * pixelStride) {
+                dest[i] = 0xFF000000
+                        | (byteData[index + red] & 0xFF) << 16
+                        | (byteData[index + green] & 0xFF) << 8
+                        | (byteData[index + blue] & 0xFF);
+            }
+        } else {
+            PixelSource.super.readSampledRow(y, x, step, count, dest);
+        }
+    }
+
+    /**
+     * Returns the index of the first array element of pixel (x, y), honouring subimage offsets.
+     */
+    private int offset(int x, int y) {
+        int column = x - raster.getSampleModelTranslateX();
+        int row = y - raster.getSampleModelTranslateY();
+        return raster.getDataBuffer().getOffset() + row * scanlineStride + column * pixelStride;
+    }
+}
@@ -0,0 +1,199 @@
+package io.github.jameson789.app;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Makes a video job resumable by periodically recording how far its CSV is complete.
+ *
+ * The checkpoint is a small properties file next to the CSV, named like the CSV with a
+ * ".checkpoint" suffix. It holds the job key, which identifies the video, color, threshold and
+ * options, the first second that is not yet complete and the length of the CSV in bytes when
+ * every earlier second was written. To save it, the CSV is flushed and forced to disk first,
+ * then the checkpoint is written to a temporary file, forced and moved over the old one
+ * atomically. A crash at any point therefore leaves a checkpoint that describes a durable
+ * prefix of the CSV.
+ *
+ * When a job starts with a checkpoint of the same key, the CSV is truncated to the recorded
+ * length, dropping the rows written after the last checkpoint, and processing resumes at the
+ * recorded second. Without a matching checkpoint, or when the CSV is shorter than recorded, the
+ * job starts from second 0 with an empty CSV. The checkpoint is deleted when the job completes.
+ */
+public class Checkpoint {
+    /**
+     * The wall time between two checkpoints, in seconds, unless configured otherwise.
+     */
+    public static final int DEFAULT_INTERVAL_SECONDS = 10;
+
+    private final File csv;
+    private final File file;
+    private final String key;
+    private final long intervalNanos;
+    private FileOutputStream output;
+    private long lastSave;
+
+    /**
+     * Constructs a checkpoint for a CSV.
+     *
+     * @param csv the CSV of the job
+     * @param key identifies the job; a checkpoint with another key is ignored
+     * @param intervalSeconds the least wall time between two saved checkpoints
+     * @throws IllegalArgumentException if intervalSeconds is negative
+     */
+    public Checkpoint(File csv, String key, int intervalSeconds) {
+        if (intervalSeconds < 0) {
+            throw new IllegalArgumentException("intervalSeconds must not be negative: " + intervalSeconds);
+        }
+        this.csv = csv;
+        this.file = new File(csv.getPath() + ".checkpoint");
+        this.key = key;
+        this.intervalNanos = intervalSeconds * 1_000_000_000L;
+    }
+
+    /**
+     * Builds the key of a job from the video file, which is identified by its absolute path,
+     * size and modification time, and the job arguments that affect the CSV.
+     *
+     * @param video the video file
+     * @param args the job arguments; the task id at index 3 is left out, because it is already
+     *             part of the CSV name
+     * @return the key
+     */
+    public static String key(File video, String[] args) {
+        StringBuilder key = new StringBuilder();
+        key.append(video.getAbsolutePath()).append('|').append(video.length()).append('|')
+                .append(video.lastModified());
+        for (int i = 1; i < args.length; i++) {
+            if (i != 3) {
+                key.append('|').append(args[i]);
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * @return the checkpoint file
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Prepares the CSV for writing and returns the second to start processing at: the second
+     * recorded by a matching checkpoint, with the CSV truncated to its recorded length, or 0
+     * with an empty CSV.
+     *
+     * @return the first second to process
+     * @throws IOException if the CSV can not be prepared
+     */
+    public int resume() throws IOException {
+        int second = 0;
+        long length = 0;
+        Properties saved = load();
+        if (saved != null && key.equals(saved.getProperty("key"))) {
+            try {
+                second = Integer.parseInt(saved.getProperty("second"));
+                length = Long.parseLong(saved.getProperty("csvBytes"));
+            } catch (NumberFormatException e) {
+                second = 0;
+                length = 0;
+            }
+            if (second < 0 || length < 0 || length > csv.length()) {
+                second = 0;
+                length = 0;
+            }
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(csv, "rw")) {
+            file.setLength(length);
+        }
+        lastSave = System.nanoTime();
+        return second;
+    }
+
+    /**
+     * Opens the CSV for appending after resume.
+     *
+     * @return a writer for the CSV rows; closing it closes the CSV
+     * @throws IOException if the CSV can not be opened
+     */
+    public PrintWriter openWriter() throws IOException {
+        output = new FileOutputStream(csv, true);
+        return new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Notes that the rows of all seconds before the given one have been written to the writer,
+     * and saves a checkpoint if the interval has passed since the last one.
+     *
+     * @param second the first second whose rows may not be written yet
+     * @param writer the writer returned by openWriter
+     * @throws IOException if the checkpoint can not be saved
+     */
+    public void completed(int second, PrintWriter writer) throws IOException {
+        if (System.nanoTime() - lastSave >= intervalNanos) {
+            save(second, writer);
+        }
+    }
+
+    /**
+     * Saves a checkpoint now.
+     *
+     * @param second the first second whose rows may not be written yet
+     * @param writer the writer returned by openWriter
+     * @throws IOException if the CSV or the checkpoint can not be written
+     */
+    public void save(int second, PrintWriter writer) throws IOException {
+        writer.flush();
+        if (writer.checkError()) {
+            throw new IOException("Could not write " + csv);
+        }
+        output.getChannel().force(false);
+
+        Properties properties = new Properties();
+        properties.setProperty("key", key);
+        properties.setProperty("second", Integer.toString(second));
+        properties.setProperty("csvBytes", Long.toString(output.getChannel().size()));
+
+        File temporary = new File(file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temporary)) {
+            properties.store(out, null);
+            out.getChannel().force(true);
+        }
+        Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        lastSave = System.nanoTime();
+    }
+
+    /**
+     * Deletes the checkpoint once the job has completed.
+     *
+     * @throws IOException if the checkpoint can not be deleted
+     */
+    public void finish() throws IOException {
+        Files.deleteIfExists(file.toPath());
+    }
+
+    private Properties load() throws IOException {
+        if (!file.isFile()) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (FileInputStream in = new FileInputStream(file)) {
+            properties.load(in);
+        } catch (IllegalArgumentException e) {
+            // a malformed checkpoint is ignored like a missing one
+            return null;
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.jameson789.app;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A precomputed classification of every 24-bit RGB color against a target color and threshold.
+ *
+ * The table holds one bit per color, 2^24 bits or 2 MB in total, set when the color's distance
+ * to the target is at most the threshold. Once compiled, classifying a pixel is a single bit
+ * lookup instead of a call to the ColorDistanceFinder.
+ *
+ * Colors are classified as opaque pixels, with the alpha byte set to 0xFF, which is how every
+ * PixelSource reports pixels without an alpha channel. Callers must fall back to the distance
+ * finder for pixels with any other alpha value, since a finder is free to look at it.
+ *
+ * Compiled tables are cached by finder, target color and threshold, so consecutive frames and
+ * jobs with the same settings share one table. Finders are compared with equals, so a finder
+ * that should share tables across instances, like EuclideanColorDistance, must implement it.
+ */
+public class ColorLookupTable {
+    /**
+     * The number of tables kept in the cache before the least recently used one is dropped.
+     */
+    public static final int CACHE_SIZE = 8;
+
+    private static final int COLORS = 1 << 24;
+
+    private static final Map<Key, ColorLookupTable> CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, ColorLookupTable> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private final long[] bits;
+
+    private ColorLookupTable(long[] bits) {
+        this.bits = bits;
+    }
+
+    /**
+     * Returns the table for the given settings, compiling it on the first request.
+     *
+     * @param distanceFinder the finder used to compare colors
+     * @param targetColor the reference color as a 24-bit hex RGB integer (0xRRGGBB)
+     * @param threshold the largest distance that is still classified as a match
+     * @return the shared compiled table
+     */
+    public static synchronized ColorLookupTable of(ColorDistanceFinder distanceFinder, int targetColor, int threshold) {
+        return CACHE.computeIfAbsent(new Key(distanceFinder, targetColor, threshold),
+                key -> compile(key.distanceFinder(), key.targetColor(), key.threshold()));
+    }
+
+    /**
+     * Compiles a new table without consulting the cache.
+     *
+     * EuclideanColorDistance is compiled with exact integer arithmetic: for an integer threshold
+     * t, sqrt(d) <= t holds exactly when d <= t * t, because the squared distance d is an integer
+     * far below the range where double rounding could blur that boundary. Any other finder is
+     * called once per color.
+     *
+     * @param distanceFinder the finder used to compare colors
+     * @param targetColor the reference color as a 24-bit hex RGB integer (0xRRGGBB)
+     * @param threshold the largest distance that is still classified as a match
+     * @return the compiled table
+     */
+    public static ColorLookupTable compile(ColorDistanceFinder distanceFinder, int targetColor, int threshold) {
+        long[] bits = new long[COLORS >>> 6];
+
+        if (distanceFinder.getClass() == EuclideanColorDistance.class) {
+            compileEuclidean(bits, targetColor, threshold);
+        } else {
+            for (int color = 0; color < COLORS; color++) {
+                if (distanceFinder.distance(0xFF000000 | color, targetColor) <= threshold) {
+                    bits[color >>> 6] |= 1L << color;
+                }
+            }
+        }
+        return new ColorLookupTable(bits);
+    }
+
+    private static void compileEuclidean(long[] bits, int targetColor, int threshold) {
+        if (threshold < 0) {
+            return;
+        }
+        long limit = (long) threshold * threshold;
+        int targetRed = (targetColor >> 16) & 0xff;
+        int targetGreen = (targetColor >> 8) & 0xff;
+        int targetBlue = targetColor & 0xff;
+
+        for (int red = 0; red < 256; red++) {
+            for (int green = 0; green < 256; green++) {
+                long redDiff = red - targetRed;
+                long greenDiff = green - targetGreen;
+                long budget = limit - redDiff * redDiff - greenDiff * greenDiff;
+                if (budget < 0) {
+                    continue;
+                }
+
+                int base = (red << 16) | (green << 8);
+                for (int blue = 0; blue < 256; blue++) {
+                    long blueDiff = blue - targetBlue;
+                    if (blueDiff * blueDiff <= budget) {
+                        int color = base | blue;
+                        bits[color >>> 6] |= 1L << color;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether an opaque pixel of the given color is within the threshold.
+     * The alpha byte of the argument is ignored.
+     *
+     * @param rgb the color, only its low 24 bits are used
+     * @return true if the color matches the target
+     */
+    public boolean matches(int rgb) {
+        return (bits[(rgb & 0xFFFFFF) >>> 6] & (1L << rgb)) != 0;
+    }
+
+    private record Key(ColorDistanceFinder distanceFinder, int targetColor, int threshold) {
+    }
+}
@@ -0,0 +1,147 @@
+package io.github.jameson789.app;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A union-find forest of components with their sizes and coordinate sums, shared by the
+ * run-based labelings of ParallelBinaryGroupFinder and IncrementalGroupFinder.
+ *
+ * The smaller index always becomes the root. A forest reuses its arrays from call to call and
+ * must not be shared between threads.
+ */
+final class ComponentForest {
+    int[] parent = new int[0];
+    int[] sizes = new int[0];
+    long[] sumX = new long[0];
+    long[] sumY = new long[0];
+    int count;
+
+    /**
+     * Removes all components.
+     */
+    void clear() {
+        count = 0;
+    }
+
+    /**
+     * Makes count singleton components. Their sizes and sums are left for the caller to fill.
+     */
+    void reset(int count) {
+        ensureCapacity(count);
+        for (int i = 0; i < count; i++) {
+            parent[i] = i;
+        }
+        this.count = count;
+    }
+
+    void ensureCapacity(int capacity) {
+        if (parent.length < capacity) {
+            int length = Math.max(Math.max(16, capacity), 2 * parent.length);
+            parent = Arrays.copyOf(parent, length);
+            sizes = Arrays.copyOf(sizes, length);
+            sumX = Arrays.copyOf(sumX, length);
+            sumY = Arrays.copyOf(sumY, length);
+        }
+    }
+
+    /**
+     * Adds an empty component.
+     *
+     * @return the index of the new component
+     */
+    int add() {
+        ensureCapacity(count + 1);
+        parent[count] = count;
+        sizes[count] = 0;
+        sumX[count] = 0;
+        sumY[count] = 0;
+        return count++;
+    }
+
+    int find(int label) {
+        while (parent[label] != label) {
+            parent[label] = parent[parent[label]];
+            label = parent[label];
+        }
+        return label;
+    }
+
+    int union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) {
+            return rootA;
+        }
+        if (rootA < rootB) {
+            parent[rootB] = rootA;
+            return rootA;
+        }
+        parent[rootA] = rootB;
+        return rootB;
+    }
+
+    /**
+     * Adds the sums of every non-root to its root and points it straight at the root.
+     * Roots are smaller than their members, so a root is final before its members are seen.
+     */
+    void foldIntoRoots() {
+        for (int label = 0; label < count; label++) {
+            int root = find(label);
+            if (root != label) {
+                sizes[root] += sizes[label];
+                sumX[root] += sumX[label];
+                sumY[root] += sumY[label];
+                parent[label] = root;
+            }
+        }
+    }
+
+    /**
+     * Numbers the roots 0, 1, ... in index order after foldIntoRoots, copies their sizes and
+     * sums into the given arrays and stores the new number of every root in compact, so the
+     * new number of any label is compact[parent[label]].
+     *
+     * @return the number of roots
+     */
+    int compactRoots(int[] compact, int[] rootSizes, long[] rootSumX, long[] rootSumY) {
+        int roots = 0;
+        for (int label = 0; label < count; label++) {
+            if (parent[label] == label) {
+                compact[label] = roots;
+                rootSizes[roots] = sizes[label];
+                rootSumX[roots] = sumX[label];
+                rootSumY[roots] = sumY[label];
+                roots++;
+            }
+        }
+        return roots;
+    }
+
+    /**
+     * @return the groups of all roots, unsorted
+     */
+    List<Group> rootGroups() {
+        List<Group> groups = new ArrayList<>();
+        for (int component = 0; component < count; component++) {
+            if (parent[component] == component) {
+                int size = sizes[component];
+                Coordinate centroid = new Coordinate((int) (sumX[component] / size), (int) (sumY[component] / size));
+                groups.add(new Group(size, centroid));
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * Offers every root to the given collector.
+     */
+    void offerRoots(LargestGroups largest) {
+        for (int component = 0; component < count; component++) {
+            if (parent[component] == component) {
+                largest.accept(sizes[component], sumX[component], sumY[component]);
+            }
+        }
+    }
+}
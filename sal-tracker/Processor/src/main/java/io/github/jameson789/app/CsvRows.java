@@ -0,0 +1,35 @@
+package io.github.jameson789.app;
+
+/**
+ * Formats the CSV rows of one sampled frame.
+ *
+ * With one target a frame with a group gets the row "time,x,y", as always. With several
+ * targets, every target with a group gets a row "time,x,y,target", where target is its index in
+ * the list of targets: 0 for the target of the positional arguments and 1, 2, ... for the
+ * --target options in the order given.
+ */
+public class CsvRows {
+
+    /**
+     * Formats the rows of one frame.
+     *
+     * @param time the time column, in whole or fractional seconds
+     * @param results the centroid of every target, null where there is no group
+     * @return the rows, each ending with a line separator, or an empty string if no target has a group
+     */
+    public static String format(String time, CentroidResult[] results) {
+        StringBuilder rows = new StringBuilder();
+        for (int target = 0; target < results.length; target++) {
+            CentroidResult result = results[target];
+            if (result == null) {
+                continue;
+            }
+            rows.append(time).append(',').append(result.x()).append(',').append(result.y());
+            if (results.length > 1) {
+                rows.append(',').append(target);
+            }
+            rows.append(System.lineSeparator());
+        }
+        return rows.toString();
+    }
+}
@@ -1,6 +1,11 @@
 package io.github.jameson789.app;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+import org.bytedeco.javacv.Frame;
 
 /**
  * An implementation of the ImageBinarizer interface that uses color distance
@@ -12,11 +17,30 @@ import java.awt.image.BufferedImage;
  * 
  * The color distance is computed using a provided ColorDistanceFinder, which defines how to compare two colors numerically.
  * The targetColor is represented as a 24-bit RGB integer in the form 0xRRGGBB.
+ * 
+ * Images of at least LOOKUP_TABLE_MIN_PIXELS pixels are classified through a ColorLookupTable,
+ * compiled once per finder, target color and threshold and shared with every other binarizer
+ * using the same settings. Smaller images call the distance finder directly, since compiling
+ * the table costs about as much as classifying a frame. The output is the same either way.
+ * 
+ * With EuclideanColorDistance, builds made with the "vector" profile and run with
+ * --add-modules jdk.incubator.vector skip the table and classify rows with the vectorized
+ * EuclideanKernel instead, which gives the same result as well.
  */
 public class DistanceImageBinarizer implements ImageBinarizer {
+    /**
+     * The smallest image, in pixels, for which the color lookup table is compiled.
+     */
+    public static final int LOOKUP_TABLE_MIN_PIXELS = 1 << 16;
+
+    private static final EuclideanKernel VECTOR_KERNEL = EuclideanKernel.loadVectorized();
+
     private final ColorDistanceFinder distanceFinder;
     private final int threshold;
     private final int targetColor;
+    private final EuclideanKernel kernel;
+    private final int squaredLimit;
+    private volatile ColorLookupTable lookupTable;
 
     /**
      * Constructs a DistanceImageBinarizer using the given ColorDistanceFinder,
@@ -35,6 +59,10 @@ public class DistanceImageBinarizer implements ImageBinarizer {
         this.distanceFinder = distanceFinder;
         this.targetColor = targetColor;
         this.threshold = threshold;
+        this.kernel = distanceFinder != null && distanceFinder.getClass() == EuclideanColorDistance.class
+                ? VECTOR_KERNEL
+                : null;
+        this.squaredLimit = EuclideanKernel.squaredLimit(threshold);
     }
 
     /**
@@ -47,32 +75,206 @@ public class DistanceImageBinarizer implements ImageBinarizer {
      */
     @Override
     public int[][] toBinaryArray(BufferedImage image) {
+        return toBinaryArray(PixelSource.of(image));
+    }
 
-        //Buffered Image (x = columns, y = rows)
+    /**
+     * Converts the given video frame into a binary 2D array without creating a BufferedImage.
+     * The BGR24 or BGRA pixel buffer of the frame is read in place, honouring its row stride.
+     *
+     * @param frame the input video frame
+     * @return a 2D binary array where 1 represents white and 0 represents black
+     * @throws IllegalArgumentException if the frame layout is not supported by FramePixelSource
+     */
+    @Override
+    public int[][] toBinaryArray(Frame frame) {
+        return toBinaryArray(PixelSource.of(frame));
+    }
 
-        int height = image.getHeight();
-        int width = image.getWidth();
+    /**
+     * Converts the pixels of the given source into a binary 2D array.
+     * This is an adapter over toBinaryImage(PixelSource) that unpacks its result.
+     *
+     * @param pixels the pixels to binarize
+     * @return a 2D binary array where 1 represents white and 0 represents black
+     */
+    public int[][] toBinaryArray(PixelSource pixels) {
+        return toBinaryImage(pixels).toArray();
+    }
 
-        int[][] result = new int[height][width];
+    /**
+     * Converts the given BufferedImage into a bit-packed binary image using color distance and a threshold.
+     *
+     * @param image the input RGB BufferedImage
+     * @return a BinaryImage where set bits represent white pixels
+     */
+    @Override
+    public BinaryImage toBinaryImage(BufferedImage image) {
+        return toBinaryImage(PixelSource.of(image));
+    }
 
-        for(int row = 0; row < height; row++){
-            for(int col = 0; col < width; col++){
-                //get rgb of current pixel
-                int rgb = image.getRGB(col, row);
+    /**
+     * Converts the given video frame into a bit-packed binary image, reading the frame buffer in place.
+     *
+     * @param frame the input video frame
+     * @return a BinaryImage where set bits represent white pixels
+     * @throws IllegalArgumentException if the frame layout is not supported by FramePixelSource
+     */
+    @Override
+    public BinaryImage toBinaryImage(Frame frame) {
+        return toBinaryImage(PixelSource.of(frame));
+    }
 
-                double distance = distanceFinder.distance(rgb, targetColor);
+    /**
+     * Converts the pixels of the given source into a bit-packed binary image.
+     * Pixels are read one row at a time, so the source is never copied as a whole.
+     * A pixel is white if its distance to the target color is at most the threshold.
+     *
+     * @param pixels the pixels to binarize
+     * @return a BinaryImage where set bits represent white pixels
+     */
+    public BinaryImage toBinaryImage(PixelSource pixels) {
+        int height = pixels.getHeight();
+        int width = pixels.getWidth();
+
+        BinaryImage result = new BinaryImage(width, height);
+        long[] words = result.getWords();
+        int wordsPerRow = result.getWordsPerRow();
+        int[] rowPixels = new int[width];
+
+        prepare(width, height);
+        for (int row = 0; row < height; row++) {
+            pixels.readRow(row, 0, width, rowPixels);
+            binarizeRow(rowPixels, width, words, row * wordsPerRow);
+        }
 
-                // pixel is white if distance < threshold
-                if (distance <= threshold){
-                    result[row][col] = 1;
-                } else{
-                    result[row][col] = 0;
+        return result;
+    }
+
+    /**
+     * Gets the binarizer ready for an image of the given size. For images of at least
+     * LOOKUP_TABLE_MIN_PIXELS pixels this fetches the shared ColorLookupTable, compiling it if no
+     * binarizer with the same settings has done so yet. Nothing is needed when the vectorized
+     * kernel is in use. Callers that classify rows themselves should call this once per image
+     * before binarizeRow.
+     *
+     * @param width the width of the image
+     * @param height the height of the image
+     */
+    public void prepare(int width, int height) {
+        if (kernel == null && lookupTable == null && (long) width * height >= LOOKUP_TABLE_MIN_PIXELS) {
+            lookupTable = ColorLookupTable.of(distanceFinder, targetColor, threshold);
+        }
+    }
+
+    /**
+     * Classifies one row of ARGB pixels and ORs the white pixels into packed words.
+     * Pixel i of the row is written to bit (i % 64) of words[wordOffset + i / 64], the layout
+     * of a BinaryImage row. Words are only ever ORed into, so callers reusing a buffer must
+     * clear it first.
+     *
+     * When the vectorized Euclidean kernel is available it classifies the whole row. Otherwise,
+     * once prepare has loaded the lookup table, opaque pixels are classified with a bit lookup.
+     * Pixels with any other alpha value still go through the distance finder.
+     *
+     * @param rowPixels the pixels of the row
+     * @param width the number of pixels to classify
+     * @param words the packed destination, see BinaryImage
+     * @param wordOffset the index of the first word of the row in words
+     */
+    public void binarizeRow(int[] rowPixels, int width, long[] words, int wordOffset) {
+        if (kernel != null) {
+            kernel.binarizeRow(rowPixels, width, targetColor, squaredLimit, words, wordOffset);
+            return;
+        }
+
+        ColorLookupTable table = lookupTable;
+        if (table != null) {
+            for (int col = 0; col < width; col++) {
+                int pixel = rowPixels[col];
+                boolean white = (pixel >>> 24) == 0xFF
+                        ? table.matches(pixel)
+                        : distanceFinder.distance(pixel, targetColor) <= threshold;
+                if (white) {
+                    words[wordOffset + (col >>> 6)] |= 1L << col;
                 }
             }
+            return;
         }
 
-        return result;
+        for (int col = 0; col < width; col++) {
+            double distance = distanceFinder.distance(rowPixels[col], targetColor);
 
+            // pixel is white if distance < threshold
+            if (distance <= threshold) {
+                words[wordOffset + (col >>> 6)] |= 1L << col;
+            }
+        }
+    }
+
+    /**
+     * Renders a black and white preview of the pixels at most maxWidth by maxHeight in size.
+     *
+     * Larger sources are downscaled by the smallest whole step that fits both bounds, keeping
+     * the aspect ratio: only every step-th pixel of every step-th row is read and classified,
+     * so the cost follows the size of the preview, not of the source. Every row is classified
+     * with binarizeRow into packed words, which are copied into the one bit per pixel raster
+     * of a TYPE_BYTE_BINARY image, a byte at a time. No other buffer of the image size is
+     * created.
+     *
+     * @param pixels the pixels to render
+     * @param maxWidth the largest width of the preview
+     * @param maxHeight the largest height of the preview
+     * @return a TYPE_BYTE_BINARY image with white pixels where the color matches
+     * @throws IllegalArgumentException if maxWidth or maxHeight is not positive
+     */
+    public BufferedImage toPreview(PixelSource pixels, int maxWidth, int maxHeight) {
+        int step = previewStep(pixels.getWidth(), pixels.getHeight(), maxWidth, maxHeight);
+        int width = (pixels.getWidth() + step - 1) / step;
+        int height = (pixels.getHeight() + step - 1) / step;
+
+        BufferedImage preview = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY);
+        byte[] bytes = ((DataBufferByte) preview.getRaster().getDataBuffer()).getData();
+        int bytesPerRow = (width + 7) >>> 3;
+        int[] rowPixels = new int[width];
+        long[] rowWords = new long[(width + 63) >>> 6];
+
+        prepare(width, height);
+        for (int row = 0; row < height; row++) {
+            if (step == 1) {
+                pixels.readRow(row, 0, width, rowPixels);
+            } else {
+                pixels.readSampledRow(row * step, 0, step, width, rowPixels);
+            }
+            Arrays.fill(rowWords, 0L);
+            binarizeRow(rowPixels, width, rowWords, 0);
+
+            // the words hold the leftmost pixel in their lowest bit, the raster in the highest bit of a byte
+            int offset = row * bytesPerRow;
+            for (int i = 0; i < bytesPerRow; i++) {
+                int bits = (int) (rowWords[i >>> 3] >>> ((i & 7) << 3)) & 0xFF;
+                bytes[offset + i] = (byte) (Integer.reverse(bits) >>> 24);
+            }
+        }
+        return preview;
+    }
+
+    /**
+     * Returns the step by which toPreview downscales an image: the smallest whole number that
+     * brings both sides within their bounds, or 1 if the image fits already.
+     *
+     * @param width the width of the image
+     * @param height the height of the image
+     * @param maxWidth the largest width of the preview
+     * @param maxHeight the largest height of the preview
+     * @return the distance between the pixels read, in both directions
+     * @throws IllegalArgumentException if maxWidth or maxHeight is not positive
+     */
+    public static int previewStep(int width, int height, int maxWidth, int maxHeight) {
+        if (maxWidth <= 0 || maxHeight <= 0) {
+            throw new IllegalArgumentException("Preview bounds must be positive: " + maxWidth + "x" + maxHeight);
+        }
+        return Math.max(1, Math.max((width + maxWidth - 1) / maxWidth, (height + maxHeight - 1) / maxHeight));
     }
 
     /**
@@ -85,27 +287,40 @@ public class DistanceImageBinarizer implements ImageBinarizer {
      */
     @Override
     public BufferedImage toBufferedImage(int[][] image) {
+        return toBufferedImage(BinaryImage.fromArray(image));
+    }
+
+    /**
+     * Converts a bit-packed binary image into a BufferedImage.
+     * Black pixels are encoded as 0x000000 and white pixels as 0xFFFFFF.
+     *
+     * @param image the binary image to convert
+     * @return a TYPE_INT_RGB BufferedImage of the same size
+     */
+    @Override
+    public BufferedImage toBufferedImage(BinaryImage image) {
         //set white and black color codes
-        int black = 0x000000;
         int white = 0xFFFFFF;
 
         // get input height and width
-        int height = image.length;
-        int width = image[0].length;
+        int height = image.getHeight();
+        int width = image.getWidth();
 
-        // create new BufferImage
+        // create new BufferImage, its pixels start out black
         BufferedImage resultImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int[] pixels = ((DataBufferInt) resultImage.getRaster().getDataBuffer()).getData();
 
+        long[] words = image.getWords();
+        int wordsPerRow = image.getWordsPerRow();
 
-        // loop through full 2d array
-        for(int row = 0; row < height; row++){
-            for(int col = 0; col < width; col++){
-                // if binary image is 1, set to white
-                if(image[row][col] == 1){
-                    resultImage.setRGB(col, row, white);
-                    //else set to black
-                } else {
-                    resultImage.setRGB(col, row, black);
+        // write the white pixels of each row, skipping all-black words
+        for (int row = 0; row < height; row++) {
+            for (int word = 0; word < wordsPerRow; word++) {
+                long bits = words[row * wordsPerRow + word];
+                while (bits != 0) {
+                    int col = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    pixels[row * width + col] = white;
+                    bits &= bits - 1;
                 }
             }
         }
@@ -35,4 +35,18 @@ public class EuclideanColorDistance implements ColorDistanceFinder {
 
         return Math.sqrt(redDiff * redDiff + greenDiff * greenDiff + blueDiff * blueDiff);
     }
+
+    /**
+     * All instances compute the same distance, so they are equal. This lets compiled
+     * ColorLookupTables be shared between binarizers that each create their own instance.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        return obj != null && obj.getClass() == EuclideanColorDistance.class;
+    }
+
+    @Override
+    public int hashCode() {
+        return EuclideanColorDistance.class.hashCode();
+    }
 }
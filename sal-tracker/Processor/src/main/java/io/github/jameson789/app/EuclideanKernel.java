@@ -0,0 +1,62 @@
+package io.github.jameson789.app;
+
+/**
+ * Classifies rows of pixels by their squared Euclidean RGB distance to a target color.
+ *
+ * Working on squared distances avoids the square root of EuclideanColorDistance. For an integer
+ * threshold t, a pixel whose distance is at most t is exactly a pixel whose squared distance is
+ * at most t * t, so a kernel produces the same mask as the distance finder. The alpha byte of
+ * every pixel is ignored, as in EuclideanColorDistance.
+ *
+ * The vectorized implementation lives in a separate source folder that is only compiled by the
+ * "vector" Maven profile, because it needs the incubating jdk.incubator.vector module at
+ * compile time and at run time.
+ */
+public interface EuclideanKernel {
+    /**
+     * The largest possible squared distance between two 24-bit colors, 3 * 255 * 255.
+     */
+    public static final int MAX_SQUARED_DISTANCE = 3 * 255 * 255;
+
+    /**
+     * Classifies one row of ARGB pixels and ORs the matching pixels into packed words, using the
+     * layout described by DistanceImageBinarizer.binarizeRow.
+     *
+     * @param rowPixels the pixels of the row
+     * @param width the number of pixels to classify
+     * @param targetColor the reference color as a 24-bit hex RGB integer (0xRRGGBB)
+     * @param limit the largest squared distance that still matches, see squaredLimit
+     * @param words the packed destination, see BinaryImage
+     * @param wordOffset the index of the first word of the row in words
+     */
+    public void binarizeRow(int[] rowPixels, int width, int targetColor, int limit, long[] words, int wordOffset);
+
+    /**
+     * Converts a distance threshold into the squared limit expected by binarizeRow, clamped to
+     * the range of squared distances so it fits in an int.
+     *
+     * @param threshold the distance threshold
+     * @return -1 for a negative threshold, which matches nothing, otherwise the squared limit
+     */
+    public static int squaredLimit(int threshold) {
+        if (threshold < 0) {
+            return -1;
+        }
+        return (int) Math.min((long) threshold * threshold, MAX_SQUARED_DISTANCE);
+    }
+
+    /**
+     * Loads the Vector API implementation.
+     *
+     * @return the vectorized kernel, or null if this build does not include it or the JVM was
+     *         started without the jdk.incubator.vector module
+     */
+    public static EuclideanKernel loadVectorized() {
+        try {
+            Class<?> kernel = Class.forName("io.github.jameson789.app.VectorEuclideanKernel");
+            return (EuclideanKernel) kernel.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
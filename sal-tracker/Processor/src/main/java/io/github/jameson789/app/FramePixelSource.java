@@ -0,0 +1,107 @@
+package io.github.jameson789.app;
+
+import java.nio.ByteBuffer;
+
+import org.bytedeco.javacv.Frame;
+
+/**
+ * A PixelSource that reads the pixel buffer of a JavaCV Frame in place.
+ *
+ * FFmpegFrameGrabber delivers packed BGR24 frames by default, three bytes per pixel in blue,
+ * green, red order. Four channel frames are read as BGRA (or BGR0), the other packed layout
+ * FFmpeg produces; their fourth byte is ignored and every pixel is reported as opaque. Rows are addressed through Frame.imageStride, so padded rows are handled.
+ * No intermediate image is created; each row is copied out of the buffer once.
+ *
+ * The frame buffer is owned by the grabber, so a FramePixelSource is only valid until the next
+ * frame is grabbed. A finder that reads every frame of a video can keep one instance and point
+ * it at each new frame with reset, so its row buffer is allocated once instead of per frame.
+ */
+public class FramePixelSource implements PixelSource {
+    private ByteBuffer buffer;
+    private int width;
+    private int height;
+    private int channels;
+    private int stride;
+    private byte[] rowBytes = new byte[0];
+
+    /**
+     * Constructs an empty source of 0 by 0 pixels, to be pointed at a frame with reset.
+     */
+    public FramePixelSource() {
+    }
+
+    /**
+     * Constructs a PixelSource for the given frame.
+     *
+     * @param frame a frame holding 8-bit BGR or BGRA pixels in its first image plane
+     * @throws IllegalArgumentException if the frame has no image or an unsupported layout
+     */
+    public FramePixelSource(Frame frame) {
+        reset(frame);
+    }
+
+    /**
+     * Points this source at another frame, keeping the row buffer of the previous ones. If the
+     * frame is rejected the source still reads the previous frame.
+     *
+     * @param frame a frame holding 8-bit BGR or BGRA pixels in its first image plane
+     * @return this source
+     * @throws IllegalArgumentException if the frame has no image or an unsupported layout
+     */
+    public FramePixelSource reset(Frame frame) {
+        if (frame.image == null || frame.image.length == 0 || !(frame.image[0] instanceof ByteBuffer)) {
+            throw new IllegalArgumentException("Frame has no 8-bit image buffer");
+        }
+        if (frame.imageDepth != Frame.DEPTH_UBYTE && frame.imageDepth != Frame.DEPTH_BYTE) {
+            throw new IllegalArgumentException("Unsupported frame depth: " + frame.imageDepth);
+        }
+        if (frame.imageChannels != 3 && frame.imageChannels != 4) {
+            throw new IllegalArgumentException("Unsupported number of channels: " + frame.imageChannels);
+        }
+
+        this.buffer = (ByteBuffer) frame.image[0];
+        this.width = frame.imageWidth;
+        this.height = frame.imageHeight;
+        this.channels = frame.imageChannels;
+        this.stride = frame.imageStride;
+        return this;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public void readRow(int y, int x, int length, int[] dest) {
+        int byteLength = length * channels;
+        if (rowBytes.length < byteLength) {
+            rowBytes = new byte[byteLength];
+        }
+        byte[] bytes = rowBytes;
+        buffer.get(y * stride + x * channels, bytes, 0, byteLength);
+
+        for (int i = 0, index = 0; i < length; i++, index += channels) {
+            dest[i] = 0xFF000000
+                    | (bytes[index + 2] & 0xFF) << 16
+                    | (bytes[index + 1] & 0xFF) << 8
+                    | (bytes[index] & 0xFF);
+        }
+    }
+
+    @Override
+    public void readSampledRow(int y, int x, int step, int count, int[] dest) {
+        int rowStart = y * stride;
+        for (int i = 0, index = rowStart + x * channels; i < count; i++, index += step * channels) {
+            dest[i] = 0xFF000000
+                    | (buffer.get(index + 2) & 0xFF) << 16
+                    | (buffer.get(index + 1) & 0xFF) << 8
+                    | (buffer.get(index) & 0xFF);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.jameson789.app;
+
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+
+/**
+ * Selects the video frames that get analyzed, one frame per sampled second.
+ *
+ * Second s is represented by frame number (int) (s * fps), which is the frame that is on screen
+ * at that point of the video. Implementations decide how the grabber is driven to reach those
+ * frames, but every implementation must hand the same frames to the handler so that the CSV
+ * output does not depend on the sampler that was used.
+ */
+public interface FrameSampler {
+    /**
+     * Visits the sampled frame of every second in the range [startSecond, endSecond).
+     *
+     * The grabber must already be started. The frame passed to the handler is owned by the
+     * grabber and is only valid until the handler returns.
+     *
+     * @param grabber a started grabber for the video
+     * @param startSecond the first second to sample (inclusive)
+     * @param endSecond the last second to sample (exclusive)
+     * @param handler receives each sampled frame together with its second
+     * @throws Exception if the grabber or the handler fails
+     */
+    public void sample(FFmpegFrameGrabber grabber, int startSecond, int endSecond, SampledFrameHandler handler)
+            throws Exception;
+}
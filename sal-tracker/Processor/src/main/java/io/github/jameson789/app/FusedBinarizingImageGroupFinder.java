@@ -0,0 +1,156 @@
+package io.github.jameson789.app;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.bytedeco.javacv.Frame;
+
+/**
+ * An ImageGroupFinder that binarizes and labels an image in a single sweep.
+ *
+ * BinarizingImageGroupFinder first writes a complete binary image and then makes a second
+ * full pass over it to find groups. This class instead reads one row of pixels, classifies it
+ * into a packed row with the DistanceImageBinarizer, and immediately feeds that row to a
+ * RunLengthLabeler. The whole mask is never stored: the working set is one row of pixels, one
+ * packed row and the labeler's run tables, all proportional to the frame width and reused from
+ * frame to frame.
+ *
+ * The groups are identical to those of a BinarizingImageGroupFinder built from the same
+ * binarizer, and are returned sorted in descending order. The largest-group queries keep only
+ * the current top k and skip the remaining rows once even a frame of all-white rows could not
+ * produce a group that ranks. Frames are read through one reused FramePixelSource, so once the
+ * buffers have grown to the frame width findLargestGroup allocates nothing but the Group it
+ * returns. An instance must not be shared between threads.
+ */
+public class FusedBinarizingImageGroupFinder implements ImageGroupFinder {
+    private final DistanceImageBinarizer binarizer;
+    private final RunLengthLabeler labeler = new RunLengthLabeler();
+    private final FramePixelSource framePixels = new FramePixelSource();
+    private final LargestGroups largestGroup = new LargestGroups(1);
+    private int[] rowPixels = new int[0];
+    private long[] rowWords = new long[0];
+
+    /**
+     * Constructs a FusedBinarizingImageGroupFinder that classifies pixels with the given binarizer.
+     *
+     * @param binarizer decides which pixels are white
+     */
+    public FusedBinarizingImageGroupFinder(DistanceImageBinarizer binarizer) {
+        this.binarizer = binarizer;
+    }
+
+    @Override
+    public List<Group> findConnectedGroups(BufferedImage image) {
+        return findConnectedGroups(PixelSource.of(image));
+    }
+
+    @Override
+    public List<Group> findConnectedGroups(Frame frame) {
+        return findConnectedGroups(framePixels.reset(frame));
+    }
+
+    /**
+     * Finds connected groups of white pixels in the given pixels.
+     *
+     * @param pixels the pixels to binarize and label
+     * @return the groups of connected white pixels sorted in descending order
+     */
+    public List<Group> findConnectedGroups(PixelSource pixels) {
+        List<Group> groups = new ArrayList<>();
+        label(pixels, (size, sumX, sumY) -> {
+            //x = sum of all x coords in group / size
+            //y = sum of all y coords in group / size
+            Coordinate centroid = new Coordinate((int) (sumX / size), (int) (sumY / size));
+            groups.add(new Group(size, centroid));
+        });
+
+        //sort groups in descending order (reverses compareTo method)
+        groups.sort(Collections.reverseOrder());
+        return groups;
+    }
+
+    @Override
+    public Group findLargestGroup(BufferedImage image) {
+        return findLargestGroup(PixelSource.of(image));
+    }
+
+    @Override
+    public Group findLargestGroup(Frame frame) {
+        return findLargestGroup(framePixels.reset(frame));
+    }
+
+    /**
+     * Finds the largest group of white pixels without building or sorting the other groups.
+     *
+     * @param pixels the pixels to binarize and label
+     * @return the largest group, or null if no pixel is white
+     */
+    public Group findLargestGroup(PixelSource pixels) {
+        largestGroup.clear();
+        label(pixels, largestGroup, largestGroup);
+        return largestGroup.getLargest();
+    }
+
+    @Override
+    public List<Group> findLargestGroups(BufferedImage image, int k) {
+        return findLargestGroups(PixelSource.of(image), k);
+    }
+
+    @Override
+    public List<Group> findLargestGroups(Frame frame, int k) {
+        return findLargestGroups(framePixels.reset(frame), k);
+    }
+
+    /**
+     * Finds the k largest groups of white pixels without building or sorting the other groups.
+     *
+     * @param pixels the pixels to binarize and label
+     * @param k the maximum number of groups to return
+     * @return at most k groups in descending order
+     * @throws IllegalArgumentException if k is not positive
+     */
+    public List<Group> findLargestGroups(PixelSource pixels, int k) {
+        LargestGroups largest = new LargestGroups(k);
+        label(pixels, largest, largest);
+        return largest.toList();
+    }
+
+    private void label(PixelSource pixels, RunLengthLabeler.ComponentSink sink) {
+        label(pixels, sink, null);
+    }
+
+    /**
+     * Binarizes and labels the pixels row by row, handing every component to the sink.
+     * When a top-k collector is given, labeling stops once the rows that are left cannot
+     * contribute a group that ranks in it.
+     */
+    private void label(PixelSource pixels, RunLengthLabeler.ComponentSink sink, LargestGroups largest) {
+        int width = pixels.getWidth();
+        int height = pixels.getHeight();
+        int wordsPerRow = (width + 63) >>> 6;
+
+        if (rowPixels.length < width) {
+            rowPixels = new int[width];
+        }
+        if (rowWords.length < wordsPerRow) {
+            rowWords = new long[wordsPerRow];
+        }
+
+        binarizer.prepare(width, height);
+        labeler.reset(width, sink);
+        for (int row = 0; row < height; row++) {
+            if (largest != null
+                    && (long) (height - row) * width + labeler.getOpenPixelCount() < largest.getMinimumSize()) {
+                return;
+            }
+            pixels.readRow(row, 0, width, rowPixels);
+            Arrays.fill(rowWords, 0, wordsPerRow, 0L);
+            binarizer.binarizeRow(rowPixels, width, rowWords, 0);
+            labeler.pushRow(rowWords, 0);
+        }
+        labeler.finish();
+    }
+}
@@ -2,9 +2,13 @@ package io.github.jameson789.app;
 
 import java.awt.image.BufferedImage;
 
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.Java2DFrameConverter;
+
 /**
  * An interface for converting between RGB images and binary (black-and-white) images.
- * A binary image is represented as a 2D array of integers, where each pixel is either 0 (black) or 1 (white).
+ * A binary image is represented as a 2D array of integers, where each pixel is either 0 (black) or 1 (white),
+ * or as a bit-packed BinaryImage. The BinaryImage methods default to adapters over the int[][] methods.
  */
 public interface ImageBinarizer {
 
@@ -17,6 +21,20 @@ public interface ImageBinarizer {
      */
     public int[][] toBinaryArray(BufferedImage image);
 
+    /**
+     * Converts the given video frame into a binary 2D array.
+     * Each entry in the returned array is either 0 or 1, representing a black or white pixel.
+     *
+     * The default implementation converts the frame into a BufferedImage first. Implementations
+     * that can read the frame buffer directly should override this method.
+     *
+     * @param frame the input video frame to convert
+     * @return a 2D array of integers where 1 represents white and 0 represents black
+     */
+    public default int[][] toBinaryArray(Frame frame) {
+        return toBinaryArray(new Java2DFrameConverter().getBufferedImage(frame));
+    }
+
     /**
      * Converts a binary 2D array into a BufferedImage.
      * Each element in the array should be either 0 (black) or 1 (white).
@@ -28,4 +46,46 @@ public interface ImageBinarizer {
      * @return a BufferedImage representation of the binary array
      */
     public BufferedImage toBufferedImage(int[][] image);
+
+    /**
+     * Converts the given BufferedImage into a bit-packed binary image.
+     *
+     * The default implementation packs the result of toBinaryArray(BufferedImage) and returns null
+     * if that result is null.
+     *
+     * @param image the input BufferedImage to convert
+     * @return a BinaryImage where set bits represent white pixels
+     */
+    public default BinaryImage toBinaryImage(BufferedImage image) {
+        int[][] binary = toBinaryArray(image);
+        return binary == null ? null : BinaryImage.fromArray(binary);
+    }
+
+    /**
+     * Converts the given video frame into a bit-packed binary image.
+     *
+     * The default implementation packs the result of toBinaryArray(Frame) and returns null
+     * if that result is null.
+     *
+     * @param frame the input video frame to convert
+     * @return a BinaryImage where set bits represent white pixels
+     */
+    public default BinaryImage toBinaryImage(Frame frame) {
+        int[][] binary = toBinaryArray(frame);
+        return binary == null ? null : BinaryImage.fromArray(binary);
+    }
+
+    /**
+     * Converts a bit-packed binary image into a BufferedImage.
+     *
+     * Black pixels should be represented as x000000 and white pixels should be
+     * represented as xFFFFFF. The default implementation unpacks the image and calls
+     * toBufferedImage(int[][]).
+     *
+     * @param image the binary image to convert
+     * @return a BufferedImage representation of the binary image
+     */
+    public default BufferedImage toBufferedImage(BinaryImage image) {
+        return toBufferedImage(image.toArray());
+    }
 }
@@ -1,8 +1,12 @@
 package io.github.jameson789.app;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.awt.image.BufferedImage;
 
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.Java2DFrameConverter;
+
 public interface ImageGroupFinder {
     /**
      * Finds connected groups in an image.
@@ -12,4 +16,71 @@ public interface ImageGroupFinder {
      * @return connected groups in an image sorted in descending order
      */
     public List<Group> findConnectedGroups(BufferedImage image);
+
+    /**
+     * Finds connected groups in a video frame.
+     *
+     * The default implementation converts the frame into a BufferedImage first. Implementations
+     * that can read the frame buffer directly should override this method.
+     *
+     * @param frame
+     * @return connected groups in the frame sorted in descending order
+     */
+    public default List<Group> findConnectedGroups(Frame frame) {
+        return findConnectedGroups(new Java2DFrameConverter().getBufferedImage(frame));
+    }
+
+    /**
+     * Finds the largest connected group in an image, the group findConnectedGroups would list first.
+     *
+     * The default implementation takes the first entry of findConnectedGroups(BufferedImage).
+     * Implementations should override it to avoid building and sorting every group.
+     *
+     * @param image
+     * @return the largest group, or null if the image has no group
+     */
+    public default Group findLargestGroup(BufferedImage image) {
+        List<Group> groups = findConnectedGroups(image);
+        return groups.isEmpty() ? null : groups.get(0);
+    }
+
+    /**
+     * Finds the largest connected group in a video frame.
+     *
+     * @param frame
+     * @return the largest group, or null if the frame has no group
+     * @see #findLargestGroup(BufferedImage)
+     */
+    public default Group findLargestGroup(Frame frame) {
+        List<Group> groups = findConnectedGroups(frame);
+        return groups.isEmpty() ? null : groups.get(0);
+    }
+
+    /**
+     * Finds the k largest connected groups in an image, the first k groups findConnectedGroups would list.
+     *
+     * @param image
+     * @param k the maximum number of groups to return
+     * @return at most k groups in descending order
+     * @throws IllegalArgumentException if k is not positive
+     */
+    public default List<Group> findLargestGroups(BufferedImage image, int k) {
+        if (k <= 0) throw new IllegalArgumentException("k must be positive: " + k);
+        List<Group> groups = findConnectedGroups(image);
+        return new ArrayList<>(groups.subList(0, Math.min(k, groups.size())));
+    }
+
+    /**
+     * Finds the k largest connected groups in a video frame.
+     *
+     * @param frame
+     * @param k the maximum number of groups to return
+     * @return at most k groups in descending order
+     * @throws IllegalArgumentException if k is not positive
+     */
+    public default List<Group> findLargestGroups(Frame frame, int k) {
+        if (k <= 0) throw new IllegalArgumentException("k must be positive: " + k);
+        List<Group> groups = findConnectedGroups(frame);
+        return new ArrayList<>(groups.subList(0, Math.min(k, groups.size())));
+    }
 }
@@ -1,38 +1,207 @@
 package io.github.jameson789.app;
 
 import java.awt.image.BufferedImage;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import org.bytedeco.javacv.Frame;
+
 public class ImageProcessor {
-    private final ImageBinarizer binarizer;
+    private final DistanceImageBinarizer binarizer;
     private final ImageGroupFinder groupFinder;
+    private final RegionTracker tracker;
+    private final MultiGroupFinder targetFinder;
+    private final int primaryTarget;
+    private final FramePixelSource frameSource = new FramePixelSource();
+    private long framePixels;
 
     public ImageProcessor(int targetColor, int threshold) {
+        this(targetColor, threshold, false);
+    }
+
+    /**
+     * Constructs a processor that optionally tracks the group from one frame to the next.
+     *
+     * In tracking mode the frames must be passed in video order. Each frame is first searched in
+     * a window around the previous centroid, see RegionTracker, and the result is the same as
+     * without tracking whenever the tracked group is the largest one in the frame.
+     *
+     * @param targetColor the color to track as a 24-bit hex RGB integer (0xRRGGBB)
+     * @param threshold the color distance threshold
+     * @param tracking whether to search around the previous centroid first
+     */
+    public ImageProcessor(int targetColor, int threshold, boolean tracking) {
         ColorDistanceFinder distanceFinder = new EuclideanColorDistance();
         this.binarizer = new DistanceImageBinarizer(distanceFinder, targetColor, threshold);
-        this.groupFinder = new BinarizingImageGroupFinder(binarizer, new DfsBinaryGroupFinder());
+        // binarizes and labels in one sweep without storing the mask
+        this.groupFinder = new FusedBinarizingImageGroupFinder(binarizer);
+        this.tracker = tracking ? new RegionTracker(binarizer) : null;
+        this.targetFinder = null;
+        this.primaryTarget = 0;
+    }
+
+    /**
+     * Constructs a processor that finds the largest group of several targets in one sweep over
+     * each frame, see MultiTargetGroupFinder. With a single target it is the same as
+     * ImageProcessor(int, int).
+     *
+     * @param targets the targets, in the order of the results
+     * @throws IllegalArgumentException if there are no targets
+     */
+    public ImageProcessor(List<Target> targets) {
+        if (targets.isEmpty()) {
+            throw new IllegalArgumentException("At least one target is required");
+        }
+        List<DistanceImageBinarizer> binarizers = new ArrayList<>();
+        for (Target target : targets) {
+            binarizers.add(new DistanceImageBinarizer(new EuclideanColorDistance(), target.color(), target.threshold()));
+        }
+        this.binarizer = binarizers.get(0);
+        this.groupFinder = new FusedBinarizingImageGroupFinder(binarizer);
+        this.tracker = null;
+        this.targetFinder = binarizers.size() > 1 ? new MultiTargetGroupFinder(binarizers) : null;
+        this.primaryTarget = 0;
+    }
+
+    /**
+     * Constructs a processor that finds the largest group of one color at several thresholds
+     * in one sweep over each frame, see ThresholdSweepGroupFinder. Every threshold counts as a
+     * target of its own, in ascending order. The single-result methods, processImage and
+     * processFrame, and the binarized previews use the given threshold, which must be one of
+     * the sweep.
+     *
+     * @param targetColor the color to track as a 24-bit hex RGB integer (0xRRGGBB)
+     * @param threshold the threshold of the single-result methods
+     * @param thresholds the color distance thresholds, ascending and without duplicates
+     * @throws IllegalArgumentException if the thresholds are not valid for ThresholdSweepGroupFinder
+     *                                  or do not contain threshold
+     */
+    public ImageProcessor(int targetColor, int threshold, int[] thresholds) {
+        ColorDistanceFinder distanceFinder = new EuclideanColorDistance();
+        this.targetFinder = new ThresholdSweepGroupFinder(distanceFinder, targetColor, thresholds);
+        this.primaryTarget = Arrays.binarySearch(thresholds, threshold);
+        if (primaryTarget < 0) {
+            throw new IllegalArgumentException("The sweep does not contain threshold " + threshold + ": "
+                    + Arrays.toString(thresholds));
+        }
+        this.binarizer = new DistanceImageBinarizer(distanceFinder, targetColor, threshold);
+        this.groupFinder = new FusedBinarizingImageGroupFinder(binarizer);
+        this.tracker = null;
+    }
+
+    /**
+     * Constructs a processor with a custom group finder, for example a BinarizingImageGroupFinder
+     * over a ParallelBinaryGroupFinder to label single large frames on several threads.
+     *
+     * @param binarizer the binarizer used for getBinarizedImage
+     * @param groupFinder finds the groups in images and frames
+     */
+    public ImageProcessor(DistanceImageBinarizer binarizer, ImageGroupFinder groupFinder) {
+        this.binarizer = binarizer;
+        this.groupFinder = groupFinder;
+        this.tracker = null;
+        this.targetFinder = null;
+        this.primaryTarget = 0;
+    }
+
+    /**
+     * @return the number of targets, the length of the arrays returned by processFrameTargets
+     */
+    public int getTargetCount() {
+        return targetFinder != null ? targetFinder.getTargetCount() : 1;
     }
 
     public CentroidResult processImage(BufferedImage image) {
         if (image == null) {
             return null;
         }
-        List<Group> groups = groupFinder.findConnectedGroups(image);
-    
-        if (groups == null || groups.isEmpty()) {
-            System.out.println("⚠️ No white pixels found for this frame");
+        if (tracker != null) {
+            return toCentroid(tracker.findLargestGroup(image));
+        }
+        framePixels += (long) image.getWidth() * image.getHeight();
+        return toCentroid(groupFinder.findLargestGroup(image));
+    }
+
+    /**
+     * Finds the centroid of the largest group in a video frame, reading the frame buffer in place
+     * instead of converting it to a BufferedImage.
+     *
+     * The finders keep their row buffers, label tables and result collectors from frame to
+     * frame, sized by the widest frame seen so far. Once the first frame has been processed,
+     * each further frame of the same size allocates only the few small objects of its result.
+     *
+     * @param frame the frame to process, may be null
+     * @return the centroid of the largest group, or null if the frame is null or has no match
+     */
+    public CentroidResult processFrame(Frame frame) {
+        if (frame == null) {
             return null;
         }
-    
-        Group largestGroup = null;
-        for (Group group : groups) {
-            if (largestGroup == null || group.size() > largestGroup.size()) {
-                largestGroup = group;
+        if (targetFinder != null) {
+            return processFrameTargets(frame)[primaryTarget];
+        }
+        if (tracker != null) {
+            return toCentroid(tracker.findLargestGroup(frame));
+        }
+        framePixels += (long) frame.imageWidth * frame.imageHeight;
+        return toCentroid(groupFinder.findLargestGroup(frame));
+    }
+
+    /**
+     * Finds the centroid of the largest group of every target in a video frame, reading the
+     * frame buffer once for all of them.
+     *
+     * @param frame the frame to process, may be null
+     * @return one centroid per target, in target order, null where the frame is null or has no match
+     */
+    public CentroidResult[] processFrameTargets(Frame frame) {
+        if (targetFinder == null) {
+            return new CentroidResult[] {processFrame(frame)};
+        }
+        CentroidResult[] results = new CentroidResult[targetFinder.getTargetCount()];
+        if (frame == null) {
+            return results;
+        }
+        framePixels += (long) frame.imageWidth * frame.imageHeight;
+        Group[] groups = targetFinder.findLargestGroups(frameSource.reset(frame));
+        boolean anyGroup = false;
+        for (int i = 0; i < groups.length; i++) {
+            if (groups[i] != null) {
+                results[i] = toCentroid(groups[i]);
+                anyGroup = true;
             }
         }
-    
+        if (!anyGroup) {
+            // once per frame, not once per target or threshold
+            reportNoGroup();
+        }
+        return results;
+    }
+
+    /**
+     * Returns the number of pixels classified so far. Tracking and coarse to fine search read
+     * only part of most frames and incremental search classifies only the changed parts, every
+     * other finder reads each frame in full, once for all targets.
+     *
+     * @return the number of pixels compared with the target color by this processor
+     */
+    public long getClassifiedPixels() {
+        if (tracker != null) {
+            return tracker.getScannedPixels();
+        }
+        if (groupFinder instanceof PyramidGroupFinder pyramid) {
+            return pyramid.getScannedPixels();
+        }
+        if (groupFinder instanceof IncrementalGroupFinder incremental) {
+            return incremental.getClassifiedPixels();
+        }
+        return framePixels;
+    }
+
+    private CentroidResult toCentroid(Group largestGroup) {
         if (largestGroup == null) {
+            reportNoGroup();
             return null;
         }
     
@@ -41,8 +210,48 @@ public class ImageProcessor {
         return new CentroidResult(x, y);
     }    
 
+    private static void reportNoGroup() {
+        System.out.println("⚠️ No white pixels found for this frame");
+    }
+
+    /**
+     * Renders the pixels that match the color in white and all others in black, at full size.
+     *
+     * @param image the image to render
+     * @return a TYPE_BYTE_BINARY image of the same size
+     */
     public BufferedImage getBinarizedImage(BufferedImage image) {
-        return binarizer.toBufferedImage(binarizer.toBinaryArray(image));
+        return binarizer.toPreview(PixelSource.of(image), image.getWidth(), image.getHeight());
+    }
+
+    /**
+     * Renders the pixels that match the color in white and all others in black, downscaled to
+     * fit the given bounds, see DistanceImageBinarizer.toPreview. Only the pixels shown are
+     * classified, so a small preview of a 4K image takes about as long as one of a small image.
+     *
+     * @param image the image to render
+     * @param maxWidth the largest width of the preview
+     * @param maxHeight the largest height of the preview
+     * @return a TYPE_BYTE_BINARY image
+     * @throws IllegalArgumentException if maxWidth or maxHeight is not positive
+     */
+    public BufferedImage getBinarizedPreview(BufferedImage image, int maxWidth, int maxHeight) {
+        return binarizer.toPreview(PixelSource.of(image), maxWidth, maxHeight);
+    }
+
+    /**
+     * Renders a preview of a video frame like getBinarizedPreview(BufferedImage, int, int),
+     * reading the frame buffer in place.
+     *
+     * @param frame the frame to render
+     * @param maxWidth the largest width of the preview
+     * @param maxHeight the largest height of the preview
+     * @return a TYPE_BYTE_BINARY image
+     * @throws IllegalArgumentException if maxWidth or maxHeight is not positive or the frame
+     *                                  layout is not supported by FramePixelSource
+     */
+    public BufferedImage getBinarizedPreview(Frame frame, int maxWidth, int maxHeight) {
+        return binarizer.toPreview(PixelSource.of(frame), maxWidth, maxHeight);
     }
 
 }
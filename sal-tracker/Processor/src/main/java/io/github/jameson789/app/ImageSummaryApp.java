@@ -1,43 +1,94 @@
 package io.github.jameson789.app;
 
-import java.awt.image.BufferedImage;
 import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
 
 import org.bytedeco.javacv.FFmpegFrameGrabber;
-import org.bytedeco.javacv.Java2DFrameConverter;
+import org.bytedeco.javacv.Frame;
 
 /**
  * The Image Summary Application.
  *
- * This application takes three command-line arguments: 1. The path to an input
- * image file (for example, "image.png"). 2. A target hex color in the format
- * RRGGBB (for example, "FF0000" for red). 3. An integer threshold for
- * binarization.
+ * Usage: java ImageSummaryApp <input_video> <hex_target_color> <threshold> <task_id> [options]
  *
- * The application performs the following steps:
+ * Runs one video job: samples the video once per second, finds the largest group of pixels
+ * within the threshold of the target color in every sampled frame and writes a "second,x,y"
+ * row with its centroid to <video name>_<task_id>.csv in the result directory, see CsvRows.
+ * Pixels are connected vertically and horizontally, and (x:0, y:0) is the top-left corner.
+ * When the job ends its metrics are printed, see JobMetrics. A job that crashes resumes where
+ * it stopped when run again, see Checkpoint. The options are described in ProcessingOptions.
  *
- * 1. Loads the input image. 2. Parses the target color from the hex string into
- * a 24-bit integer. 3. Binarizes the image by comparing each pixel's Euclidean
- * color distance to the target color. A pixel is marked white (1) if its
- * distance is less than the threshold; otherwise, it is marked black (0). 4.
- * Converts the binary array back to a BufferedImage and writes the binarized
- * image to disk as "binarized.png". 5. Finds connected groups of white pixels
- * in the binary image. Pixels are connected vertically and horizontally (not
- * diagonally). For each group, the size (number of pixels) and the centroid
- * (calculated using integer division) are computed. 6. Writes a CSV file named
- * "groups.csv" containing one row per group in the format "size,x,y".
- * Coordinates follow the convention: (x:0, y:0) is the top-left, with x
- * increasing to the right and y increasing downward.
+ * Usage: java ImageSummaryApp --server [--socket=PATH] [--jobs=N]
  *
- * Usage: java ImageSummaryApp <input_image> <hex_target_color> <threshold>
+ * starts a long-running worker that accepts jobs with the same arguments on stdin, or on a
+ * Unix-domain socket, and reports the completion of every job, see WorkerServer.
+ *
+ * Usage: java ImageSummaryApp --batch=MANIFEST [--threads=N]
+ *
+ * runs the jobs of a manifest, one per line, in this JVM on one shared pool of N threads, one
+ * per core by default, and reports the completion of every job, see BatchRunner.
  */
 public class ImageSummaryApp {
+    private static final String USAGE =
+            "Usage: java ImageSummaryApp <input_video> <hex_target_color> <threshold> <task_id> [options]";
 
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].startsWith("--server")) {
+            serve(args);
+            return;
+        }
+        if (args.length > 0 && args[0].startsWith("--batch=")) {
+            batch(args);
+            return;
+        }
         if (args.length < 4) {
-            throw new IllegalArgumentException(
-                    "Usage: java ImageSummaryApp <input_video> <hex_target_color> <threshold> <task_id>");
+            throw new IllegalArgumentException(USAGE);
+        }
+
+        try {
+            File outputFile = run(args, resultDirectory());
+            System.out.println("Processing complete. Output: " + outputFile.getName());
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+        } catch (Exception e) {
+            System.err.println("Error processing video.");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Processes one video job and writes its CSV.
+     *
+     * @param args the job arguments: video, hex color, threshold, task id and options
+     * @param resultDir the directory that receives the CSV
+     * @return the CSV file written
+     * @throws IllegalArgumentException if the arguments are invalid
+     * @throws Exception if the video can not be processed
+     */
+    public static File run(String[] args, File resultDir) throws Exception {
+        return run(args, resultDir, null);
+    }
+
+    /**
+     * Processes one video job and writes its CSV, running the segments of the video on a shared
+     * pool. Jobs with --workers or --adaptive do not use the pool.
+     *
+     * @param args the job arguments: video, hex color, threshold, task id and options
+     * @param resultDir the directory that receives the CSV
+     * @param pool the pool to process segments on, or null to follow the options
+     * @return the CSV file written
+     * @throws IllegalArgumentException if the arguments are invalid
+     * @throws Exception if the video can not be processed
+     */
+    public static File run(String[] args, File resultDir, ForkJoinPool pool) throws Exception {
+        if (args.length < 4) {
+            throw new IllegalArgumentException(USAGE);
         }
 
         String videoPath = args[0];
@@ -49,15 +100,11 @@ public class ImageSummaryApp {
         try {
             targetColor = Integer.parseInt(hexTargetColor, 16) & 0xFFFFFF;
             threshold = Integer.parseInt(args[2]);
-        } catch (Exception e) {
-            System.err.println("Error parsing color or threshold.");
-            return;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Error parsing color or threshold.", e);
         }
 
-        String resultDir = System.getenv("RESULT_PATH");
-        if (resultDir == null || resultDir.isBlank()) {
-            resultDir = "../results"; // fallback for local dev
-        }
+        ProcessingOptions options = ProcessingOptions.parse(args, 4);
 
         String baseName = new File(videoPath).getName();
         int dotIndex = baseName.lastIndexOf('.');
@@ -67,48 +114,185 @@ public class ImageSummaryApp {
         String outputFileName = baseName + "_" + taskId + ".csv";
         File outputFile = new File(resultDir, outputFileName);
 
+        int checkpointInterval = options.getCheckpointInterval();
+        Checkpoint checkpoint = checkpointInterval > 0
+                ? new Checkpoint(outputFile, Checkpoint.key(new File(videoPath), args), checkpointInterval)
+                : null;
+        int startSecond = checkpoint != null ? checkpoint.resume() : 0;
+        if (startSecond > 0) {
+            System.out.println("Resuming at second " + startSecond + " from " + checkpoint.getFile().getName());
+        }
+
+        JobMetrics metrics = new JobMetrics();
+        AutoCloseable snapshots = options.getMetricsInterval() > 0
+                ? metrics.printSnapshots(options.getMetricsInterval(), System.out)
+                : null;
         try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(videoPath);
-                PrintWriter writer = new PrintWriter(outputFile)) {
+                PrintWriter writer = checkpoint != null ? checkpoint.openWriter() : new PrintWriter(outputFile)) {
 
             grabber.start();
-            Java2DFrameConverter converter = new Java2DFrameConverter();
-            ImageProcessor processor = new ImageProcessor(targetColor, threshold);
+            ImageProcessor processor = options.newImageProcessor(targetColor, threshold);
+            FrameSampler sampler = options.getSampler();
 
-            double fps = grabber.getFrameRate();
             // Convert microseconds to seconds
             double durationInSeconds = grabber.getLengthInTime() / 1000000.0;
             System.out.printf("Video duration: %.2f seconds%n", durationInSeconds);
 
-            // Process one frame per second
-            for (int second = 0; second < (int) durationInSeconds; second++) {
-                // Calculate frame number and cast to int
-                int frameNumber = (int) (second * fps);
-                grabber.setFrameNumber(frameNumber);
+            if (pool != null && options.getWorkers() == 0 && options.getAdaptiveMaxInterval() == 0) {
+                grabber.stop();
+                new SegmentedVideoProcessor(videoPath,
+                        () -> options.newImageProcessor(targetColor, threshold), sampler, pool)
+                        .process(startSecond, (int) durationInSeconds, writer, metrics, checkpoint);
+            } else if (options.getThreads() > 1) {
+                // every segment opens its own grabber
+                grabber.stop();
+                new SegmentedVideoProcessor(videoPath,
+                        () -> options.newImageProcessor(targetColor, threshold), sampler, options.getThreads())
+                        .process(startSecond, (int) durationInSeconds, writer, metrics, checkpoint);
+            } else if (options.getAdaptiveMaxInterval() > 0) {
+                new AdaptiveVideoProcessor(processor, options.getAdaptiveMaxInterval(), options.getMotionTolerance())
+                        .process(grabber, startSecond, writer, metrics, checkpoint);
+                grabber.stop();
+            } else if (options.getWorkers() > 0) {
+                new PipelinedVideoProcessor(
+                        () -> options.newImageProcessor(targetColor, threshold), sampler, options.getWorkers())
+                        .process(grabber, startSecond, (int) durationInSeconds, writer, metrics, checkpoint);
+                grabber.stop();
+            } else {
+                // Process one frame per second
+                sampler.sample(grabber, startSecond, (int) durationInSeconds, metrics.timeDecoding((second, frame) -> {
+                    printFrameLoaded("second " + second, frame);
 
-                var frame = grabber.grabImage();
+                    CentroidResult[] results = metrics.analyze(processor, frame);
 
-                if (frame == null) {
-                    System.out.println("No frame at second: " + second);
-                    continue;
-                }
+                    long start = System.nanoTime();
+                    writer.print(CsvRows.format(Integer.toString(second), results));
+                    metrics.record(JobMetrics.Stage.WRITE, System.nanoTime() - start);
+                    if (checkpoint != null) {
+                        checkpoint.completed(second + 1, writer);
+                    }
+                }));
+                grabber.stop();
+            }
+        } finally {
+            if (snapshots != null) {
+                snapshots.close();
+            }
+        }
 
-                BufferedImage image = converter.getBufferedImage(frame);
-                System.out.println("Frame loaded at second " + second + " size=" +
-                                image.getWidth() + "x" + image.getHeight());
+        if (checkpoint != null) {
+            checkpoint.finish();
+        }
+        if (options.isSweep()) {
+            writeSweepReport(outputFile, options.getSweepThresholds(threshold), options.getTolerance());
+        }
+        System.out.println("Metrics: " + metrics.toJson());
+        return outputFile;
+    }
+
+    /**
+     * Prints the progress line of a frame. Only the single-threaded paths print it; on several
+     * threads the lines of different segments would interleave.
+     *
+     * @param time when the frame was taken, for example "second 12"
+     * @param frame the frame that was loaded
+     */
+    static void printFrameLoaded(String time, Frame frame) {
+        System.out.println("Frame loaded at " + time + " size=" + frame.imageWidth + "x" + frame.imageHeight);
+    }
+
+    /**
+     * Builds the SweepReport of a sweep CSV, prints it and saves it next to the CSV. Reading the
+     * finished CSV covers every processing mode and the rows of a resumed job alike.
+     */
+    private static void writeSweepReport(File csv, int[] thresholds, int tolerance) throws IOException {
+        SweepReport report;
+        try (Reader reader = new FileReader(csv, StandardCharsets.UTF_8)) {
+            report = SweepReport.read(reader, thresholds, tolerance);
+        }
+        String name = csv.getName();
+        File reportFile = new File(csv.getParentFile(), name.substring(0, name.length() - ".csv".length()) + "_sweep.txt");
+        try (PrintWriter out = new PrintWriter(reportFile, StandardCharsets.UTF_8)) {
+            report.write(out);
+        }
+        report.write(new PrintWriter(System.out));
+    }
 
-                CentroidResult result = processor.processImage(image);
+    /**
+     * @return the directory named by RESULT_PATH, or ../results when it is not set
+     */
+    public static File resultDirectory() {
+        String resultDir = System.getenv("RESULT_PATH");
+        if (resultDir == null || resultDir.isBlank()) {
+            resultDir = "../results"; // fallback for local dev
+        }
+        return new File(resultDir);
+    }
 
-                if (result != null) {
-                    writer.printf("%d,%d,%d%n", second, result.x(), result.y());
+    private static void batch(String[] args) {
+        String manifest = args[0].substring("--batch=".length());
+        int threads = Runtime.getRuntime().availableProcessors();
+        BatchRunner.Manifest jobs;
+        try {
+            for (int i = 1; i < args.length; i++) {
+                if (args[i].startsWith("--threads=")) {
+                    threads = ProcessingOptions.positiveInt(args[i], "--threads=".length());
+                } else {
+                    throw new IllegalArgumentException("Unknown batch option: " + args[i]);
                 }
             }
+            try (Reader reader = new FileReader(manifest, StandardCharsets.UTF_8)) {
+                jobs = BatchRunner.readManifest(reader);
+            }
+        } catch (IllegalArgumentException | IOException e) {
+            System.err.println(e.getMessage());
+            return;
+        }
 
-            grabber.stop();
-            System.out.println("Processing complete. Output: " + outputFileName);
+        File resultDir = resultDirectory();
+        long start = System.nanoTime();
+        PrintWriter replies = new PrintWriter(System.out, true);
+        try (BatchRunner runner = new BatchRunner((jobArgs, pool) -> run(jobArgs, resultDir, pool), threads)) {
+            int failed = runner.run(jobs, replies);
+            System.out.printf("Batch complete: %d done, %d failed in %.1f seconds%n",
+                    jobs.jobs().size() + jobs.errors().size() - failed, failed, (System.nanoTime() - start) / 1e9);
+        } catch (Exception e) {
+            System.err.println("Batch stopped.");
+            e.printStackTrace();
+        }
+    }
 
+    private static void serve(String[] args) {
+        String socket = null;
+        int jobs = WorkerServer.DEFAULT_JOBS;
+        try {
+            for (String arg : args) {
+                if (arg.equals("--server")) {
+                    continue;
+                } else if (arg.startsWith("--socket=")) {
+                    socket = arg.substring("--socket=".length());
+                } else if (arg.startsWith("--jobs=")) {
+                    jobs = ProcessingOptions.positiveInt(arg, "--jobs=".length());
+                } else {
+                    throw new IllegalArgumentException("Unknown server option: " + arg);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return;
+        }
+
+        File resultDir = resultDirectory();
+        try (WorkerServer server = new WorkerServer(jobArgs -> run(jobArgs, resultDir), jobs)) {
+            server.warmUp();
+            if (socket == null) {
+                server.serveStandardStreams();
+            } else {
+                server.serve(Path.of(socket));
+            }
         } catch (Exception e) {
-            System.err.println("Error processing video.");
+            System.err.println("Worker server stopped.");
             e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,369 @@
+package io.github.jameson789.app;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.bytedeco.javacv.Frame;
+
+/**
+ * An ImageGroupFinder for fixed cameras that only classifies and labels what changed since the
+ * previous frame.
+ *
+ * The frame is cut into tiles of TILE_SIZE by TILE_SIZE pixels, so that a row of a tile is one
+ * word of the packed mask. The finder keeps the pixels, the mask and the components of every
+ * tile from the previous call. For a new frame every row is read and each tile's part of it
+ * compared with the stored pixels; a part that changed is stored, classified again with
+ * binarizeRow and marks its tile dirty. Only dirty tiles are labeled again, by a run-based
+ * union-find over their mask, which yields their components with pixel counts and coordinate
+ * sums and the components of the pixels on their four borders. Clean tiles keep theirs.
+ *
+ * The components of all tiles are then stitched like the stripes of ParallelBinaryGroupFinder:
+ * components on either side of a tile border whose border pixels are both white are united, and
+ * the sums are folded into the roots. Sizes and sums are exact integers, so the groups and
+ * their order are identical to those of a full recomputation, whatever the previous frame was.
+ * Reading and comparing the pixels still covers the whole frame, but classification and
+ * labeling follow the changed tiles, and stitching touches a few words per tile.
+ *
+ * The first frame and frames of another size are processed in full. An instance keeps about
+ * 4 bytes per pixel of state and must not be shared between threads. Frames do not need to be
+ * in video order, but the fewer pixels change between two calls, the less work there is.
+ */
+public class IncrementalGroupFinder implements ImageGroupFinder {
+    /**
+     * The width and height of a tile in pixels, the number of bits in a mask word.
+     */
+    public static final int TILE_SIZE = 64;
+
+    private final DistanceImageBinarizer binarizer;
+    private int width = -1;
+    private int height = -1;
+    private int tileColumns;
+    private int tileRows;
+    private int[] pixels = new int[0];
+    private long[] words = new long[0];
+    private Tile[] tiles = new Tile[0];
+    private int[] rowPixels = new int[0];
+    private final int[] segment = new int[TILE_SIZE];
+
+    // the runs of two rows of a tile and the union-find table of its labeling
+    private final RunRow previousRow = new RunRow(TILE_SIZE / 2);
+    private final RunRow currentRow = new RunRow(TILE_SIZE / 2);
+    private final ComponentForest tileComponents = new ComponentForest();
+    private int[] compact = new int[0];
+    private final ComponentForest frameComponents = new ComponentForest();
+    private int[] offsets = new int[0];
+    private final FramePixelSource framePixels = new FramePixelSource();
+    private final LargestGroups largestGroup = new LargestGroups(1);
+
+    private long classifiedPixels;
+    private long labeledTiles;
+
+    /**
+     * Constructs a finder that classifies pixels with the given binarizer.
+     *
+     * @param binarizer decides which pixels are white
+     */
+    public IncrementalGroupFinder(DistanceImageBinarizer binarizer) {
+        this.binarizer = binarizer;
+    }
+
+    @Override
+    public List<Group> findConnectedGroups(BufferedImage image) {
+        return findConnectedGroups(PixelSource.of(image));
+    }
+
+    @Override
+    public List<Group> findConnectedGroups(Frame frame) {
+        return findConnectedGroups(framePixels.reset(frame));
+    }
+
+    /**
+     * Finds connected groups of white pixels in the given pixels.
+     *
+     * @param pixels the pixels to binarize and label
+     * @return the groups of connected white pixels sorted in descending order
+     */
+    public List<Group> findConnectedGroups(PixelSource pixels) {
+        List<Group> groups = update(pixels).rootGroups();
+
+        //sort groups in descending order (reverses compareTo method)
+        groups.sort(Collections.reverseOrder());
+        return groups;
+    }
+
+    @Override
+    public Group findLargestGroup(BufferedImage image) {
+        return findLargestGroup(PixelSource.of(image));
+    }
+
+    @Override
+    public Group findLargestGroup(Frame frame) {
+        return findLargestGroup(framePixels.reset(frame));
+    }
+
+    /**
+     * Finds the largest group of white pixels without building or sorting the other groups.
+     *
+     * @param pixels the pixels to binarize and label
+     * @return the largest group, or null if no pixel is white
+     */
+    public Group findLargestGroup(PixelSource pixels) {
+        largestGroup.clear();
+        update(pixels).offerRoots(largestGroup);
+        return largestGroup.getLargest();
+    }
+
+    @Override
+    public List<Group> findLargestGroups(BufferedImage image, int k) {
+        return findLargestGroups(PixelSource.of(image), k);
+    }
+
+    @Override
+    public List<Group> findLargestGroups(Frame frame, int k) {
+        return findLargestGroups(framePixels.reset(frame), k);
+    }
+
+    /**
+     * Finds the k largest groups of white pixels without building or sorting the other groups.
+     *
+     * @param pixels the pixels to binarize and label
+     * @param k the maximum number of groups to return
+     * @return at most k groups in descending order
+     * @throws IllegalArgumentException if k is not positive
+     */
+    public List<Group> findLargestGroups(PixelSource pixels, int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive: " + k);
+        }
+        LargestGroups largest = new LargestGroups(k);
+        update(pixels).offerRoots(largest);
+        return largest.toList();
+    }
+
+    /**
+     * @return the number of pixels classified so far, the pixels of the changed tile rows
+     */
+    public long getClassifiedPixels() {
+        return classifiedPixels;
+    }
+
+    /**
+     * @return the number of tiles labeled so far, the dirty tiles of every frame
+     */
+    public long getLabeledTiles() {
+        return labeledTiles;
+    }
+
+    /**
+     * Forgets the previous frame, so the next one is processed in full.
+     */
+    public void reset() {
+        width = -1;
+        height = -1;
+    }
+
+    /**
+     * Brings the stored pixels, mask and tile components up to date with the given pixels and
+     * stitches the components of all tiles.
+     */
+    private ComponentForest update(PixelSource source) {
+        boolean full = source.getWidth() != width || source.getHeight() != height;
+        if (full) {
+            resize(source.getWidth(), source.getHeight());
+        }
+
+        int wordsPerRow = tileColumns;
+        binarizer.prepare(width, height);
+        for (int row = 0; row < height; row++) {
+            source.readRow(row, 0, width, rowPixels);
+            int rowStart = row * width;
+            int firstTile = (row / TILE_SIZE) * tileColumns;
+
+            for (int column = 0; column < tileColumns; column++) {
+                int x = column * TILE_SIZE;
+                int length = Math.min(TILE_SIZE, width - x);
+                if (!full && Arrays.equals(pixels, rowStart + x, rowStart + x + length, rowPixels, x, x + length)) {
+                    continue;
+                }
+                System.arraycopy(rowPixels, x, pixels, rowStart + x, length);
+                System.arraycopy(rowPixels, x, segment, 0, length);
+                int word = row * wordsPerRow + column;
+                words[word] = 0;
+                // the segment is classified as a row of its own, which lands in its one word
+                binarizer.binarizeRow(segment, length, words, word);
+                classifiedPixels += length;
+                tiles[firstTile + column].dirty = true;
+            }
+        }
+
+        for (int i = 0; i < tiles.length; i++) {
+            Tile tile = tiles[i];
+            if (tile.dirty) {
+                label(tile, i % tileColumns, i / tileColumns);
+                tile.dirty = false;
+                labeledTiles++;
+            }
+        }
+        return stitch();
+    }
+
+    private void resize(int newWidth, int newHeight) {
+        width = newWidth;
+        height = newHeight;
+        tileColumns = (width + TILE_SIZE - 1) / TILE_SIZE;
+        tileRows = (height + TILE_SIZE - 1) / TILE_SIZE;
+        if (pixels.length < width * height) {
+            pixels = new int[width * height];
+        }
+        if (words.length < tileColumns * height) {
+            words = new long[tileColumns * height];
+        }
+        if (rowPixels.length < width) {
+            rowPixels = new int[width];
+        }
+        tiles = new Tile[tileColumns * tileRows];
+        for (int i = 0; i < tiles.length; i++) {
+            tiles[i] = new Tile();
+        }
+        offsets = new int[tiles.length];
+    }
+
+    /**
+     * Labels the mask of one tile and stores its components and border labels.
+     */
+    private void label(Tile tile, int column, int tileRow) {
+        int x0 = column * TILE_SIZE;
+        int y0 = tileRow * TILE_SIZE;
+        int tileWidth = Math.min(TILE_SIZE, width - x0);
+        int tileHeight = Math.min(TILE_SIZE, height - y0);
+        ComponentForest provisional = tileComponents;
+        provisional.clear();
+        Arrays.fill(tile.top, -1);
+        Arrays.fill(tile.bottom, -1);
+        Arrays.fill(tile.left, -1);
+        Arrays.fill(tile.right, -1);
+
+        RunRow above = previousRow;
+        RunRow row = currentRow;
+        above.clear();
+        for (int r = 0; r < tileHeight; r++) {
+            int y = y0 + r;
+            row.clear();
+            row.addRuns(words[y * tileColumns + column], 0);
+            row.label(above, provisional, x0, y);
+
+            for (int run = 0; run < row.count; run++) {
+                int label = row.label[run];
+                if (r == 0) {
+                    Arrays.fill(tile.top, row.start[run], row.end[run], label);
+                }
+                if (r == tileHeight - 1) {
+                    Arrays.fill(tile.bottom, row.start[run], row.end[run], label);
+                }
+                if (row.start[run] == 0) {
+                    tile.left[r] = label;
+                }
+                if (row.end[run] == tileWidth) {
+                    tile.right[r] = label;
+                }
+            }
+
+            RunRow swap = above;
+            above = row;
+            row = swap;
+        }
+
+        provisional.foldIntoRoots();
+
+        // keep the roots under compact indices and point the border pixels at them
+        if (compact.length < provisional.count) {
+            compact = new int[provisional.parent.length];
+        }
+        tile.ensureCapacity(provisional.count);
+        tile.count = provisional.compactRoots(compact, tile.sizes, tile.sumX, tile.sumY);
+        renumber(tile.top, compact, provisional.parent);
+        renumber(tile.bottom, compact, provisional.parent);
+        renumber(tile.left, compact, provisional.parent);
+        renumber(tile.right, compact, provisional.parent);
+    }
+
+    private static void renumber(int[] border, int[] compact, int[] parent) {
+        for (int i = 0; i < border.length; i++) {
+            if (border[i] >= 0) {
+                border[i] = compact[parent[border[i]]];
+            }
+        }
+    }
+
+    /**
+     * Gives every tile component a frame index, unites the components that touch across tile
+     * borders and folds their sums into the roots.
+     */
+    private ComponentForest stitch() {
+        int total = 0;
+        for (int i = 0; i < tiles.length; i++) {
+            offsets[i] = total;
+            total += tiles[i].count;
+        }
+
+        ComponentForest components = frameComponents;
+        components.reset(total);
+        for (int i = 0; i < tiles.length; i++) {
+            Tile tile = tiles[i];
+            System.arraycopy(tile.sizes, 0, components.sizes, offsets[i], tile.count);
+            System.arraycopy(tile.sumX, 0, components.sumX, offsets[i], tile.count);
+            System.arraycopy(tile.sumY, 0, components.sumY, offsets[i], tile.count);
+        }
+
+        for (int i = 0; i < tiles.length; i++) {
+            Tile tile = tiles[i];
+            int column = i % tileColumns;
+            int tileRow = i / tileColumns;
+            if (column + 1 < tileColumns) {
+                Tile right = tiles[i + 1];
+                unite(components, tile.right, offsets[i], right.left, offsets[i + 1]);
+            }
+            if (tileRow + 1 < tileRows) {
+                Tile below = tiles[i + tileColumns];
+                unite(components, tile.bottom, offsets[i], below.top, offsets[i + tileColumns]);
+            }
+        }
+
+        components.foldIntoRoots();
+        return components;
+    }
+
+    private static void unite(ComponentForest components, int[] border, int offset, int[] other, int otherOffset) {
+        for (int i = 0; i < TILE_SIZE; i++) {
+            if (border[i] >= 0 && other[i] >= 0) {
+                components.union(offset + border[i], otherOffset + other[i]);
+            }
+        }
+    }
+
+    /**
+     * The components of one tile, with compact indices 0..count-1, and the component of every
+     * pixel on its borders, -1 for black pixels and positions past the edge of the frame.
+     */
+    private static class Tile {
+        final int[] top = new int[TILE_SIZE];
+        final int[] bottom = new int[TILE_SIZE];
+        final int[] left = new int[TILE_SIZE];
+        final int[] right = new int[TILE_SIZE];
+        int[] sizes = new int[0];
+        long[] sumX = new long[0];
+        long[] sumY = new long[0];
+        int count;
+        boolean dirty = true;
+
+        void ensureCapacity(int capacity) {
+            if (sizes.length < capacity) {
+                sizes = new int[capacity];
+                sumX = new long[capacity];
+                sumY = new long[capacity];
+            }
+        }
+    }
+}
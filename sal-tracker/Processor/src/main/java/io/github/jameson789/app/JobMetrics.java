@@ -0,0 +1,268 @@
+package io.github.jameson789.app;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.bytedeco.javacv.Frame;
+
+/**
+ * Timing and throughput measurements of one video job.
+ *
+ * Every job records how long its stages take per sampled frame, in a LatencyHistogram each:
+ *
+ *   decode    grabbing the sampled frame, including the skipped frames decoded before it and
+ *             any seek; measured between two calls of the sampling handler
+ *   analyze   binarizing and labeling the frame, which run fused in one sweep over its rows
+ *   write     writing the CSV row
+ *
+ * and counts the frames decoded, skipped and analyzed, the analyzed frames without a group and
+ * the pixels classified. Frames are read in place, so there is no conversion stage. Skipped
+ * frames are only counted by samplers that decode them, see SampledFrameHandler.skipped.
+ *
+ * The real-time factor is the video time covered by the analyzed frames divided by the wall
+ * time since the job started; above 1 the job runs faster than the video plays. Samplers that
+ * hand out one frame per second cover one second per sampled frame, which timeDecoding credits
+ * by default. AdaptiveVideoProcessor samples at varying intervals and reports the time it
+ * covers with addVideoTime instead.
+ *
+ * Recording costs a couple of System.nanoTime calls and atomic increments per sampled frame,
+ * so metrics are always collected. All methods may be called from any thread.
+ */
+public class JobMetrics {
+    /**
+     * The measured stages of a job.
+     */
+    public enum Stage {
+        DECODE, ANALYZE, WRITE
+    }
+
+    private final long startNanos = System.nanoTime();
+    private final LatencyHistogram[] stages = new LatencyHistogram[Stage.values().length];
+    private final LongAdder framesSampled = new LongAdder();
+    private final LongAdder framesSkipped = new LongAdder();
+    private final LongAdder framesAnalyzed = new LongAdder();
+    private final LongAdder framesWithoutGroup = new LongAdder();
+    private final LongAdder pixelsClassified = new LongAdder();
+    private final LongAdder videoMicros = new LongAdder();
+
+    /**
+     * Constructs empty metrics; the wall clock of the job starts now.
+     */
+    public JobMetrics() {
+        for (int i = 0; i < stages.length; i++) {
+            stages[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Records the duration of one stage of one frame.
+     *
+     * @param stage the stage
+     * @param nanos the duration in nanoseconds
+     */
+    public void record(Stage stage, long nanos) {
+        stages[stage.ordinal()].record(nanos);
+    }
+
+    /**
+     * @param stage the stage
+     * @return the durations recorded for the stage
+     */
+    public LatencyHistogram getHistogram(Stage stage) {
+        return stages[stage.ordinal()];
+    }
+
+    /**
+     * Wraps the handler of a sampler that hands out one frame per second of video, see
+     * timeDecoding(SampledFrameHandler, long); every sampled frame covers one second.
+     *
+     * @param handler the handler to wrap
+     * @return a handler that measures decoding and then calls the given one
+     */
+    public SampledFrameHandler timeDecoding(SampledFrameHandler handler) {
+        return timeDecoding(handler, 1_000_000L);
+    }
+
+    /**
+     * Wraps a handler so that the time spent in the sampler between two calls is recorded as
+     * the decode time of the next sampled frame, sampled and skipped frames are counted and
+     * every sampled frame adds the given video time. Every sampling run needs its own wrapper.
+     *
+     * @param handler the handler to wrap
+     * @param microsPerSample the video time each sampled frame covers in microseconds, 0 when
+     *                        the caller reports it with addVideoTime
+     * @return a handler that measures decoding and then calls the given one
+     */
+    public SampledFrameHandler timeDecoding(SampledFrameHandler handler, long microsPerSample) {
+        return new SampledFrameHandler() {
+            private long last = System.nanoTime();
+
+            @Override
+            public void handle(int second, Frame frame) throws Exception {
+                record(Stage.DECODE, System.nanoTime() - last);
+                framesSampled.increment();
+                videoMicros.add(microsPerSample);
+                try {
+                    handler.handle(second, frame);
+                } finally {
+                    last = System.nanoTime();
+                }
+            }
+
+            @Override
+            public void skipped() {
+                framesSkipped.increment();
+                handler.skipped();
+            }
+        };
+    }
+
+    /**
+     * Finds the centroid of every target in a frame with the processor and records the
+     * analysis. A frame counts as without a group when no target has one.
+     *
+     * @param processor the processor to use, owned by the calling thread
+     * @param frame the frame to analyze
+     * @return the centroid per target, null where the frame has no group
+     */
+    public CentroidResult[] analyze(ImageProcessor processor, Frame frame) {
+        long pixels = processor.getClassifiedPixels();
+        long start = System.nanoTime();
+        CentroidResult[] results = processor.processFrameTargets(frame);
+        record(Stage.ANALYZE, System.nanoTime() - start);
+
+        framesAnalyzed.increment();
+        boolean found = false;
+        for (CentroidResult result : results) {
+            found |= result != null;
+        }
+        if (!found) {
+            framesWithoutGroup.increment();
+        }
+        pixelsClassified.add(processor.getClassifiedPixels() - pixels);
+        return results;
+    }
+
+    /**
+     * Adds video time covered by the job, for callers that do not sample once per second.
+     *
+     * @param micros the video time in microseconds
+     */
+    public void addVideoTime(long micros) {
+        videoMicros.add(micros);
+    }
+
+    /**
+     * @return the video time covered by the analyzed frames so far, in seconds
+     */
+    public double getVideoSeconds() {
+        return videoMicros.sum() / 1e6;
+    }
+
+    /**
+     * @return the frames decoded so far: the sampled ones plus the skipped ones
+     */
+    public long getFramesDecoded() {
+        return framesSampled.sum() + framesSkipped.sum();
+    }
+
+    /**
+     * @return the frames decoded but not sampled so far
+     */
+    public long getFramesSkipped() {
+        return framesSkipped.sum();
+    }
+
+    /**
+     * @return the frames analyzed so far
+     */
+    public long getFramesAnalyzed() {
+        return framesAnalyzed.sum();
+    }
+
+    /**
+     * @return the analyzed frames without a group so far
+     */
+    public long getFramesWithoutGroup() {
+        return framesWithoutGroup.sum();
+    }
+
+    /**
+     * @return the pixels classified so far
+     */
+    public long getPixelsClassified() {
+        return pixelsClassified.sum();
+    }
+
+    /**
+     * Returns a one-line JSON object with the counters, the throughput and, per stage, the
+     * count, total, mean, 50th, 90th and 99th percentile and maximum in milliseconds.
+     *
+     * @return the metrics as of now
+     */
+    public String toJson() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        long analyzed = getFramesAnalyzed();
+        double framesPerSecond = seconds > 0 ? analyzed / seconds : 0;
+        double videoSeconds = getVideoSeconds();
+        double realTimeFactor = seconds > 0 ? videoSeconds / seconds : 0;
+
+        StringBuilder json = new StringBuilder();
+        json.append('{');
+        json.append(String.format(Locale.ROOT, "\"elapsedSeconds\":%.3f", seconds));
+        json.append(",\"framesDecoded\":").append(getFramesDecoded());
+        json.append(",\"framesSkipped\":").append(getFramesSkipped());
+        json.append(",\"framesAnalyzed\":").append(analyzed);
+        json.append(",\"framesWithoutGroup\":").append(getFramesWithoutGroup());
+        json.append(",\"pixelsClassified\":").append(getPixelsClassified());
+        json.append(String.format(Locale.ROOT, ",\"videoSeconds\":%.3f", videoSeconds));
+        json.append(String.format(Locale.ROOT, ",\"framesPerSecond\":%.2f,\"realTimeFactor\":%.2f",
+                framesPerSecond, realTimeFactor));
+        json.append(",\"stages\":{");
+        for (Stage stage : Stage.values()) {
+            LatencyHistogram histogram = getHistogram(stage);
+            long count = histogram.getCount();
+            if (stage.ordinal() > 0) {
+                json.append(',');
+            }
+            json.append('"').append(stage.name().toLowerCase(Locale.ROOT)).append("\":{");
+            json.append("\"count\":").append(count);
+            json.append(String.format(Locale.ROOT,
+                    ",\"totalMillis\":%.3f,\"meanMillis\":%.3f,\"p50Millis\":%.3f,\"p90Millis\":%.3f"
+                            + ",\"p99Millis\":%.3f,\"maxMillis\":%.3f}",
+                    millis(histogram.getTotalNanos()),
+                    count > 0 ? millis(histogram.getTotalNanos()) / count : 0,
+                    millis(histogram.getPercentileNanos(50)), millis(histogram.getPercentileNanos(90)),
+                    millis(histogram.getPercentileNanos(99)), millis(histogram.getMaxNanos())));
+        }
+        json.append("}}");
+        return json.toString();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    /**
+     * Prints a "Metrics snapshot: JSON" line every intervalSeconds on a daemon thread until the
+     * returned handle is closed.
+     *
+     * @param intervalSeconds the time between snapshots
+     * @param out receives the snapshots
+     * @return stops the snapshots when closed
+     */
+    public AutoCloseable printSnapshots(int intervalSeconds, PrintStream out) {
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "metrics-snapshots");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleAtFixedRate(() -> out.println("Metrics snapshot: " + toJson()),
+                intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        return timer::shutdownNow;
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.jameson789.app;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the k largest groups out of a stream of connected components.
+ *
+ * Components are offered as raw pixel counts and coordinate sums. The centroid is computed with
+ * integer division like everywhere else, and components are ranked by Group's natural order
+ * (size, then x, then y). A Group object is only created for a component that makes it into the
+ * current top k, so offering thousands of specks of noise allocates nothing and nothing is
+ * sorted beyond the k kept entries.
+ */
+public class LargestGroups implements RunLengthLabeler.ComponentSink {
+    private final int[] sizes;
+    private final int[] xs;
+    private final int[] ys;
+    private int count;
+
+    /**
+     * Constructs a collector for the k largest groups.
+     *
+     * @param k the number of groups to keep
+     * @throws IllegalArgumentException if k is not positive
+     */
+    public LargestGroups(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive: " + k);
+        }
+        this.sizes = new int[k];
+        this.xs = new int[k];
+        this.ys = new int[k];
+    }
+
+    /**
+     * Offers a component. It is kept if it ranks among the k largest seen so far.
+     *
+     * @param size the number of pixels in the component
+     * @param sumX the sum of the x coordinates of its pixels
+     * @param sumY the sum of the y coordinates of its pixels
+     */
+    @Override
+    public void accept(int size, long sumX, long sumY) {
+        int x = (int) (sumX / size);
+        int y = (int) (sumY / size);
+
+        // find the insertion point in the descending entries, starting from the smallest
+        int index = count;
+        while (index > 0 && compare(size, x, y, index - 1) > 0) {
+            index--;
+        }
+        if (index == sizes.length) {
+            return;
+        }
+
+        int moved = Math.min(count, sizes.length - 1) - index;
+        System.arraycopy(sizes, index, sizes, index + 1, moved);
+        System.arraycopy(xs, index, xs, index + 1, moved);
+        System.arraycopy(ys, index, ys, index + 1, moved);
+        sizes[index] = size;
+        xs[index] = x;
+        ys[index] = y;
+        if (count < sizes.length) {
+            count++;
+        }
+    }
+
+    /**
+     * Offers a group.
+     *
+     * @param group the group to offer
+     */
+    public void offer(Group group) {
+        int size = group.size();
+        accept(size, (long) group.centroid().x() * size, (long) group.centroid().y() * size);
+    }
+
+    /**
+     * Returns the size a new component must exceed to be sure to enter the top k.
+     * Components of exactly this size may still enter through the tie-break on the centroid.
+     *
+     * @return the size of the k-th largest group, or 0 while fewer than k groups were kept
+     */
+    public int getMinimumSize() {
+        return count < sizes.length ? 0 : sizes[count - 1];
+    }
+
+    /**
+     * Forgets all groups so the collector can be reused.
+     */
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * @return the largest group, or null if no component was offered
+     */
+    public Group getLargest() {
+        return count == 0 ? null : new Group(sizes[0], new Coordinate(xs[0], ys[0]));
+    }
+
+    /**
+     * @return the kept groups in descending order, at most k of them
+     */
+    public List<Group> toList() {
+        List<Group> groups = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            groups.add(new Group(sizes[i], new Coordinate(xs[i], ys[i])));
+        }
+        return groups;
+    }
+
+    private int compare(int size, int x, int y, int index) {
+        int comp = Integer.compare(size, sizes[index]);
+        if (comp != 0) {
+            return comp;
+        }
+        comp = Integer.compare(x, xs[index]);
+        if (comp != 0) {
+            return comp;
+        }
+        return Integer.compare(y, ys[index]);
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.jameson789.app;
+
+/**
+ * Chooses the time between two sampled frames from the motion of the centroid.
+ *
+ * Sampling starts one second apart. After every sample the centroid is compared with the one
+ * of the previous sample:
+ *
+ *   - while it moved at most tolerance pixels, or neither sample had a group, the interval
+ *     doubles, up to the maximum;
+ *   - when it moved further, the interval is scaled by tolerance / distance, which aims for
+ *     about tolerance pixels of movement between samples at the speed just observed, down to
+ *     the minimum;
+ *   - when the group appears or disappears, the interval drops to the minimum.
+ *
+ * So idle stretches are sampled every few seconds, and movement is followed at up to every
+ * frame. Intervals are in microseconds, like frame timestamps.
+ */
+public class MotionAdaptiveSchedule {
+    /**
+     * The interval before the first sample is compared, one second.
+     */
+    public static final long INITIAL_INTERVAL = 1_000_000;
+
+    private final long minInterval;
+    private final long maxInterval;
+    private final double tolerance;
+    private long interval;
+    private CentroidResult previous;
+    private boolean first = true;
+
+    /**
+     * Constructs a schedule.
+     *
+     * @param minInterval the shortest interval, usually one frame
+     * @param maxInterval the longest interval
+     * @param tolerance the movement in pixels between samples that still counts as idle
+     * @throws IllegalArgumentException if minInterval is not positive, maxInterval is less than
+     *                                  minInterval or tolerance is negative
+     */
+    public MotionAdaptiveSchedule(long minInterval, long maxInterval, double tolerance) {
+        if (minInterval <= 0) {
+            throw new IllegalArgumentException("minInterval must be positive: " + minInterval);
+        }
+        if (maxInterval < minInterval) {
+            throw new IllegalArgumentException("maxInterval must be at least minInterval: " + maxInterval);
+        }
+        if (tolerance < 0) {
+            throw new IllegalArgumentException("tolerance must not be negative: " + tolerance);
+        }
+        this.minInterval = minInterval;
+        this.maxInterval = maxInterval;
+        this.tolerance = tolerance;
+        this.interval = clamp(INITIAL_INTERVAL);
+    }
+
+    /**
+     * Takes the result of the latest sample and returns the time to the next one.
+     *
+     * @param current the centroid of the latest sample, or null if it had no group
+     * @return the interval to the next sample in microseconds
+     */
+    public long next(CentroidResult current) {
+        if (first) {
+            first = false;
+        } else if (previous == null && current == null) {
+            interval = clamp(2 * interval);
+        } else if (previous == null || current == null) {
+            interval = minInterval;
+        } else {
+            double distance = Math.hypot(current.x() - previous.x(), current.y() - previous.y());
+            if (distance <= tolerance) {
+                interval = clamp(2 * interval);
+            } else {
+                interval = clamp((long) (interval * tolerance / distance));
+            }
+        }
+        previous = current;
+        return interval;
+    }
+
+    private long clamp(long value) {
+        return Math.max(minInterval, Math.min(maxInterval, value));
+    }
+}
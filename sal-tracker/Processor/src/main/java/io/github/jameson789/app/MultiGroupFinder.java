@@ -0,0 +1,21 @@
+package io.github.jameson789.app;
+
+/**
+ * Finds the largest group of several targets in one sweep over the pixels of an image.
+ *
+ * Implementations reuse their buffers and must not be shared between threads.
+ */
+public interface MultiGroupFinder {
+    /**
+     * @return the number of targets, the length of the arrays returned by findLargestGroups
+     */
+    public int getTargetCount();
+
+    /**
+     * Finds the largest group of every target in the pixels.
+     *
+     * @param pixels the pixels to search
+     * @return the largest group per target, in target order, null where no pixel matches
+     */
+    public Group[] findLargestGroups(PixelSource pixels);
+}
@@ -0,0 +1,129 @@
+package io.github.jameson789.app;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.List;
+
+import org.bytedeco.javacv.Frame;
+
+/**
+ * Finds the largest group of several targets in one sweep over the pixels.
+ *
+ * Like FusedBinarizingImageGroupFinder, the frame is read one row at a time, but every row is
+ * classified by each target's binarizer into a packed row of its own and fed to that target's
+ * RunLengthLabeler. So the pixels are decoded and read from memory once, however many targets
+ * there are; only the classification, which runs on the row in cache, is repeated per target.
+ * A target stops being classified once the remaining rows cannot produce a group larger than
+ * the one it has, and the sweep ends when that holds for every target.
+ *
+ * For every target the result is identical to a FusedBinarizingImageGroupFinder built from
+ * its binarizer. An instance reuses its buffers and must not be shared between threads.
+ */
+public class MultiTargetGroupFinder implements MultiGroupFinder {
+    private final DistanceImageBinarizer[] binarizers;
+    private final RunLengthLabeler[] labelers;
+    private final LargestGroups[] largest;
+    private final boolean[] done;
+    private int[] rowPixels = new int[0];
+    private long[] rowWords = new long[0];
+
+    /**
+     * Constructs a finder for the given targets.
+     *
+     * @param binarizers one binarizer per target
+     * @throws IllegalArgumentException if there are no binarizers
+     */
+    public MultiTargetGroupFinder(List<DistanceImageBinarizer> binarizers) {
+        if (binarizers.isEmpty()) {
+            throw new IllegalArgumentException("At least one target is required");
+        }
+        this.binarizers = binarizers.toArray(new DistanceImageBinarizer[0]);
+        this.labelers = new RunLengthLabeler[this.binarizers.length];
+        this.largest = new LargestGroups[this.binarizers.length];
+        this.done = new boolean[this.binarizers.length];
+        for (int i = 0; i < labelers.length; i++) {
+            labelers[i] = new RunLengthLabeler();
+            largest[i] = new LargestGroups(1);
+        }
+    }
+
+    @Override
+    public int getTargetCount() {
+        return binarizers.length;
+    }
+
+    /**
+     * Finds the largest group of every target in an image.
+     *
+     * @param image the image to search
+     * @return the largest group per target, in target order, null where no pixel matches
+     */
+    public Group[] findLargestGroups(BufferedImage image) {
+        return findLargestGroups(PixelSource.of(image));
+    }
+
+    /**
+     * Finds the largest group of every target in a frame, reading the frame buffer in place.
+     *
+     * @param frame the frame to search
+     * @return the largest group per target, in target order, null where no pixel matches
+     */
+    public Group[] findLargestGroups(Frame frame) {
+        return findLargestGroups(PixelSource.of(frame));
+    }
+
+    @Override
+    public Group[] findLargestGroups(PixelSource pixels) {
+        int width = pixels.getWidth();
+        int height = pixels.getHeight();
+        int wordsPerRow = (width + 63) >>> 6;
+        int targets = binarizers.length;
+
+        if (rowPixels.length < width) {
+            rowPixels = new int[width];
+        }
+        if (rowWords.length < targets * wordsPerRow) {
+            rowWords = new long[targets * wordsPerRow];
+        }
+
+        for (int t = 0; t < targets; t++) {
+            done[t] = false;
+            largest[t].clear();
+            binarizers[t].prepare(width, height);
+            labelers[t].reset(width, largest[t]);
+        }
+
+        for (int row = 0; row < height; row++) {
+            boolean any = false;
+            for (int t = 0; t < targets; t++) {
+                if (!done[t] && (long) (height - row) * width + labelers[t].getOpenPixelCount()
+                        < largest[t].getMinimumSize()) {
+                    done[t] = true;
+                }
+                any |= !done[t];
+            }
+            if (!any) {
+                break;
+            }
+
+            pixels.readRow(row, 0, width, rowPixels);
+            Arrays.fill(rowWords, 0, targets * wordsPerRow, 0L);
+            for (int t = 0; t < targets; t++) {
+                if (!done[t]) {
+                    int offset = t * wordsPerRow;
+                    binarizers[t].binarizeRow(rowPixels, width, rowWords, offset);
+                    labelers[t].pushRow(rowWords, offset);
+                }
+            }
+        }
+
+        Group[] groups = new Group[targets];
+        for (int t = 0; t < targets; t++) {
+            if (!done[t]) {
+                labelers[t].finish();
+            }
+            groups[t] = largest[t].getLargest();
+        }
+        return groups;
+    }
+}
@@ -0,0 +1,242 @@
+package io.github.jameson789.app;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * A BinaryGroupFinder that labels horizontal stripes of a frame in parallel, for lower latency
+ * on single large frames such as 4K or stitched panoramas.
+ *
+ * The image is cut into stripes of whole rows. Each stripe is labeled on a ForkJoinPool by a
+ * run-based union-find: the white runs of every row are united with the overlapping runs of
+ * the row above, and every component keeps its pixel count and x/y coordinate sums. A stripe
+ * also remembers the runs of its first and last row together with their components.
+ *
+ * The stripes are then stitched together on the calling thread. Runs of the last row of one
+ * stripe and the first row of the next that overlap belong to the same group, so their
+ * components are united in a global union-find over all stripe components, and the sums of
+ * every component are folded into its root. Since sizes and sums are exact integers, the
+ * groups, their centroids and their order are identical to those of the sequential finders.
+ *
+ * Labeling allocates per call and keeps no state between calls, so an instance can be shared
+ * between threads.
+ */
+public class ParallelBinaryGroupFinder implements BinaryGroupFinder {
+    /**
+     * The smallest stripe height. Thinner stripes spend more time stitching than labeling.
+     */
+    public static final int MIN_STRIPE_ROWS = 32;
+
+    private final ForkJoinPool pool;
+    private final int stripes;
+
+    /**
+     * Constructs a finder on the common pool with two stripes per worker thread.
+     */
+    public ParallelBinaryGroupFinder() {
+        this(ForkJoinPool.commonPool(), 2 * ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * Constructs a finder that labels at most the given number of stripes on the given pool.
+     *
+     * @param pool the pool the stripes are labeled on
+     * @param stripes the maximum number of stripes; fewer are used for frames with fewer than
+     *        stripes * MIN_STRIPE_ROWS rows
+     * @throws IllegalArgumentException if stripes is not positive
+     */
+    public ParallelBinaryGroupFinder(ForkJoinPool pool, int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("stripes must be positive: " + stripes);
+        }
+        this.pool = pool;
+        this.stripes = stripes;
+    }
+
+    /**
+     * Finds connected pixel groups of 1s in an integer array representing a binary image.
+     * Invalid input is rejected with an IllegalArgumentException like DfsBinaryGroupFinder does.
+     *
+     * @param image a rectangular 2D array containing only 1s and 0s
+     * @return the found groups of connected pixels in descending order
+     */
+    @Override
+    public List<Group> findConnectedGroups(int[][] image) {
+        if (image == null || image.length == 0 || image[0] == null)
+            throw new IllegalArgumentException("Invalid image input");
+
+        return findConnectedGroups(BinaryImage.fromArray(image));
+    }
+
+    /**
+     * Finds connected groups of white pixels in a bit-packed binary image.
+     *
+     * @param image a bit-packed binary image
+     * @return the found groups of connected pixels in descending order
+     */
+    @Override
+    public List<Group> findConnectedGroups(BinaryImage image) {
+        List<Group> groups = label(image).rootGroups();
+
+        //sort groups in descending order (reverses compareTo method)
+        groups.sort(Collections.reverseOrder());
+        return groups;
+    }
+
+    /**
+     * Finds the largest connected group of white pixels without sorting the other groups.
+     *
+     * @param image a bit-packed binary image
+     * @return the largest group, or null if the image has no white pixels
+     */
+    @Override
+    public Group findLargestGroup(BinaryImage image) {
+        return findLargest(image, 1).getLargest();
+    }
+
+    /**
+     * Finds the k largest connected groups of white pixels without sorting the other groups.
+     *
+     * @param image a bit-packed binary image
+     * @param k the maximum number of groups to return
+     * @return at most k groups in descending order
+     */
+    @Override
+    public List<Group> findLargestGroups(BinaryImage image, int k) {
+        return findLargest(image, k).toList();
+    }
+
+    private LargestGroups findLargest(BinaryImage image, int k) {
+        LargestGroups largest = new LargestGroups(k);
+        label(image).offerRoots(largest);
+        return largest;
+    }
+
+    /**
+     * Labels the stripes in parallel and stitches them into one set of components.
+     */
+    private ComponentForest label(BinaryImage image) {
+        int height = image.getHeight();
+        int count = Math.max(1, Math.min(stripes, height / MIN_STRIPE_ROWS));
+        Stripe[] labeled = new Stripe[count];
+
+        if (count == 1) {
+            labeled[0] = new Stripe(image, 0, height);
+        } else {
+            List<Callable<Stripe>> tasks = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                int startRow = (int) ((long) height * i / count);
+                int endRow = (int) ((long) height * (i + 1) / count);
+                tasks.add(() -> new Stripe(image, startRow, endRow));
+            }
+            List<Future<Stripe>> futures = pool.invokeAll(tasks);
+            for (int i = 0; i < count; i++) {
+                try {
+                    labeled[i] = futures.get(i).get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while labeling", e);
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Labeling a stripe failed", e.getCause());
+                }
+            }
+        }
+
+        return stitch(labeled);
+    }
+
+    /**
+     * Gives every stripe component a global index, unites the components that touch across
+     * stripe borders and folds their sums into the roots.
+     */
+    private static ComponentForest stitch(Stripe[] stripes) {
+        int[] offsets = new int[stripes.length];
+        int total = 0;
+        for (int i = 0; i < stripes.length; i++) {
+            offsets[i] = total;
+            total += stripes[i].componentCount;
+        }
+
+        ComponentForest components = new ComponentForest();
+        components.reset(total);
+        for (int i = 0; i < stripes.length; i++) {
+            Stripe stripe = stripes[i];
+            System.arraycopy(stripe.sizes, 0, components.sizes, offsets[i], stripe.componentCount);
+            System.arraycopy(stripe.sumX, 0, components.sumX, offsets[i], stripe.componentCount);
+            System.arraycopy(stripe.sumY, 0, components.sumY, offsets[i], stripe.componentCount);
+        }
+
+        for (int i = 1; i < stripes.length; i++) {
+            RunRow above = stripes[i - 1].lastRow;
+            RunRow below = stripes[i].firstRow;
+            int a = 0;
+            int b = 0;
+            while (a < above.count && b < below.count) {
+                if (above.start[a] < below.end[b] && below.start[b] < above.end[a]) {
+                    components.union(offsets[i - 1] + above.label[a], offsets[i] + below.label[b]);
+                }
+                // advance the run that ends first, it cannot overlap anything further right
+                if (above.end[a] < below.end[b]) {
+                    a++;
+                } else {
+                    b++;
+                }
+            }
+        }
+
+        components.foldIntoRoots();
+        return components;
+    }
+
+    /**
+     * The components of the rows [startRow, endRow), with compact indices 0..componentCount-1.
+     */
+    private static class Stripe {
+        final RunRow firstRow;
+        final RunRow lastRow;
+        final int[] sizes;
+        final long[] sumX;
+        final long[] sumY;
+        final int componentCount;
+
+        Stripe(BinaryImage image, int startRow, int endRow) {
+            ComponentForest provisional = new ComponentForest();
+            RunRow above = new RunRow(16);
+            RunRow row = new RunRow(16);
+            RunRow first = null;
+
+            for (int y = startRow; y < endRow; y++) {
+                row.read(image, y);
+                row.label(above, provisional, 0, y);
+                if (y == startRow) {
+                    first = row.copy();
+                }
+                RunRow swap = above;
+                above = row;
+                row = swap;
+            }
+
+            provisional.foldIntoRoots();
+
+            // renumber the roots compactly and point the border runs at them
+            int[] compact = new int[provisional.count];
+            sizes = new int[provisional.count];
+            sumX = new long[provisional.count];
+            sumY = new long[provisional.count];
+            componentCount = provisional.compactRoots(compact, sizes, sumX, sumY);
+
+            firstRow = first == null ? new RunRow(0) : first;
+            lastRow = endRow > startRow ? above.copy() : new RunRow(0);
+            for (RunRow border : new RunRow[] {firstRow, lastRow}) {
+                for (int r = 0; r < border.count; r++) {
+                    border.label[r] = compact[provisional.parent[border.label[r]]];
+                }
+            }
+        }
+    }
+}
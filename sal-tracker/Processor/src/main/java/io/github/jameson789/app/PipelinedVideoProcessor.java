@@ -0,0 +1,259 @@
+package io.github.jameson789.app;
+
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.Frame;
+
+/**
+ * Processes a video as a pipeline of three stages so that decoding overlaps with analysis.
+ *
+ * A decoder thread drives the FrameSampler and copies every sampled frame into a free buffer
+ * from a fixed pool. N worker threads, each with its own ImageProcessor, take buffers from a
+ * bounded work queue, find the centroid and hand the buffer back to the pool. The calling thread
+ * is the writer: it collects the results and writes them in sampling order, holding back any
+ * result that arrives before its predecessors.
+ *
+ * The pool has 2 * N + 1 buffers, which bounds the frames in flight. When the workers fall
+ * behind, the decoder blocks waiting for a free buffer, and when the decoder falls behind, the
+ * workers block on the empty work queue. Buffers are reused for the whole video and only
+ * reallocated if the frame size changes, so steady state decoding allocates no frame memory.
+ *
+ * Every second is analyzed from the same frame as in a single threaded run, and the rows come
+ * out in the same order, so the CSV is identical. With tracking processors each worker tracks
+ * the group across the frames it happens to receive, which are further apart than one second.
+ */
+public class PipelinedVideoProcessor {
+    private final Supplier<ImageProcessor> processors;
+    private final FrameSampler sampler;
+    private final int workers;
+
+    /**
+     * Constructs a pipeline with the given number of processing workers.
+     *
+     * @param processors creates the ImageProcessor of every worker
+     * @param sampler selects the frame of every second
+     * @param workers the number of processing workers
+     * @throws IllegalArgumentException if workers is not positive
+     */
+    public PipelinedVideoProcessor(Supplier<ImageProcessor> processors, FrameSampler sampler, int workers) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("workers must be positive: " + workers);
+        }
+        this.processors = processors;
+        this.sampler = sampler;
+        this.workers = workers;
+    }
+
+    /**
+     * Processes the seconds [0, endSecond) and writes one "second,x,y" row per second with a
+     * centroid, in order.
+     *
+     * @param grabber a started grabber for the video, used only by the decoder thread
+     * @param endSecond the last second to process (exclusive)
+     * @param writer receives the CSV rows
+     * @throws Exception if a stage fails; the other stages are stopped
+     */
+    public void process(FFmpegFrameGrabber grabber, int endSecond, PrintWriter writer) throws Exception {
+        process(grabber, 0, endSecond, writer, new JobMetrics(), null);
+    }
+
+    /**
+     * Processes the seconds [startSecond, endSecond) like process(FFmpegFrameGrabber, int,
+     * PrintWriter), records all stages in the given metrics and reports every second written to
+     * the checkpoint. The decode time does not include waiting for a free buffer.
+     *
+     * @param grabber a started grabber for the video, used only by the decoder thread
+     * @param startSecond the first second to process
+     * @param endSecond the last second to process (exclusive)
+     * @param writer receives the CSV rows
+     * @param metrics receives the measurements
+     * @param checkpoint notified by the writer after each second, or null
+     * @throws Exception if a stage fails; the other stages are stopped
+     */
+    public void process(FFmpegFrameGrabber grabber, int startSecond, int endSecond, PrintWriter writer,
+            JobMetrics metrics, Checkpoint checkpoint) throws Exception {
+        int bufferCount = 2 * workers + 1;
+        BlockingQueue<FrameBuffer> free = new ArrayBlockingQueue<>(bufferCount);
+        BlockingQueue<FrameBuffer> work = new ArrayBlockingQueue<>(bufferCount + workers);
+        BlockingQueue<Result> results = new ArrayBlockingQueue<>(bufferCount + workers + 1);
+        List<FrameBuffer> buffers = new ArrayList<>();
+        for (int i = 0; i < bufferCount; i++) {
+            FrameBuffer buffer = new FrameBuffer();
+            buffers.add(buffer);
+            free.add(buffer);
+        }
+
+        ExecutorService stages = Executors.newFixedThreadPool(workers + 1);
+        try {
+            stages.execute(() -> decode(grabber, startSecond, endSecond, free, work, results, metrics));
+            for (int i = 0; i < workers; i++) {
+                stages.execute(() -> analyze(work, free, results, metrics));
+            }
+            write(results, writer, metrics, checkpoint);
+        } finally {
+            stages.shutdownNow();
+            stages.awaitTermination(1, TimeUnit.MINUTES);
+            for (FrameBuffer buffer : buffers) {
+                buffer.close();
+            }
+        }
+    }
+
+    private void decode(FFmpegFrameGrabber grabber, int startSecond, int endSecond, BlockingQueue<FrameBuffer> free,
+            BlockingQueue<FrameBuffer> work, BlockingQueue<Result> results, JobMetrics metrics) {
+        try {
+            long[] sequence = {0};
+            sampler.sample(grabber, startSecond, endSecond, metrics.timeDecoding((second, frame) -> {
+                FrameBuffer buffer = free.take();
+                buffer.copyFrom(frame);
+                buffer.second = second;
+                buffer.sequence = sequence[0]++;
+                work.put(buffer);
+            }));
+            for (int i = 0; i < workers; i++) {
+                work.put(FrameBuffer.END);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            fail(results, e);
+        }
+    }
+
+    private void analyze(BlockingQueue<FrameBuffer> work, BlockingQueue<FrameBuffer> free,
+            BlockingQueue<Result> results, JobMetrics metrics) {
+        ImageProcessor processor = processors.get();
+        try {
+            while (true) {
+                FrameBuffer buffer = work.take();
+                if (buffer == FrameBuffer.END) {
+                    results.put(Result.END);
+                    return;
+                }
+
+                long sequence = buffer.sequence;
+                int second = buffer.second;
+                CentroidResult[] centroids;
+                try {
+                    centroids = metrics.analyze(processor, buffer.frame);
+                } finally {
+                    free.put(buffer);
+                }
+                results.put(new Result(sequence, second, centroids, null));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            fail(results, e);
+        }
+    }
+
+    /**
+     * Reports a failed stage to the writer. The writer keeps draining the queue until it sees
+     * the failure, so this only waits for room if results are still being written.
+     */
+    private static void fail(BlockingQueue<Result> results, Throwable failure) {
+        try {
+            results.put(Result.failed(failure));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(BlockingQueue<Result> results, PrintWriter writer, JobMetrics metrics, Checkpoint checkpoint)
+            throws Exception {
+        Map<Long, Result> pending = new HashMap<>();
+        long next = 0;
+        int finishedWorkers = 0;
+
+        while (finishedWorkers < workers) {
+            Result result = results.take();
+            if (result.failure() != null) {
+                throw result.failure() instanceof Exception e ? e : new RuntimeException(result.failure());
+            }
+            if (result == Result.END) {
+                finishedWorkers++;
+                continue;
+            }
+
+            pending.put(result.sequence(), result);
+            for (Result ready = pending.remove(next); ready != null; ready = pending.remove(next)) {
+                long start = System.nanoTime();
+                writer.print(CsvRows.format(Integer.toString(ready.second()), ready.centroids()));
+                metrics.record(JobMetrics.Stage.WRITE, System.nanoTime() - start);
+                if (checkpoint != null) {
+                    checkpoint.completed(ready.second() + 1, writer);
+                }
+                next++;
+            }
+        }
+    }
+
+    /**
+     * The outcome of analyzing one sampled frame, or a marker for the end of a worker or a failed stage.
+     */
+    private record Result(long sequence, int second, CentroidResult[] centroids, Throwable failure) {
+        static final Result END = new Result(-1, -1, null, null);
+
+        static Result failed(Throwable failure) {
+            return new Result(-1, -1, null, failure);
+        }
+    }
+
+    /**
+     * A reusable copy of a sampled frame. The grabber overwrites its frame on the next grab, so
+     * the decoder copies the pixels into one of these before handing them to a worker.
+     */
+    private static class FrameBuffer implements AutoCloseable {
+        static final FrameBuffer END = new FrameBuffer();
+
+        Frame frame;
+        int second;
+        long sequence;
+
+        void copyFrom(Frame source) {
+            if (!(source.image[0] instanceof ByteBuffer)) {
+                // only 8-bit images are reused, anything else gets a fresh copy every time
+                close();
+                frame = source.clone();
+                return;
+            }
+
+            if (frame == null || frame.imageWidth != source.imageWidth || frame.imageHeight != source.imageHeight
+                    || frame.imageDepth != source.imageDepth || frame.imageChannels != source.imageChannels
+                    || frame.imageStride != source.imageStride || !(frame.image[0] instanceof ByteBuffer)) {
+                close();
+                frame = new Frame(source.imageWidth, source.imageHeight, source.imageDepth,
+                        source.imageChannels, source.imageStride);
+            }
+
+            int length = source.imageStride * source.imageHeight;
+            ByteBuffer from = ((ByteBuffer) source.image[0]).duplicate();
+            from.limit(length).position(0);
+            ByteBuffer to = ((ByteBuffer) frame.image[0]).duplicate();
+            to.position(0);
+            to.put(from);
+            frame.timestamp = source.timestamp;
+        }
+
+        @Override
+        public void close() {
+            if (frame != null) {
+                frame.close();
+                frame = null;
+            }
+        }
+    }
+}
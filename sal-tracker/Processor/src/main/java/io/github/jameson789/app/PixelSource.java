@@ -0,0 +1,79 @@
+package io.github.jameson789.app;
+
+import java.awt.image.BufferedImage;
+
+import org.bytedeco.javacv.Frame;
+
+/**
+ * A read-only view of the pixels of an image that is read one row segment at a time.
+ *
+ * Pixels are returned as 32-bit ARGB integers in the same format as BufferedImage.getRGB, so
+ * opaque pixels have 0xFF in the alpha byte. Reading whole rows into a caller-provided buffer
+ * lets consumers walk an image without a call per pixel and without an intermediate image.
+ *
+ * The top-left pixel is (x:0, y:0). Y increases downward and X increases to the right.
+ */
+public interface PixelSource {
+
+    /**
+     * @return the width of the image in pixels
+     */
+    public int getWidth();
+
+    /**
+     * @return the height of the image in pixels
+     */
+    public int getHeight();
+
+    /**
+     * Copies the pixels (x, y) through (x + length - 1, y) into dest[0] through dest[length - 1].
+     *
+     * @param y the row to read
+     * @param x the first column to read
+     * @param length the number of pixels to read
+     * @param dest the buffer that receives the ARGB pixels, at least length long
+     */
+    public void readRow(int y, int x, int length, int[] dest);
+
+    /**
+     * Copies every step-th pixel of a row, (x, y), (x + step, y) through
+     * (x + (count - 1) * step, y), into dest[0] through dest[count - 1].
+     *
+     * The default implementation reads the pixels one at a time. Implementations that can
+     * address their pixels directly should override it.
+     *
+     * @param y the row to read
+     * @param x the first column to read
+     * @param step the distance between the columns read
+     * @param count the number of pixels to read
+     * @param dest the buffer that receives the ARGB pixels, at least count long
+     */
+    public default void readSampledRow(int y, int x, int step, int count, int[] dest) {
+        int[] pixel = new int[1];
+        for (int i = 0; i < count; i++) {
+            readRow(y, x + i * step, 1, pixel);
+            dest[i] = pixel[0];
+        }
+    }
+
+    /**
+     * Returns a PixelSource that reads the raster of the given image.
+     *
+     * @param image the image to read
+     * @return a PixelSource backed by the image
+     */
+    public static PixelSource of(BufferedImage image) {
+        return new BufferedImagePixelSource(image);
+    }
+
+    /**
+     * Returns a PixelSource that reads the first image plane of the given frame in place.
+     *
+     * @param frame a JavaCV frame holding packed BGR24 or BGRA pixels
+     * @return a PixelSource backed by the frame buffer
+     * @throws IllegalArgumentException if the frame layout is not supported
+     */
+    public static PixelSource of(Frame frame) {
+        return new FramePixelSource(frame);
+    }
+}
@@ -0,0 +1,299 @@
+package io.github.jameson789.app;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * The optional settings of a video job, given on the command line after the four positional
+ * arguments of ImageSummaryApp.
+ *
+ * Supported options:
+ *   --decode=stream   decode the video forward once (default)
+ *   --decode=seek     seek to every sampled second
+ *   --threads=N       split the video into segments processed on N threads (default 1)
+ *   --workers=N       decode on one thread and analyze on N pipelined workers
+ *   --track           search around the previous centroid first, see RegionTracker
+ *   --pyramid=N       locate the group on a frame subsampled by N first, see PyramidGroupFinder
+ *   --tolerance=N     the centroid tolerance of --pyramid and --sweep in pixels (default 4)
+ *   --metrics-interval=N  print a JobMetrics snapshot every N seconds while the job runs
+ *   --checkpoint=N    save a Checkpoint at most every N seconds (default 10), 0 to disable
+ *   --adaptive=N      sample by motion, at most N seconds apart, see AdaptiveVideoProcessor
+ *   --motion-tolerance=N  the movement in pixels that --adaptive treats as idle (default 4)
+ *   --target=RRGGBB:N another color to track with threshold N in the same pass, repeatable;
+ *                     the CSV then gets a target column, see CsvRows
+ *   --sweep=N,N,...   also find the group at these thresholds in the same pass and report how
+ *                     stable the centroid is across them, see ThresholdSweepGroupFinder
+ *   --incremental     only classify and label the tiles that changed since the previous
+ *                     frame, for fixed cameras, see IncrementalGroupFinder
+ *
+ * --threads and --workers are alternative ways to use more cores and cannot be combined, and
+ * neither can --track and --pyramid. --adaptive needs the result of each sample before it can
+ * choose the next one, so it runs on one thread and cannot be combined with either. Several
+ * targets are found in one sweep over the whole frame, so --target cannot be combined with
+ * --track or --pyramid, which read only parts of it. The same holds for --sweep, which is a
+ * set of targets with one color, so it cannot be combined with --target either. --incremental
+ * keeps the state of one whole frame per processor and cannot be combined with any of these.
+ */
+public class ProcessingOptions {
+    /**
+     * The centroid tolerance of --pyramid and --sweep when --tolerance is not given.
+     */
+    public static final int DEFAULT_TOLERANCE = 4;
+
+    private FrameSampler sampler = new StreamingFrameSampler();
+    private int threads = 1;
+    private int workers = 0;
+    private boolean tracking = false;
+    private boolean incremental = false;
+    private int pyramidScale = 0;
+    private int tolerance = DEFAULT_TOLERANCE;
+    private int metricsInterval = 0;
+    private int checkpointInterval = Checkpoint.DEFAULT_INTERVAL_SECONDS;
+    private int adaptiveMaxInterval = 0;
+    private int motionTolerance = AdaptiveVideoProcessor.DEFAULT_TOLERANCE;
+    private final List<Target> extraTargets = new ArrayList<>();
+    private final TreeSet<Integer> sweepThresholds = new TreeSet<>();
+
+    /**
+     * Parses the options in args, starting at index first.
+     *
+     * @param args the command-line arguments
+     * @param first the index of the first option
+     * @return the parsed options, with defaults for everything that is not given
+     * @throws IllegalArgumentException if an option is not recognized or has an invalid value
+     */
+    public static ProcessingOptions parse(String[] args, int first) {
+        ProcessingOptions options = new ProcessingOptions();
+        for (int i = first; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--decode=stream")) {
+                options.sampler = new StreamingFrameSampler();
+            } else if (arg.equals("--decode=seek")) {
+                options.sampler = new SeekingFrameSampler();
+            } else if (arg.startsWith("--threads=")) {
+                options.threads = positiveInt(arg, "--threads=".length());
+            } else if (arg.equals("--track")) {
+                options.tracking = true;
+            } else if (arg.equals("--incremental")) {
+                options.incremental = true;
+            } else if (arg.startsWith("--workers=")) {
+                options.workers = positiveInt(arg, "--workers=".length());
+            } else if (arg.startsWith("--pyramid=")) {
+                options.pyramidScale = positiveInt(arg, "--pyramid=".length());
+                if (options.pyramidScale < 2) {
+                    throw new IllegalArgumentException("Expected a scale of at least 2: " + arg);
+                }
+            } else if (arg.startsWith("--tolerance=")) {
+                options.tolerance = nonNegativeInt(arg, "--tolerance=".length());
+            } else if (arg.startsWith("--metrics-interval=")) {
+                options.metricsInterval = positiveInt(arg, "--metrics-interval=".length());
+            } else if (arg.startsWith("--checkpoint=")) {
+                options.checkpointInterval = nonNegativeInt(arg, "--checkpoint=".length());
+            } else if (arg.startsWith("--adaptive=")) {
+                options.adaptiveMaxInterval = positiveInt(arg, "--adaptive=".length());
+            } else if (arg.startsWith("--motion-tolerance=")) {
+                options.motionTolerance = nonNegativeInt(arg, "--motion-tolerance=".length());
+            } else if (arg.startsWith("--target=")) {
+                String[] parts = arg.substring("--target=".length()).split(":", -1);
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Expected --target=RRGGBB:THRESHOLD: " + arg);
+                }
+                options.extraTargets.add(Target.parse(parts[0], parts[1]));
+            } else if (arg.startsWith("--sweep=")) {
+                for (String threshold : arg.substring("--sweep=".length()).split(",", -1)) {
+                    options.sweepThresholds.add(nonNegativeInt("--sweep=" + threshold, "--sweep=".length()));
+                }
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (options.threads > 1 && options.workers > 0) {
+            throw new IllegalArgumentException("--threads and --workers cannot be combined");
+        }
+        if (options.tracking && options.pyramidScale > 0) {
+            throw new IllegalArgumentException("--track and --pyramid cannot be combined");
+        }
+        if (!options.extraTargets.isEmpty() && (options.tracking || options.pyramidScale > 0)) {
+            throw new IllegalArgumentException("--target cannot be combined with --track or --pyramid");
+        }
+        if (!options.sweepThresholds.isEmpty()
+                && (options.tracking || options.pyramidScale > 0 || !options.extraTargets.isEmpty())) {
+            throw new IllegalArgumentException("--sweep cannot be combined with --track, --pyramid or --target");
+        }
+        if (options.incremental && (options.tracking || options.pyramidScale > 0
+                || !options.extraTargets.isEmpty() || !options.sweepThresholds.isEmpty())) {
+            throw new IllegalArgumentException("--incremental cannot be combined with --track, --pyramid, --target or --sweep");
+        }
+        if (options.adaptiveMaxInterval > 0 && (options.threads > 1 || options.workers > 0)) {
+            throw new IllegalArgumentException("--adaptive cannot be combined with --threads or --workers");
+        }
+        return options;
+    }
+
+    /**
+     * Parses the value of an option that must be a positive number.
+     *
+     * @param arg the option, for example "--threads=4"
+     * @param valueStart the index of the value in arg
+     * @return the value
+     * @throws IllegalArgumentException if the value is not a positive number
+     */
+    static int positiveInt(String arg, int valueStart) {
+        try {
+            int value = Integer.parseInt(arg.substring(valueStart));
+            if (value > 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Expected a positive number: " + arg);
+    }
+
+    private static int nonNegativeInt(String arg, int valueStart) {
+        try {
+            int value = Integer.parseInt(arg.substring(valueStart));
+            if (value >= 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Expected a non-negative number: " + arg);
+    }
+
+    /**
+     * @return the sampler selected with --decode
+     */
+    public FrameSampler getSampler() {
+        return sampler;
+    }
+
+    /**
+     * @return the number of threads selected with --threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * @return the number of pipelined workers selected with --workers, 0 when not pipelined
+     */
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * @return whether --track was given
+     */
+    public boolean isTracking() {
+        return tracking;
+    }
+
+    /**
+     * @return whether --incremental was given
+     */
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * @return the subsampling factor selected with --pyramid, 0 when not searching coarse to fine
+     */
+    public int getPyramidScale() {
+        return pyramidScale;
+    }
+
+    /**
+     * @return the centroid tolerance selected with --tolerance
+     */
+    public int getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * @return the seconds between metrics snapshots selected with --metrics-interval, 0 for none
+     */
+    public int getMetricsInterval() {
+        return metricsInterval;
+    }
+
+    /**
+     * @return the seconds between checkpoints selected with --checkpoint, 0 when disabled
+     */
+    public int getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    /**
+     * @return the longest interval selected with --adaptive in seconds, 0 when sampling every second
+     */
+    public int getAdaptiveMaxInterval() {
+        return adaptiveMaxInterval;
+    }
+
+    /**
+     * @return the idle movement in pixels selected with --motion-tolerance
+     */
+    public int getMotionTolerance() {
+        return motionTolerance;
+    }
+
+    /**
+     * @return the targets added with --target, in the order given
+     */
+    public List<Target> getExtraTargets() {
+        return List.copyOf(extraTargets);
+    }
+
+    /**
+     * @return whether --sweep was given
+     */
+    public boolean isSweep() {
+        return !sweepThresholds.isEmpty();
+    }
+
+    /**
+     * Returns the thresholds of a sweep: the given one and those listed with --sweep, ascending
+     * and without duplicates. Results and CSV target columns follow this order.
+     *
+     * @param threshold the threshold of the positional arguments
+     * @return the thresholds of the sweep, only the given one when --sweep was not given
+     */
+    public int[] getSweepThresholds(int threshold) {
+        TreeSet<Integer> thresholds = new TreeSet<>(sweepThresholds);
+        thresholds.add(threshold);
+        return thresholds.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Creates an ImageProcessor configured by these options.
+     *
+     * @param targetColor the color to track as a 24-bit hex RGB integer (0xRRGGBB)
+     * @param threshold the color distance threshold
+     * @return a new processor, one per thread and video
+     */
+    public ImageProcessor newImageProcessor(int targetColor, int threshold) {
+        if (isSweep()) {
+            return new ImageProcessor(targetColor, threshold, getSweepThresholds(threshold));
+        }
+        if (!extraTargets.isEmpty()) {
+            List<Target> targets = new ArrayList<>();
+            targets.add(new Target(targetColor, threshold));
+            targets.addAll(extraTargets);
+            return new ImageProcessor(targets);
+        }
+        if (incremental) {
+            DistanceImageBinarizer binarizer =
+                    new DistanceImageBinarizer(new EuclideanColorDistance(), targetColor, threshold);
+            return new ImageProcessor(binarizer, new IncrementalGroupFinder(binarizer));
+        }
+        if (pyramidScale > 0) {
+            DistanceImageBinarizer binarizer =
+                    new DistanceImageBinarizer(new EuclideanColorDistance(), targetColor, threshold);
+            return new ImageProcessor(binarizer, new PyramidGroupFinder(binarizer, pyramidScale, tolerance));
+        }
+        return new ImageProcessor(targetColor, threshold, tracking);
+    }
+}
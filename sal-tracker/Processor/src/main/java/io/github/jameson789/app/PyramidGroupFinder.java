@@ -0,0 +1,233 @@
+package io.github.jameson789.app;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.List;
+
+import org.bytedeco.javacv.Frame;
+
+/**
+ * Finds the largest group of a frame coarse to fine: candidates are located on a subsampled
+ * copy of the frame and then refined at full resolution.
+ *
+ * The coarse pass reads every scale-th pixel of every scale-th row, so it classifies one pixel
+ * in scale * scale, and labels the result like a frame of that reduced size. The CANDIDATES
+ * largest coarse groups are then refined one by one: a window around each is searched at full
+ * resolution until its largest complete group can not be outranked by a group the window cuts
+ * off, like a long target reaching past a nearby blob, see WindowSearch. The refined groups
+ * are exact full resolution groups, and the largest of them is the result, in full resolution
+ * coordinates.
+ *
+ * The coarse pass can be wrong about which group is the largest. Groups thinner than the scale
+ * may fall between the sampled pixels, and groups separated by less than the scale may look
+ * like one. As a check, the centroid estimated from the coarse group is compared with the
+ * refined centroid; if they are further apart than the tolerance along either axis, the frame
+ * is scanned in full at full resolution. A candidate whose window holds no group is dropped,
+ * but one whose window grows to the whole frame, or a frame where no candidate is left, is
+ * scanned in full as well. A smaller
+ * tolerance falls back more often. No check can notice a group the coarse pass missed
+ * completely, so the result may still differ from a full scan when the largest group is
+ * thinner than the scale or not among the CANDIDATES largest coarse groups. PyramidBenchmark
+ * measures the resulting error against full resolution scans.
+ *
+ * All other ImageGroupFinder methods scan the frame in full. An instance reuses its buffers
+ * and must not be shared between threads.
+ */
+public class PyramidGroupFinder implements ImageGroupFinder {
+    /**
+     * The number of coarse groups refined at full resolution.
+     */
+    public static final int CANDIDATES = 4;
+
+    private final DistanceImageBinarizer binarizer;
+    private final int scale;
+    private final int tolerance;
+    private final FusedBinarizingImageGroupFinder fullResolution;
+    private final WindowSearch search;
+    private final RunLengthLabeler labeler = new RunLengthLabeler();
+    private final CandidateSink candidates = new CandidateSink();
+    private final FramePixelSource framePixels = new FramePixelSource();
+    private int[] rowPixels = new int[0];
+    private long[] rowWords = new long[0];
+    private long sampledPixels;
+    private int frames;
+    private int fullScans;
+
+    /**
+     * Constructs a finder that searches a frame subsampled by the given factor first.
+     *
+     * @param binarizer classifies the pixels
+     * @param scale the subsampling factor of the coarse pass, for example 4 or 8
+     * @param tolerance the largest accepted difference in pixels, along either axis, between
+     *                  the coarse estimate and the refined centroid
+     * @throws IllegalArgumentException if scale is less than 2 or tolerance is negative
+     */
+    public PyramidGroupFinder(DistanceImageBinarizer binarizer, int scale, int tolerance) {
+        if (scale < 2) {
+            throw new IllegalArgumentException("scale must be at least 2: " + scale);
+        }
+        if (tolerance < 0) {
+            throw new IllegalArgumentException("tolerance must not be negative: " + tolerance);
+        }
+        this.binarizer = binarizer;
+        this.scale = scale;
+        this.tolerance = tolerance;
+        this.fullResolution = new FusedBinarizingImageGroupFinder(binarizer);
+        this.search = new WindowSearch(binarizer);
+    }
+
+    @Override
+    public List<Group> findConnectedGroups(BufferedImage image) {
+        return fullResolution.findConnectedGroups(image);
+    }
+
+    @Override
+    public List<Group> findConnectedGroups(Frame frame) {
+        return fullResolution.findConnectedGroups(frame);
+    }
+
+    @Override
+    public Group findLargestGroup(BufferedImage image) {
+        return findLargestGroup(PixelSource.of(image));
+    }
+
+    @Override
+    public Group findLargestGroup(Frame frame) {
+        return findLargestGroup(framePixels.reset(frame));
+    }
+
+    /**
+     * Finds the largest group of the pixels coarse to fine.
+     *
+     * @param pixels the frame to search
+     * @return the largest group in full resolution coordinates, or null if no pixel matches
+     */
+    public Group findLargestGroup(PixelSource pixels) {
+        frames++;
+        binarizer.prepare(pixels.getWidth(), pixels.getHeight());
+        sampleCoarse(pixels);
+
+        Group best = null;
+        long bestSumX = 0;
+        long bestSumY = 0;
+        int bestSize = 0;
+        for (int i = 0; i < candidates.count; i++) {
+            int size = candidates.sizes[i];
+            long sumX = candidates.sumX[i];
+            long sumY = candidates.sumY[i];
+            int side = (int) Math.ceil(Math.sqrt(size));
+            Group refined = search.findAround(pixels, estimate(sumX, size), estimate(sumY, size),
+                    (long) scale * (side + 1));
+            if (refined == null) {
+                if (search.reachedFrame()) {
+                    // something around this candidate may outrank every window group
+                    best = null;
+                    break;
+                }
+                continue;
+            }
+            if (best == null || refined.compareTo(best) > 0) {
+                best = refined;
+                bestSumX = sumX;
+                bestSumY = sumY;
+                bestSize = size;
+            }
+        }
+
+        if (best == null
+                || Math.abs(best.centroid().x() - estimate(bestSumX, bestSize)) > tolerance
+                || Math.abs(best.centroid().y() - estimate(bestSumY, bestSize)) > tolerance) {
+            fullScans++;
+            return search.scan(pixels);
+        }
+        return best;
+    }
+
+    /**
+     * @return the number of frames searched so far
+     */
+    public int getFrames() {
+        return frames;
+    }
+
+    /**
+     * @return the number of frames that fell back to a full resolution scan so far
+     */
+    public int getFullScans() {
+        return fullScans;
+    }
+
+    /**
+     * @return the number of pixels read so far, by the coarse passes, the refinements and the
+     *         full scans
+     */
+    public long getScannedPixels() {
+        return sampledPixels + search.getScannedPixels();
+    }
+
+    /**
+     * Converts a coordinate sum of a coarse group into the full resolution mean coordinate.
+     */
+    private int estimate(long sum, int size) {
+        return (int) (sum * scale / size);
+    }
+
+    /**
+     * Binarizes and labels every scale-th pixel of every scale-th row and leaves the largest
+     * coarse groups in the candidate sink.
+     */
+    private void sampleCoarse(PixelSource pixels) {
+        int width = (pixels.getWidth() + scale - 1) / scale;
+        int height = (pixels.getHeight() + scale - 1) / scale;
+        int wordsPerRow = (width + 63) >>> 6;
+        if (rowPixels.length < width) {
+            rowPixels = new int[width];
+        }
+        if (rowWords.length < wordsPerRow) {
+            rowWords = new long[wordsPerRow];
+        }
+
+        candidates.clear();
+        labeler.reset(width, candidates);
+        for (int y = 0; y < height; y++) {
+            pixels.readSampledRow(y * scale, 0, scale, width, rowPixels);
+            Arrays.fill(rowWords, 0, wordsPerRow, 0L);
+            binarizer.binarizeRow(rowPixels, width, rowWords, 0);
+            labeler.pushRow(rowWords, 0);
+        }
+        labeler.finish();
+        sampledPixels += (long) width * height;
+    }
+
+    /**
+     * Keeps the CANDIDATES largest coarse components with their coordinate sums, largest first.
+     */
+    private static class CandidateSink implements RunLengthLabeler.ComponentSink {
+        final int[] sizes = new int[CANDIDATES];
+        final long[] sumX = new long[CANDIDATES];
+        final long[] sumY = new long[CANDIDATES];
+        int count;
+
+        void clear() {
+            count = 0;
+        }
+
+        @Override
+        public void accept(int size, long sumX, long sumY) {
+            if (count == CANDIDATES && size <= sizes[count - 1]) {
+                return;
+            }
+            int index = Math.min(count, CANDIDATES - 1);
+            while (index > 0 && sizes[index - 1] < size) {
+                sizes[index] = sizes[index - 1];
+                this.sumX[index] = this.sumX[index - 1];
+                this.sumY[index] = this.sumY[index - 1];
+                index--;
+            }
+            sizes[index] = size;
+            this.sumX[index] = sumX;
+            this.sumY[index] = sumY;
+            count = Math.min(count + 1, CANDIDATES);
+        }
+    }
+}
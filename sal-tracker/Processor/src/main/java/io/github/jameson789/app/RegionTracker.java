@@ -0,0 +1,131 @@
+package io.github.jameson789.app;
+
+import java.awt.image.BufferedImage;
+
+import org.bytedeco.javacv.Frame;
+
+/**
+ * Finds the largest group in consecutive frames of a video by searching a window around the
+ * group found in the previous frame first.
+ *
+ * The window is a square centered on the previous centroid. Its half width is WINDOW_SCALE
+ * times the side of a square with the area of the previous group, but at least MIN_HALF_WIDTH
+ * pixels. The window grows until the group provably lies inside it, see WindowSearch. If a
+ * window holds no group at all, or has grown to the whole frame, the whole frame is scanned. So
+ * is a frame whose window group has less than half the size of the previous group, since that
+ * is more likely a speck left behind by a group that moved out of the window.
+ *
+ * Whenever the tracked group really is the largest group of the frame, the result is identical
+ * to a full scan. A larger group that appears outside the window is only found once the
+ * tracked group is lost. The first frame, and every frame after a frame without a group or of
+ * a different size, is scanned in full.
+ *
+ * An instance keeps the state of one video and must not be shared between threads.
+ */
+public class RegionTracker {
+    /**
+     * The smallest half width of the search window in pixels.
+     */
+    public static final int MIN_HALF_WIDTH = 32;
+
+    /**
+     * The half width of the search window relative to the side of the previous group.
+     */
+    public static final int WINDOW_SCALE = 2;
+
+    private final DistanceImageBinarizer binarizer;
+    private final WindowSearch search;
+    private final FramePixelSource framePixels = new FramePixelSource();
+
+    private Group previous;
+    private int frameWidth = -1;
+    private int frameHeight = -1;
+    private int fullScans;
+
+    /**
+     * Constructs a tracker that binarizes with the given binarizer.
+     *
+     * @param binarizer classifies the pixels of the window
+     */
+    public RegionTracker(DistanceImageBinarizer binarizer) {
+        this.binarizer = binarizer;
+        this.search = new WindowSearch(binarizer);
+    }
+
+    /**
+     * Finds the largest group of the image, searching around the previous group first.
+     *
+     * @param image the next image of the sequence
+     * @return the largest group, or null if no pixel matches
+     */
+    public Group findLargestGroup(BufferedImage image) {
+        return findLargestGroup(PixelSource.of(image));
+    }
+
+    /**
+     * Finds the largest group of the frame, searching around the previous group first.
+     *
+     * @param frame the next frame of the video
+     * @return the largest group, or null if no pixel matches
+     */
+    public Group findLargestGroup(Frame frame) {
+        return findLargestGroup(framePixels.reset(frame));
+    }
+
+    /**
+     * Finds the largest group of the pixels, searching around the previous group first.
+     *
+     * @param pixels the next frame of the video
+     * @return the largest group, or null if no pixel matches
+     */
+    public Group findLargestGroup(PixelSource pixels) {
+        int width = pixels.getWidth();
+        int height = pixels.getHeight();
+        if (width != frameWidth || height != frameHeight) {
+            previous = null;
+            frameWidth = width;
+            frameHeight = height;
+        }
+        // the lookup table pays off for the frame as a whole, even if a window is small
+        binarizer.prepare(width, height);
+
+        Group found = null;
+        if (previous != null) {
+            int side = (int) Math.ceil(Math.sqrt(previous.size()));
+            long halfWidth = Math.max(MIN_HALF_WIDTH, (long) WINDOW_SCALE * side);
+            found = search.findAround(pixels, previous.centroid().x(), previous.centroid().y(), halfWidth);
+            if (found != null && found.size() < previous.size() / 2) {
+                found = null;
+            }
+        }
+        if (found == null) {
+            // lost the group, it may be anywhere now
+            fullScans++;
+            found = search.scan(pixels);
+        }
+
+        previous = found;
+        return found;
+    }
+
+    /**
+     * Forgets the previous group, so the next frame is scanned in full.
+     */
+    public void reset() {
+        previous = null;
+    }
+
+    /**
+     * @return the number of pixels read so far, over all frames and windows
+     */
+    public long getScannedPixels() {
+        return search.getScannedPixels();
+    }
+
+    /**
+     * @return the number of frames that were scanned in full so far
+     */
+    public int getFullScans() {
+        return fullScans;
+    }
+}
@@ -0,0 +1,362 @@
+package io.github.jameson789.app;
+
+import java.util.Arrays;
+
+/**
+ * A streaming connected-component labeler that consumes a binary image one row at a time.
+ *
+ * Each pushed row is split into runs of white pixels. A run is connected to every run of the
+ * previous row whose columns overlap it (vertical and horizontal connectivity, not diagonal),
+ * and runs that join several components merge them through a small union-find table. Every
+ * component keeps a running pixel count and x/y coordinate sums.
+ *
+ * After each row the label table is compacted: components that have no run in the new row can
+ * not grow any more and are handed to the ComponentSink, and the components that are still open
+ * are renumbered from 0. So the labeler only ever holds the runs of two rows and at most one
+ * label per run, and its memory is proportional to the image width, never to its height or to
+ * the number of components. All arrays are allocated when the labeler is reset for a wider row
+ * and reused afterwards. An instance must not be shared between threads.
+ *
+ * Every component also records which sides of the image it touches, as a combination of the
+ * LEFT, RIGHT, TOP and BOTTOM flags. When the rows are a window of a larger frame, a component
+ * that touches no side of the window lies completely inside it.
+ */
+public class RunLengthLabeler {
+    /**
+     * Set for components with a pixel in the first column.
+     */
+    public static final int LEFT = 1;
+
+    /**
+     * Set for components with a pixel in the last column.
+     */
+    public static final int RIGHT = 2;
+
+    /**
+     * Set for components with a pixel in the first row.
+     */
+    public static final int TOP = 4;
+
+    /**
+     * Set for components with a pixel in the last row, that is, components still open when
+     * finish is called.
+     */
+    public static final int BOTTOM = 8;
+
+    /**
+     * Receives the components found by a RunLengthLabeler as soon as they are complete.
+     */
+    @FunctionalInterface
+    public interface ComponentSink {
+        /**
+         * Accepts one finished connected component.
+         *
+         * @param size the number of pixels in the component
+         * @param sumX the sum of the x coordinates of its pixels
+         * @param sumY the sum of the y coordinates of its pixels
+         */
+        public void accept(int size, long sumX, long sumY);
+
+        /**
+         * Accepts one finished connected component together with the sides of the image it
+         * touches. The default ignores the sides.
+         *
+         * @param size the number of pixels in the component
+         * @param sumX the sum of the x coordinates of its pixels
+         * @param sumY the sum of the y coordinates of its pixels
+         * @param sides the LEFT, RIGHT, TOP and BOTTOM flags of the sides it touches
+         */
+        public default void accept(int size, long sumX, long sumY, int sides) {
+            accept(size, sumX, sumY);
+        }
+    }
+
+    private int width;
+    private int row;
+    private ComponentSink sink;
+
+    // runs of the previous and the current row: [start, end) columns and compact label
+    private int[] previousStart = new int[0];
+    private int[] previousEnd = new int[0];
+    private int[] previousLabel = new int[0];
+    private int previousCount;
+    private int[] currentStart = new int[0];
+    private int[] currentEnd = new int[0];
+    private int[] currentLabel = new int[0];
+    private int currentCount;
+
+    // label table; labels [0, openCount) are the open components of the previous row
+    private int[] parent = new int[0];
+    private int[] renumbered = new int[0];
+    private int[] sizes = new int[0];
+    private long[] sumX = new long[0];
+    private long[] sumY = new long[0];
+    private int[] sides = new int[0];
+    private int[] nextSizes = new int[0];
+    private long[] nextSumX = new long[0];
+    private long[] nextSumY = new long[0];
+    private int[] nextSides = new int[0];
+    private int openCount;
+    private long openPixels;
+
+    /**
+     * Starts labeling a new image.
+     *
+     * @param width the width of the image rows in pixels
+     * @param sink receives every component once it is complete
+     */
+    public void reset(int width, ComponentSink sink) {
+        int maxRuns = (width + 1) / 2;
+        if (currentStart.length < maxRuns) {
+            previousStart = new int[maxRuns];
+            previousEnd = new int[maxRuns];
+            previousLabel = new int[maxRuns];
+            currentStart = new int[maxRuns];
+            currentEnd = new int[maxRuns];
+            currentLabel = new int[maxRuns];
+
+            // open labels of the previous row plus new labels of the current row
+            int maxLabels = 2 * maxRuns;
+            parent = new int[maxLabels];
+            renumbered = new int[maxLabels];
+            sizes = new int[maxLabels];
+            sumX = new long[maxLabels];
+            sumY = new long[maxLabels];
+            sides = new int[maxLabels];
+            nextSizes = new int[maxLabels];
+            nextSumX = new long[maxLabels];
+            nextSumY = new long[maxLabels];
+            nextSides = new int[maxLabels];
+            Arrays.fill(renumbered, -1);
+        }
+
+        this.width = width;
+        this.sink = sink;
+        this.row = 0;
+        this.previousCount = 0;
+        this.openCount = 0;
+        this.openPixels = 0;
+    }
+
+    /**
+     * Labels the next row of the image.
+     *
+     * The row is given as packed bits in the layout of BinaryImage: pixel x is bit (x % 64) of
+     * words[offset + x / 64], and bits past the width must be 0.
+     *
+     * @param words the array holding the packed row
+     * @param offset the index of the first word of the row
+     */
+    public void pushRow(long[] words, int offset) {
+        extractRuns(words, offset);
+
+        int labelCount = openCount;
+        int y = row;
+        int previous = 0;
+        int rowSides = y == 0 ? TOP : 0;
+
+        for (int run = 0; run < currentCount; run++) {
+            int start = currentStart[run];
+            int end = currentEnd[run];
+
+            // skip runs of the previous row that end before this one starts
+            while (previous < previousCount && previousEnd[previous] <= start) {
+                previous++;
+            }
+
+            int label = -1;
+            int overlap = previous;
+            while (overlap < previousCount && previousStart[overlap] < end) {
+                int other = previousLabel[overlap];
+                label = label < 0 ? find(other) : union(label, other);
+                overlap++;
+            }
+            // the last overlapping run may also touch the next run of this row
+            if (overlap > previous) {
+                previous = overlap - 1;
+            }
+
+            if (label < 0) {
+                label = labelCount++;
+                parent[label] = label;
+                sizes[label] = 0;
+                sumX[label] = 0;
+                sumY[label] = 0;
+                sides[label] = 0;
+            }
+
+            long length = end - start;
+            currentLabel[run] = label;
+            sizes[label] += (int) length;
+            sumX[label] += (start + end - 1) * length / 2;
+            sumY[label] += y * length;
+            sides[label] |= rowSides | (start == 0 ? LEFT : 0) | (end == width ? RIGHT : 0);
+        }
+
+        compact(labelCount);
+        row++;
+    }
+
+    /**
+     * Returns the number of pixels in components that touch the last pushed row. Those
+     * components can still grow and merge with each other, so any component finished later holds
+     * at most these pixels plus the white pixels that have not been pushed yet.
+     *
+     * @return the pixel count of all open components, 0 if there are none
+     */
+    public long getOpenPixelCount() {
+        return openPixels;
+    }
+
+    /**
+     * Ends the image and hands every component that is still open to the sink.
+     */
+    public void finish() {
+        for (int label = 0; label < openCount; label++) {
+            sink.accept(sizes[label], sumX[label], sumY[label], sides[label] | BOTTOM);
+        }
+        openCount = 0;
+        previousCount = 0;
+        openPixels = 0;
+    }
+
+    /**
+     * Folds merged labels into their roots, emits the components that did not continue into the
+     * current row and renumbers the remaining ones from 0.
+     */
+    private void compact(int labelCount) {
+        for (int label = 0; label < labelCount; label++) {
+            int root = find(label);
+            if (root != label) {
+                sizes[root] += sizes[label];
+                sumX[root] += sumX[label];
+                sumY[root] += sumY[label];
+                sides[root] |= sides[label];
+            }
+        }
+
+        int open = 0;
+        long pixels = 0;
+        for (int run = 0; run < currentCount; run++) {
+            int root = find(currentLabel[run]);
+            if (renumbered[root] < 0) {
+                renumbered[root] = open;
+                pixels += sizes[root];
+                nextSizes[open] = sizes[root];
+                nextSumX[open] = sumX[root];
+                nextSumY[open] = sumY[root];
+                nextSides[open] = sides[root];
+                open++;
+            }
+            currentLabel[run] = renumbered[root];
+        }
+
+        // labels of the previous row whose component has no run in this row are finished
+        for (int label = 0; label < openCount; label++) {
+            if (parent[label] == label && renumbered[label] < 0) {
+                sink.accept(sizes[label], sumX[label], sumY[label], sides[label]);
+            }
+        }
+
+        for (int label = 0; label < labelCount; label++) {
+            renumbered[label] = -1;
+        }
+        for (int label = 0; label < open; label++) {
+            parent[label] = label;
+        }
+
+        int[] swapSizes = sizes;
+        sizes = nextSizes;
+        nextSizes = swapSizes;
+        long[] swapSums = sumX;
+        sumX = nextSumX;
+        nextSumX = swapSums;
+        swapSums = sumY;
+        sumY = nextSumY;
+        nextSumY = swapSums;
+        int[] swapSides = sides;
+        sides = nextSides;
+        nextSides = swapSides;
+        openCount = open;
+        openPixels = pixels;
+
+        int[] swapRuns = previousStart;
+        previousStart = currentStart;
+        currentStart = swapRuns;
+        swapRuns = previousEnd;
+        previousEnd = currentEnd;
+        currentEnd = swapRuns;
+        swapRuns = previousLabel;
+        previousLabel = currentLabel;
+        currentLabel = swapRuns;
+        previousCount = currentCount;
+    }
+
+    /**
+     * Splits the packed row into runs of white pixels.
+     */
+    private void extractRuns(long[] words, int offset) {
+        int wordCount = (width + 63) >>> 6;
+        int count = 0;
+        int start = -1;
+
+        for (int word = 0; word < wordCount; word++) {
+            long bits = words[offset + word];
+            int base = word << 6;
+            int position = 0;
+
+            while (position < 64) {
+                if (start < 0) {
+                    long white = bits & (-1L << position);
+                    if (white == 0) {
+                        break;
+                    }
+                    position = Long.numberOfTrailingZeros(white);
+                    start = base + position;
+                } else {
+                    long black = ~bits & (-1L << position);
+                    if (black == 0) {
+                        break;
+                    }
+                    position = Long.numberOfTrailingZeros(black);
+                    currentStart[count] = start;
+                    currentEnd[count] = base + position;
+                    count++;
+                    start = -1;
+                }
+            }
+        }
+        if (start >= 0) {
+            currentStart[count] = start;
+            currentEnd[count] = width;
+            count++;
+        }
+        currentCount = count;
+    }
+
+    private int find(int label) {
+        while (parent[label] != label) {
+            parent[label] = parent[parent[label]];
+            label = parent[label];
+        }
+        return label;
+    }
+
+    /**
+     * Merges two sets and returns the new root. The smaller label becomes the root, so the
+     * labels of the previous row stay roots whenever they are involved.
+     */
+    private int union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) {
+            return rootA;
+        }
+        if (rootA < rootB) {
+            parent[rootB] = rootA;
+            return rootA;
+        }
+        parent[rootA] = rootB;
+        return rootB;
+    }
+}
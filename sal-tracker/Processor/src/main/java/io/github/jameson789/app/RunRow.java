@@ -0,0 +1,114 @@
+package io.github.jameson789.app;
+
+import java.util.Arrays;
+
+/**
+ * The white runs of one row of a packed mask: run i covers x in [start[i], end[i]) and belongs
+ * to component label[i] of a ComponentForest.
+ *
+ * Shared by the run-based labelings of ParallelBinaryGroupFinder and IncrementalGroupFinder. A
+ * row reuses its arrays and must not be shared between threads.
+ */
+final class RunRow {
+    int[] start;
+    int[] end;
+    int[] label;
+    int count;
+
+    /**
+     * Constructs an empty row with room for the given number of runs.
+     */
+    RunRow(int capacity) {
+        start = new int[capacity];
+        end = new int[capacity];
+        label = new int[capacity];
+    }
+
+    void clear() {
+        count = 0;
+    }
+
+    void add(int runStart, int runEnd) {
+        if (count == start.length) {
+            int capacity = Math.max(16, count * 2);
+            start = Arrays.copyOf(start, capacity);
+            end = Arrays.copyOf(end, capacity);
+            label = Arrays.copyOf(label, capacity);
+        }
+        start[count] = runStart;
+        end[count] = runEnd;
+        count++;
+    }
+
+    /**
+     * Appends the runs of one mask word whose bit 0 is column x. A run that continues the last
+     * run of the row is merged into it.
+     */
+    void addRuns(long bits, int x) {
+        while (bits != 0) {
+            int first = Long.numberOfTrailingZeros(bits);
+            long zerosAbove = ~bits & (-1L << first);
+            int last = zerosAbove == 0 ? 64 : Long.numberOfTrailingZeros(zerosAbove);
+            int runStart = x + first;
+            int runEnd = x + last;
+
+            if (count > 0 && end[count - 1] == runStart) {
+                // the run continues from the previous word
+                end[count - 1] = runEnd;
+            } else {
+                add(runStart, runEnd);
+            }
+            bits = last == 64 ? 0 : bits & (-1L << last);
+        }
+    }
+
+    /**
+     * Replaces the runs with the white runs of row y of the image.
+     */
+    void read(BinaryImage image, int y) {
+        clear();
+        long[] words = image.getWords();
+        int wordsPerRow = image.getWordsPerRow();
+        int rowStart = y * wordsPerRow;
+        for (int word = 0; word < wordsPerRow; word++) {
+            addRuns(words[rowStart + word], word << 6);
+        }
+    }
+
+    /**
+     * Labels the runs of this row, row y of the frame: every run is united with the runs of the
+     * row above that overlap it, or becomes a new component, and its pixel count and coordinate
+     * sums are added to its component. Run columns are offset by x in the sums.
+     */
+    void label(RunRow above, ComponentForest components, int x, int y) {
+        int a = 0;
+        for (int r = 0; r < count; r++) {
+            // skip runs above that end before this one starts
+            while (a < above.count && above.end[a] <= start[r]) {
+                a++;
+            }
+            int component = -1;
+            for (int i = a; i < above.count && above.start[i] < end[r]; i++) {
+                component = component < 0 ? components.find(above.label[i]) : components.union(component, above.label[i]);
+            }
+            if (component < 0) {
+                component = components.add();
+            }
+
+            int length = end[r] - start[r];
+            label[r] = component;
+            components.sizes[component] += length;
+            components.sumX[component] += (long) (2 * x + start[r] + end[r] - 1) * length / 2;
+            components.sumY[component] += (long) y * length;
+        }
+    }
+
+    RunRow copy() {
+        RunRow copy = new RunRow(count);
+        System.arraycopy(start, 0, copy.start, 0, count);
+        System.arraycopy(end, 0, copy.end, 0, count);
+        System.arraycopy(label, 0, copy.label, 0, count);
+        copy.count = count;
+        return copy;
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.jameson789.app;
+
+import org.bytedeco.javacv.Frame;
+
+/**
+ * Receives the frames selected by a FrameSampler.
+ */
+@FunctionalInterface
+public interface SampledFrameHandler {
+    /**
+     * Handles the frame sampled for the given second.
+     *
+     * @param second the second of the video the frame was sampled for
+     * @param frame the decoded image frame, never null
+     * @throws Exception if handling the frame fails
+     */
+    public void handle(int second, Frame frame) throws Exception;
+
+    /**
+     * Notes that a frame was decoded but not sampled. Samplers that decode past frames they do
+     * not hand out call this once per such frame; samplers that leave skipping to FFmpeg, like
+     * SeekingFrameSampler, do not call it. Does nothing by default.
+     */
+    public default void skipped() {
+    }
+}
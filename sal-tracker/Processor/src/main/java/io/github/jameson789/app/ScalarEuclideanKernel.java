@@ -0,0 +1,26 @@
+package io.github.jameson789.app;
+
+/**
+ * A plain loop implementation of EuclideanKernel, one pixel at a time.
+ * It is the reference the vectorized kernel is tested and measured against.
+ */
+public class ScalarEuclideanKernel implements EuclideanKernel {
+
+    @Override
+    public void binarizeRow(int[] rowPixels, int width, int targetColor, int limit, long[] words, int wordOffset) {
+        int targetRed = (targetColor >> 16) & 0xff;
+        int targetGreen = (targetColor >> 8) & 0xff;
+        int targetBlue = targetColor & 0xff;
+
+        for (int col = 0; col < width; col++) {
+            int pixel = rowPixels[col];
+            int redDiff = ((pixel >> 16) & 0xff) - targetRed;
+            int greenDiff = ((pixel >> 8) & 0xff) - targetGreen;
+            int blueDiff = (pixel & 0xff) - targetBlue;
+
+            if (redDiff * redDiff + greenDiff * greenDiff + blueDiff * blueDiff <= limit) {
+                words[wordOffset + (col >>> 6)] |= 1L << col;
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.jameson789.app;
+
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.Frame;
+
+/**
+ * A FrameSampler that seeks the grabber to every sampled second.
+ *
+ * Each seek makes FFmpeg flush its decoder and decode again from the nearest keyframe, so the
+ * cost of a sample grows with the GOP length of the video. This is the original sampling loop
+ * and is kept for videos where forward decoding is not reliable.
+ */
+public class SeekingFrameSampler implements FrameSampler {
+
+    @Override
+    public void sample(FFmpegFrameGrabber grabber, int startSecond, int endSecond, SampledFrameHandler handler)
+            throws Exception {
+        double fps = grabber.getFrameRate();
+
+        for (int second = startSecond; second < endSecond; second++) {
+            // Calculate frame number and cast to int
+            int frameNumber = (int) (second * fps);
+            grabber.setFrameNumber(frameNumber);
+
+            Frame frame = grabber.grabImage();
+
+            if (frame == null) {
+                System.out.println("No frame at second: " + second);
+                continue;
+            }
+
+            handler.handle(second, frame);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package io.github.jameson789.app;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+
+/**
+ * Processes a video on several threads by splitting its duration into segments of whole seconds.
+ *
+ * Every segment gets its own FFmpegFrameGrabber and ImageProcessor and runs as a task on a
+ * fork-join pool. A segment samples its seconds with the same FrameSampler that a single
+ * threaded run uses, starting from its first second, so each second sees the same frame either
+ * way. The rows of the segments are written in segment order as soon as the earliest pending
+ * segment is done, which makes the CSV identical to a single threaded run.
+ *
+ * There are more segments than threads so that a slow segment does not leave the other threads
+ * idle at the end. Each segment costs one extra seek, so segments are never shorter than
+ * MIN_SEGMENT_SECONDS unless a length is given explicitly.
+ */
+public class SegmentedVideoProcessor {
+    /**
+     * The number of segments per thread when the segment length is chosen automatically.
+     */
+    public static final int SEGMENTS_PER_THREAD = 4;
+
+    /**
+     * The shortest segment, in seconds, when the segment length is chosen automatically.
+     */
+    public static final int MIN_SEGMENT_SECONDS = 10;
+
+    private final String videoPath;
+    private final Supplier<ImageProcessor> processors;
+    private final FrameSampler sampler;
+    private final int threads;
+    private final int segmentSeconds;
+    private final ForkJoinPool sharedPool;
+
+    /**
+     * Constructs a processor that picks the segment length from the duration and thread count.
+     *
+     * @param videoPath the video to process
+     * @param processors creates the ImageProcessor of every segment
+     * @param sampler selects the frame of every second
+     * @param threads the number of threads to process segments on
+     */
+    public SegmentedVideoProcessor(String videoPath, Supplier<ImageProcessor> processors, FrameSampler sampler,
+            int threads) {
+        this(videoPath, processors, sampler, threads, 0);
+    }
+
+    /**
+     * Constructs a processor with a fixed segment length.
+     *
+     * @param videoPath the video to process
+     * @param processors creates the ImageProcessor of every segment
+     * @param sampler selects the frame of every second
+     * @param threads the number of threads to process segments on
+     * @param segmentSeconds the length of a segment in seconds, or 0 to choose it automatically
+     * @throws IllegalArgumentException if threads is not positive or segmentSeconds is negative
+     */
+    public SegmentedVideoProcessor(String videoPath, Supplier<ImageProcessor> processors, FrameSampler sampler,
+            int threads, int segmentSeconds) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be positive: " + threads);
+        }
+        if (segmentSeconds < 0) {
+            throw new IllegalArgumentException("segmentSeconds must not be negative: " + segmentSeconds);
+        }
+        this.videoPath = videoPath;
+        this.processors = processors;
+        this.sampler = sampler;
+        this.threads = threads;
+        this.segmentSeconds = segmentSeconds;
+        this.sharedPool = null;
+    }
+
+    /**
+     * Constructs a processor that runs its segments on a pool shared with other videos, so that
+     * idle threads pick up segments of whichever video has work left. The segment length is
+     * picked from the duration and the parallelism of the pool, and the pool is left running.
+     *
+     * @param videoPath the video to process
+     * @param processors creates the ImageProcessor of every segment
+     * @param sampler selects the frame of every second
+     * @param pool the pool to run the segments on
+     */
+    public SegmentedVideoProcessor(String videoPath, Supplier<ImageProcessor> processors, FrameSampler sampler,
+            ForkJoinPool pool) {
+        this.videoPath = videoPath;
+        this.processors = processors;
+        this.sampler = sampler;
+        this.threads = pool.getParallelism();
+        this.segmentSeconds = 0;
+        this.sharedPool = pool;
+    }
+
+    /**
+     * Processes the seconds [0, endSecond) and writes one "second,x,y" row per second with a
+     * centroid, in order.
+     *
+     * @param endSecond the last second to process (exclusive)
+     * @param writer receives the CSV rows
+     * @throws Exception if a segment fails; the remaining segments are cancelled
+     */
+    public void process(int endSecond, PrintWriter writer) throws Exception {
+        process(0, endSecond, writer, new JobMetrics(), null);
+    }
+
+    /**
+     * Processes the seconds [startSecond, endSecond) like process(int, PrintWriter), records
+     * every segment in the given metrics and reports every segment written to the checkpoint.
+     *
+     * @param startSecond the first second to process
+     * @param endSecond the last second to process (exclusive)
+     * @param writer receives the CSV rows
+     * @param metrics receives the measurements of all segments
+     * @param checkpoint notified after the rows of each segment are written, or null
+     * @throws Exception if a segment fails; the remaining segments are cancelled
+     */
+    public void process(int startSecond, int endSecond, PrintWriter writer, JobMetrics metrics,
+            Checkpoint checkpoint) throws Exception {
+        int length = segmentSeconds > 0 ? segmentSeconds : segmentSeconds(endSecond - startSecond, threads);
+        ForkJoinPool pool = sharedPool != null ? sharedPool : new ForkJoinPool(threads);
+        List<Future<List<String>>> segments = new ArrayList<>();
+        try {
+            List<Integer> segmentEnds = new ArrayList<>();
+            for (int start = startSecond; start < endSecond; start += length) {
+                int segmentStart = start;
+                int segmentEnd = Math.min(endSecond, start + length);
+                segments.add(pool.submit(() -> processSegment(segmentStart, segmentEnd, metrics)));
+                segmentEnds.add(segmentEnd);
+            }
+
+            for (int i = 0; i < segments.size(); i++) {
+                for (String row : segments.get(i).get()) {
+                    long start = System.nanoTime();
+                    writer.print(row);
+                    metrics.record(JobMetrics.Stage.WRITE, System.nanoTime() - start);
+                }
+                if (checkpoint != null) {
+                    checkpoint.completed(segmentEnds.get(i), writer);
+                }
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } finally {
+            if (sharedPool == null) {
+                pool.shutdownNow();
+            } else {
+                for (Future<List<String>> segment : segments) {
+                    segment.cancel(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the automatic segment length for a video.
+     *
+     * @param durationSeconds the number of seconds to process
+     * @param threads the number of threads
+     * @return the segment length in seconds, at least MIN_SEGMENT_SECONDS
+     */
+    public static int segmentSeconds(int durationSeconds, int threads) {
+        int segments = threads * SEGMENTS_PER_THREAD;
+        int length = (durationSeconds + segments - 1) / segments;
+        return Math.max(MIN_SEGMENT_SECONDS, length);
+    }
+
+    /**
+     * Processes the seconds [startSecond, endSecond) with a grabber and processor of its own.
+     *
+     * @return the CSV rows of every second of the segment, see CsvRows
+     */
+    private List<String> processSegment(int startSecond, int endSecond, JobMetrics metrics) throws Exception {
+        List<String> rows = new ArrayList<>();
+        try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(videoPath)) {
+            grabber.start();
+            ImageProcessor processor = processors.get();
+
+            sampler.sample(grabber, startSecond, endSecond, metrics.timeDecoding((second, frame) -> {
+                CentroidResult[] results = metrics.analyze(processor, frame);
+
+                rows.add(CsvRows.format(Integer.toString(second), results));
+            }));
+
+            grabber.stop();
+        }
+        return rows;
+    }
+}
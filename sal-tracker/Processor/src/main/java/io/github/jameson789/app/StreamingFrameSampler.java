@@ -0,0 +1,70 @@
+package io.github.jameson789.app;
+
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.Frame;
+
+/**
+ * A FrameSampler that decodes the video forward once instead of seeking to every second.
+ *
+ * Frames between two samples are still decoded, because later frames depend on them, but they
+ * are grabbed without pixel format conversion so they never reach the scaler or a
+ * BufferedImage. Only the sampled frames are converted.
+ *
+ * To produce exactly the frames of SeekingFrameSampler this class mirrors what a seek does:
+ * FFmpegFrameGrabber.setFrameNumber decodes up to and including the frame whose display
+ * interval [timestamp, timestamp + 1/fps) reaches past the target timestamp, and the following
+ * grabImage returns the frame after it. So once a decoded frame reaches past the target of the
+ * current second, the next frame is grabbed with conversion and handed to the handler.
+ */
+public class StreamingFrameSampler implements FrameSampler {
+
+    @Override
+    public void sample(FFmpegFrameGrabber grabber, int startSecond, int endSecond, SampledFrameHandler handler)
+            throws Exception {
+        double fps = grabber.getFrameRate();
+        double frameDuration = 1000000.0 / fps;
+
+        int second = startSecond;
+        boolean nextIsSample = false;
+        long reachedTimestamp = Long.MIN_VALUE;
+
+        if (startSecond > 0 && startSecond < endSecond) {
+            // a single seek lands on the first sample, everything after it is decoded forward
+            grabber.setFrameNumber((int) (startSecond * fps));
+            nextIsSample = true;
+        }
+
+        while (second < endSecond) {
+            Frame frame = grabber.grabFrame(false, true, nextIsSample, false, false);
+            if (frame == null) {
+                return;
+            }
+
+            if (nextIsSample) {
+                handler.handle(second, frame);
+                second++;
+
+                // at frame rates below 1 fps one frame can reach past several sampled seconds
+                while (second < endSecond && reachedTimestamp + frameDuration > sampleTimestamp(second, fps)) {
+                    handler.handle(second, frame);
+                    second++;
+                }
+            } else {
+                handler.skipped();
+            }
+
+            nextIsSample = frame.timestamp + frameDuration > sampleTimestamp(second, fps);
+            if (nextIsSample) {
+                reachedTimestamp = frame.timestamp;
+            }
+        }
+    }
+
+    /**
+     * Returns the timestamp in microseconds that a seek to the given second targets.
+     */
+    private static long sampleTimestamp(int second, double fps) {
+        int frameNumber = (int) (second * fps);
+        return Math.round(1000000L * frameNumber / fps);
+    }
+}
@@ -0,0 +1,206 @@
+package io.github.jameson789.app;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.util.Locale;
+
+/**
+ * Summarizes how stable the centroid is across the thresholds of a sweep, to help pick one.
+ *
+ * Frames are added with the centroid found at every threshold, in ascending threshold order.
+ * Neighbouring thresholds agree on a frame when both find a group and their centroids are at
+ * most tolerance pixels apart. For every threshold the report counts:
+ *
+ *   frames   the frames with a group at this threshold
+ *   stable   the frames where this threshold agrees with both of its neighbours
+ *   shift    the mean distance in pixels to the centroid of the next threshold, over the frames
+ *            where both find a group
+ *
+ * A threshold in a stable range picks the same blob as slightly tighter and looser ones, so it
+ * is robust to lighting changes; one at an edge of the range picks up noise or loses the blob.
+ * Whether a threshold is inside such a range can only be seen from both sides, so the lowest
+ * and highest threshold of the sweep are never stable and the sweep should reach a little
+ * beyond the thresholds of interest. The suggested threshold is the one with the most stable
+ * frames, the lowest one on a tie.
+ */
+public class SweepReport {
+    private final int[] thresholds;
+    private final double tolerance;
+    private final long[] framesWithGroup;
+    private final long[] stableFrames;
+    private final double[] shiftSums;
+    private final long[] shiftCounts;
+    private long frames;
+
+    /**
+     * Constructs an empty report.
+     *
+     * @param thresholds the thresholds of the sweep, ascending
+     * @param tolerance the largest distance in pixels between two centroids that still agree
+     * @throws IllegalArgumentException if there are no thresholds or the tolerance is negative
+     */
+    public SweepReport(int[] thresholds, double tolerance) {
+        if (thresholds.length == 0) {
+            throw new IllegalArgumentException("At least one threshold is required");
+        }
+        if (tolerance < 0) {
+            throw new IllegalArgumentException("tolerance must not be negative: " + tolerance);
+        }
+        this.thresholds = thresholds.clone();
+        this.tolerance = tolerance;
+        this.framesWithGroup = new long[thresholds.length];
+        this.stableFrames = new long[thresholds.length];
+        this.shiftSums = new double[thresholds.length];
+        this.shiftCounts = new long[thresholds.length];
+    }
+
+    /**
+     * Reads the rows of a sweep CSV, see CsvRows, and adds one frame per time. Frames without a
+     * group at any threshold have no rows, so they are not part of the report.
+     *
+     * @param csv the CSV rows
+     * @param thresholds the thresholds of the sweep, ascending
+     * @param tolerance the largest distance in pixels between two centroids that still agree
+     * @return the report
+     * @throws IOException if the CSV can not be read
+     * @throws IllegalArgumentException if a row can not be parsed
+     */
+    public static SweepReport read(Reader csv, int[] thresholds, double tolerance) throws IOException {
+        SweepReport report = new SweepReport(thresholds, tolerance);
+        BufferedReader reader = new BufferedReader(csv);
+        CentroidResult[] frame = new CentroidResult[thresholds.length];
+        String time = null;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            String[] columns = line.split(",");
+            int index;
+            CentroidResult centroid;
+            try {
+                index = columns.length > 3 ? Integer.parseInt(columns[3]) : 0;
+                centroid = new CentroidResult(Integer.parseInt(columns[1]), Integer.parseInt(columns[2]));
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid sweep row: " + line, e);
+            }
+            if (index < 0 || index >= thresholds.length) {
+                throw new IllegalArgumentException("Invalid sweep row: " + line);
+            }
+
+            // the rows of one frame are written together
+            if (time != null && !time.equals(columns[0])) {
+                report.add(frame);
+                frame = new CentroidResult[thresholds.length];
+            }
+            time = columns[0];
+            frame[index] = centroid;
+        }
+        if (time != null) {
+            report.add(frame);
+        }
+        return report;
+    }
+
+    /**
+     * Adds the results of one frame.
+     *
+     * @param centroids the centroid at every threshold, null where there is no group
+     * @throws IllegalArgumentException if there is not one centroid per threshold
+     */
+    public void add(CentroidResult[] centroids) {
+        if (centroids.length != thresholds.length) {
+            throw new IllegalArgumentException("Expected " + thresholds.length + " centroids: " + centroids.length);
+        }
+        frames++;
+        for (int i = 0; i < centroids.length; i++) {
+            if (centroids[i] == null) {
+                continue;
+            }
+            framesWithGroup[i]++;
+            if (i + 1 < centroids.length && centroids[i + 1] != null) {
+                shiftSums[i] += distance(centroids[i], centroids[i + 1]);
+                shiftCounts[i]++;
+            }
+            if (i > 0 && i + 1 < centroids.length
+                    && agree(centroids[i], centroids[i - 1]) && agree(centroids[i], centroids[i + 1])) {
+                stableFrames[i]++;
+            }
+        }
+    }
+
+    private boolean agree(CentroidResult a, CentroidResult b) {
+        return b != null && distance(a, b) <= tolerance;
+    }
+
+    private static double distance(CentroidResult a, CentroidResult b) {
+        return Math.hypot(a.x() - b.x(), a.y() - b.y());
+    }
+
+    /**
+     * @return the number of frames added
+     */
+    public long getFrames() {
+        return frames;
+    }
+
+    /**
+     * @param index the index of a threshold
+     * @return the frames with a group at the threshold
+     */
+    public long getFramesWithGroup(int index) {
+        return framesWithGroup[index];
+    }
+
+    /**
+     * @param index the index of a threshold
+     * @return the frames where the threshold agrees with its neighbours
+     */
+    public long getStableFrames(int index) {
+        return stableFrames[index];
+    }
+
+    /**
+     * @param index the index of a threshold
+     * @return the mean distance to the centroid of the next threshold, or NaN if they never
+     *         both had a group or this is the last threshold
+     */
+    public double getMeanShift(int index) {
+        return shiftCounts[index] > 0 ? shiftSums[index] / shiftCounts[index] : Double.NaN;
+    }
+
+    /**
+     * @return the threshold with the most stable frames, the lowest one on a tie, or -1 if no
+     *         threshold has a stable frame
+     */
+    public int getSuggestedThreshold() {
+        int best = -1;
+        for (int i = 0; i < thresholds.length; i++) {
+            if (stableFrames[i] > 0 && (best < 0 || stableFrames[i] > stableFrames[best])) {
+                best = i;
+            }
+        }
+        return best < 0 ? -1 : thresholds[best];
+    }
+
+    /**
+     * Writes the report as a table with one line per threshold, followed by the suggestion.
+     *
+     * @param out receives the report
+     */
+    public void write(PrintWriter out) {
+        out.printf(Locale.ROOT, "Threshold sweep over %d frames, centroids agree within %.1f pixels%n",
+                frames, tolerance);
+        out.printf(Locale.ROOT, "%9s %7s %7s %7s%n", "threshold", "frames", "stable", "shift");
+        for (int i = 0; i < thresholds.length; i++) {
+            double shift = getMeanShift(i);
+            out.printf(Locale.ROOT, "%9d %7d %7d %7s%n", thresholds[i], framesWithGroup[i], stableFrames[i],
+                    Double.isNaN(shift) ? "-" : String.format(Locale.ROOT, "%.2f", shift));
+        }
+        int suggested = getSuggestedThreshold();
+        out.println(suggested >= 0 ? "Suggested threshold: " + suggested : "No threshold found a stable group");
+        out.flush();
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.jameson789.app;
+
+/**
+ * A color to track and the distance threshold within which a pixel matches it.
+ *
+ * @param color the color as a 24-bit hex RGB integer (0xRRGGBB)
+ * @param threshold the color distance threshold
+ */
+public record Target(int color, int threshold) {
+
+    /**
+     * Parses a target from its command line form.
+     *
+     * @param hexColor the color in the format RRGGBB
+     * @param threshold the threshold as a decimal integer
+     * @return the target
+     * @throws IllegalArgumentException if either part can not be parsed
+     */
+    public static Target parse(String hexColor, String threshold) {
+        try {
+            return new Target(Integer.parseInt(hexColor, 16) & 0xFFFFFF, Integer.parseInt(threshold));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Error parsing color or threshold.", e);
+        }
+    }
+}
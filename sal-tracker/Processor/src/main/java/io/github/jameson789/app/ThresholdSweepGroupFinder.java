@@ -0,0 +1,202 @@
+package io.github.jameson789.app;
+
+import java.util.Arrays;
+
+/**
+ * Finds the largest group of one color at several thresholds in one sweep over the pixels.
+ *
+ * Every pixel's distance to the target color is computed once and quantized to a byte: the
+ * index of the smallest threshold that accepts it, or the number of thresholds if none does.
+ * A pixel is white at threshold t exactly when its distance is at most t, so the masks are
+ * nested and the mask of threshold i is the set of pixels with a level of at most i. Each row
+ * is therefore classified once into a row of levels, scattered into one packed row per level
+ * and turned into the masks of all thresholds by ORing every packed row into the next one,
+ * which costs a few word operations per threshold instead of a distance per pixel. Every mask
+ * row is fed to the RunLengthLabeler of its threshold, and a threshold stops being labeled once
+ * the remaining rows cannot produce a group larger than the one it has, like in
+ * MultiTargetGroupFinder.
+ *
+ * With EuclideanColorDistance the level is looked up from the squared distance in a table that
+ * is built once per finder, so no square root is taken; any other ColorDistanceFinder is called
+ * once per pixel. For every threshold the result is identical to a
+ * FusedBinarizingImageGroupFinder over a DistanceImageBinarizer with that threshold. An instance
+ * reuses its buffers and must not be shared between threads.
+ */
+public class ThresholdSweepGroupFinder implements MultiGroupFinder {
+    /**
+     * The most thresholds one finder can sweep, so that every level fits in a byte.
+     */
+    public static final int MAX_THRESHOLDS = 255;
+
+    private final ColorDistanceFinder distanceFinder;
+    private final int targetColor;
+    private final int[] thresholds;
+    private final byte[] squaredDistanceLevels;
+    private final RunLengthLabeler[] labelers;
+    private final LargestGroups[] largest;
+    private final boolean[] done;
+    private int[] rowPixels = new int[0];
+    private byte[] rowLevels = new byte[0];
+    private long[] rowWords = new long[0];
+
+    /**
+     * Constructs a finder for the given thresholds.
+     *
+     * @param distanceFinder computes the distance of every pixel to the target color
+     * @param targetColor the reference color as a 24-bit hex RGB integer (0xRRGGBB)
+     * @param thresholds the thresholds, ascending and without duplicates, in the order of the results
+     * @throws IllegalArgumentException if there are no thresholds or more than MAX_THRESHOLDS, or
+     *                                  they are negative or not strictly ascending
+     */
+    public ThresholdSweepGroupFinder(ColorDistanceFinder distanceFinder, int targetColor, int[] thresholds) {
+        if (thresholds.length == 0 || thresholds.length > MAX_THRESHOLDS) {
+            throw new IllegalArgumentException("Expected 1 to " + MAX_THRESHOLDS + " thresholds: " + thresholds.length);
+        }
+        for (int i = 0; i < thresholds.length; i++) {
+            if (thresholds[i] < 0) {
+                throw new IllegalArgumentException("Thresholds must not be negative: " + thresholds[i]);
+            }
+            if (i > 0 && thresholds[i] <= thresholds[i - 1]) {
+                throw new IllegalArgumentException("Thresholds must be strictly ascending: "
+                        + Arrays.toString(thresholds));
+            }
+        }
+        this.distanceFinder = distanceFinder;
+        this.targetColor = targetColor;
+        this.thresholds = thresholds.clone();
+        this.squaredDistanceLevels = distanceFinder.getClass() == EuclideanColorDistance.class
+                ? squaredDistanceLevels(this.thresholds)
+                : null;
+        this.labelers = new RunLengthLabeler[thresholds.length];
+        this.largest = new LargestGroups[thresholds.length];
+        this.done = new boolean[thresholds.length];
+        for (int i = 0; i < labelers.length; i++) {
+            labelers[i] = new RunLengthLabeler();
+            largest[i] = new LargestGroups(1);
+        }
+    }
+
+    /**
+     * Maps every squared Euclidean distance to the index of the smallest threshold accepting it.
+     */
+    private static byte[] squaredDistanceLevels(int[] thresholds) {
+        byte[] levels = new byte[EuclideanKernel.MAX_SQUARED_DISTANCE + 1];
+        int level = 0;
+        for (int squared = 0; squared < levels.length; squared++) {
+            while (level < thresholds.length && squared > EuclideanKernel.squaredLimit(thresholds[level])) {
+                level++;
+            }
+            levels[squared] = (byte) level;
+        }
+        return levels;
+    }
+
+    /**
+     * @return the thresholds, in the order of the results
+     */
+    public int[] getThresholds() {
+        return thresholds.clone();
+    }
+
+    @Override
+    public int getTargetCount() {
+        return thresholds.length;
+    }
+
+    @Override
+    public Group[] findLargestGroups(PixelSource pixels) {
+        int width = pixels.getWidth();
+        int height = pixels.getHeight();
+        int wordsPerRow = (width + 63) >>> 6;
+        int levels = thresholds.length;
+
+        if (rowPixels.length < width) {
+            rowPixels = new int[width];
+            rowLevels = new byte[width];
+        }
+        if (rowWords.length < levels * wordsPerRow) {
+            rowWords = new long[levels * wordsPerRow];
+        }
+
+        for (int t = 0; t < levels; t++) {
+            done[t] = false;
+            largest[t].clear();
+            labelers[t].reset(width, largest[t]);
+        }
+
+        for (int row = 0; row < height; row++) {
+            boolean any = false;
+            for (int t = 0; t < levels; t++) {
+                if (!done[t] && (long) (height - row) * width + labelers[t].getOpenPixelCount()
+                        < largest[t].getMinimumSize()) {
+                    done[t] = true;
+                }
+                any |= !done[t];
+            }
+            if (!any) {
+                break;
+            }
+
+            pixels.readRow(row, 0, width, rowPixels);
+            quantizeRow(width);
+
+            // one packed row per level, then each row ORed into the next to get the nested masks
+            Arrays.fill(rowWords, 0, levels * wordsPerRow, 0L);
+            for (int col = 0; col < width; col++) {
+                int level = rowLevels[col] & 0xFF;
+                if (level < levels) {
+                    rowWords[level * wordsPerRow + (col >>> 6)] |= 1L << col;
+                }
+            }
+            for (int t = 1; t < levels; t++) {
+                int offset = t * wordsPerRow;
+                for (int word = 0; word < wordsPerRow; word++) {
+                    rowWords[offset + word] |= rowWords[offset - wordsPerRow + word];
+                }
+            }
+
+            for (int t = 0; t < levels; t++) {
+                if (!done[t]) {
+                    labelers[t].pushRow(rowWords, t * wordsPerRow);
+                }
+            }
+        }
+
+        Group[] groups = new Group[levels];
+        for (int t = 0; t < levels; t++) {
+            if (!done[t]) {
+                labelers[t].finish();
+            }
+            groups[t] = largest[t].getLargest();
+        }
+        return groups;
+    }
+
+    /**
+     * Stores the level of every pixel of rowPixels in rowLevels.
+     */
+    private void quantizeRow(int width) {
+        if (squaredDistanceLevels != null) {
+            int red = (targetColor >> 16) & 0xFF;
+            int green = (targetColor >> 8) & 0xFF;
+            int blue = targetColor & 0xFF;
+            for (int col = 0; col < width; col++) {
+                int pixel = rowPixels[col];
+                int redDiff = ((pixel >> 16) & 0xFF) - red;
+                int greenDiff = ((pixel >> 8) & 0xFF) - green;
+                int blueDiff = (pixel & 0xFF) - blue;
+                rowLevels[col] = squaredDistanceLevels[redDiff * redDiff + greenDiff * greenDiff + blueDiff * blueDiff];
+            }
+            return;
+        }
+
+        for (int col = 0; col < width; col++) {
+            double distance = distanceFinder.distance(rowPixels[col], targetColor);
+            int level = 0;
+            while (level < thresholds.length && distance > thresholds[level]) {
+                level++;
+            }
+            rowLevels[col] = (byte) level;
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package io.github.jameson789.app;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A BinaryGroupFinder that labels pixels with the classic two-pass union-find algorithm
+ * instead of a recursive flood fill.
+ *
+ * The first pass walks the image in row-major order. A white pixel takes the label of its left
+ * or upper neighbor, a new label when both are black, and when both neighbors are labeled the
+ * two labels are recorded as equivalent in a union-find forest. Every label keeps a running
+ * pixel count and x/y coordinate sums, so the second pass only has to resolve the equivalence
+ * table and fold each label's sums into its root; it never revisits the pixels.
+ *
+ * Only the labels of the previous and the current row are kept, and all state lives in flat
+ * primitive arrays that are reused from one call to the next, so labeling does not recurse,
+ * does not allocate per pixel and, once the arrays have grown to fit the frames being processed,
+ * does not allocate at all apart from the returned groups. Black 64-pixel words of a
+ * BinaryImage are skipped with a single comparison.
+ *
+ * The results are identical to DfsBinaryGroupFinder, including ordering and integer centroid
+ * division. Coordinate sums are kept as longs, so components too large for int sums are also
+ * reported correctly. Because of the reused arrays, an instance must not be shared between
+ * threads.
+ *
+ * The largest-group queries do not build the group list at all. They stream the packed rows
+ * through a RunLengthLabeler, keep only the current top k, and stop as soon as the white pixels
+ * that have not been visited, added to the pixels of the components that are still growing, can
+ * no longer produce a group that ranks in the top k.
+ */
+public class UnionFindBinaryGroupFinder implements BinaryGroupFinder {
+    private static final int INITIAL_LABELS = 1024;
+
+    private int[] previousRow = new int[0];
+    private int[] currentRow = new int[0];
+    private int[] parent = new int[INITIAL_LABELS];
+    private int[] sizes = new int[INITIAL_LABELS];
+    private long[] sumX = new long[INITIAL_LABELS];
+    private long[] sumY = new long[INITIAL_LABELS];
+    private final RunLengthLabeler labeler = new RunLengthLabeler();
+
+    /**
+     * Finds connected pixel groups of 1s in an integer array representing a binary image.
+     *
+     * Follows the contract of BinaryGroupFinder; invalid input is rejected with an
+     * IllegalArgumentException like DfsBinaryGroupFinder does. Unlike DfsBinaryGroupFinder
+     * the input array is not modified.
+     *
+     * @param image a rectangular 2D array containing only 1s and 0s
+     * @return the found groups of connected pixels in descending order
+     */
+    @Override
+    public List<Group> findConnectedGroups(int[][] image) {
+        if (image == null || image.length == 0 || image[0] == null)
+            throw new IllegalArgumentException("Invalid image input");
+
+        return findConnectedGroups(BinaryImage.fromArray(image));
+    }
+
+    /**
+     * Finds connected groups of white pixels in a bit-packed binary image.
+     *
+     * @param image a bit-packed binary image
+     * @return the found groups of connected pixels in descending order
+     */
+    @Override
+    public List<Group> findConnectedGroups(BinaryImage image) {
+        int labelCount = label(image);
+
+        List<Group> groups = new ArrayList<>();
+        for (int label = 1; label < labelCount; label++) {
+            if (parent[label] == label) {
+                groups.add(toGroup(label));
+            }
+        }
+
+        //sort groups in descending order (reverses compareTo method)
+        groups.sort(Collections.reverseOrder());
+        return groups;
+    }
+
+    /**
+     * Finds the largest connected group of 1s without building or sorting the other groups.
+     *
+     * @param image a rectangular 2D array containing only 1s and 0s
+     * @return the largest group, or null if the image has no 1s
+     */
+    @Override
+    public Group findLargestGroup(int[][] image) {
+        if (image == null || image.length == 0 || image[0] == null)
+            throw new IllegalArgumentException("Invalid image input");
+
+        return findLargestGroup(BinaryImage.fromArray(image));
+    }
+
+    /**
+     * Finds the largest connected group of white pixels, stopping early once no later group can be larger.
+     *
+     * @param image a bit-packed binary image
+     * @return the largest group, or null if the image has no white pixels
+     */
+    @Override
+    public Group findLargestGroup(BinaryImage image) {
+        return findLargest(image, 1).getLargest();
+    }
+
+    /**
+     * Finds the k largest connected groups of 1s without building or sorting the other groups.
+     *
+     * @param image a rectangular 2D array containing only 1s and 0s
+     * @param k the maximum number of groups to return
+     * @return at most k groups in descending order
+     */
+    @Override
+    public List<Group> findLargestGroups(int[][] image, int k) {
+        if (image == null || image.length == 0 || image[0] == null)
+            throw new IllegalArgumentException("Invalid image input");
+
+        return findLargestGroups(BinaryImage.fromArray(image), k);
+    }
+
+    /**
+     * Finds the k largest connected groups of white pixels, stopping early once no later group
+     * can enter the top k.
+     *
+     * @param image a bit-packed binary image
+     * @param k the maximum number of groups to return
+     * @return at most k groups in descending order
+     */
+    @Override
+    public List<Group> findLargestGroups(BinaryImage image, int k) {
+        return findLargest(image, k).toList();
+    }
+
+    private LargestGroups findLargest(BinaryImage image, int k) {
+        LargestGroups largest = new LargestGroups(k);
+        int wordsPerRow = image.getWordsPerRow();
+        long[] words = image.getWords();
+        long unvisited = image.countWhite();
+
+        labeler.reset(image.getWidth(), largest);
+        for (int y = 0; y < image.getHeight(); y++) {
+            // even merging every open group with every unvisited pixel could not produce a group that ranks
+            if (unvisited + labeler.getOpenPixelCount() < largest.getMinimumSize()) {
+                return largest;
+            }
+
+            int rowStart = y * wordsPerRow;
+            for (int word = rowStart; word < rowStart + wordsPerRow; word++) {
+                unvisited -= Long.bitCount(words[word]);
+            }
+            labeler.pushRow(words, rowStart);
+        }
+        labeler.finish();
+        return largest;
+    }
+
+    /**
+     * Labels the image and resolves the equivalences.
+     *
+     * Afterwards every label l in [1, result) with parent[l] == l is the root of one connected
+     * group and sizes[l], sumX[l] and sumY[l] hold the totals of that group.
+     *
+     * @return one more than the highest label that was handed out
+     */
+    private int label(BinaryImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int wordsPerRow = image.getWordsPerRow();
+        long[] words = image.getWords();
+
+        if (currentRow.length < width) {
+            currentRow = new int[width];
+            previousRow = new int[width];
+        }
+
+        int nextLabel = 1;
+
+        // first pass: provisional labels, equivalences and running sums
+        for (int y = 0; y < height; y++) {
+            int[] above = previousRow;
+            int[] row = currentRow;
+            int rowStart = y * wordsPerRow;
+            int aboveStart = rowStart - wordsPerRow;
+
+            for (int word = 0; word < wordsPerRow; word++) {
+                long bits = words[rowStart + word];
+
+                while (bits != 0) {
+                    int x = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+
+                    boolean left = x > 0 && (words[rowStart + ((x - 1) >>> 6)] & (1L << (x - 1))) != 0;
+                    boolean up = y > 0 && (words[aboveStart + word] & (1L << x)) != 0;
+
+                    int label;
+                    if (left && up) {
+                        label = union(row[x - 1], above[x]);
+                    } else if (left) {
+                        label = row[x - 1];
+                    } else if (up) {
+                        label = above[x];
+                    } else {
+                        label = nextLabel++;
+                        newLabel(label);
+                    }
+
+                    row[x] = label;
+                    sizes[label]++;
+                    sumX[label] += x;
+                    sumY[label] += y;
+                }
+            }
+
+            // the labels of this row become the upper neighbors of the next one
+            previousRow = row;
+            currentRow = above;
+        }
+
+        // second pass: fold the sums of every label into its root
+        for (int label = 1; label < nextLabel; label++) {
+            int root = find(label);
+            if (root != label) {
+                sizes[root] += sizes[label];
+                sumX[root] += sumX[label];
+                sumY[root] += sumY[label];
+                parent[label] = root;
+            }
+        }
+
+        return nextLabel;
+    }
+
+    private Group toGroup(int label) {
+        int size = sizes[label];
+        //x = sum of all x coords in group / size
+        //y = sum of all y coords in group / size
+        Coordinate centroid = new Coordinate((int) (sumX[label] / size), (int) (sumY[label] / size));
+        return new Group(size, centroid);
+    }
+
+    private void newLabel(int label) {
+        if (label == parent.length) {
+            int capacity = parent.length * 2;
+            parent = Arrays.copyOf(parent, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+            sumX = Arrays.copyOf(sumX, capacity);
+            sumY = Arrays.copyOf(sumY, capacity);
+        }
+        parent[label] = label;
+        sizes[label] = 0;
+        sumX[label] = 0;
+        sumY[label] = 0;
+    }
+
+    /**
+     * Returns the root of the given label, halving the path to it on the way.
+     */
+    private int find(int label) {
+        while (parent[label] != label) {
+            parent[label] = parent[parent[label]];
+            label = parent[label];
+        }
+        return label;
+    }
+
+    /**
+     * Merges the sets of two labels and returns the root of the merged set.
+     * The smaller label becomes the root, so roots never change to a later label.
+     */
+    private int union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) {
+            return rootA;
+        }
+        if (rootA < rootB) {
+            parent[rootB] = rootA;
+            return rootA;
+        }
+        parent[rootA] = rootB;
+        return rootB;
+    }
+}
@@ -0,0 +1,303 @@
+package io.github.jameson789.app;
+
+import java.util.Arrays;
+
+/**
+ * Finds the largest group of a frame inside a rectangular window, growing the window until the
+ * group provably lies inside it.
+ *
+ * Only the pixels inside the window are read, binarized and labeled. A component that touches
+ * no side of the window, or only sides that are also the border of the frame, lies completely
+ * inside the window, so its size and centroid are exactly those a full scan would report for it.
+ * A component that touches an interior side is cut off by the window and can only continue over
+ * white pixels outside the window that connect to a white pixel on an interior side. These are
+ * counted with a flood fill that never enters the window and stops as soon as there are enough
+ * of them to matter, so noise along the sides costs a few reads. The largest complete component
+ * is accepted only if all cut off components together with those outside pixels are smaller;
+ * otherwise the window is doubled and searched again. Whether the accepted group is also the largest of the
+ * whole frame is up to the caller to judge, see RegionTracker and PyramidGroupFinder.
+ *
+ * An instance reuses its buffers and must not be shared between threads.
+ */
+public class WindowSearch {
+    private final DistanceImageBinarizer binarizer;
+    private final RunLengthLabeler labeler = new RunLengthLabeler();
+    private final WindowSink sink = new WindowSink();
+    private int[] rowPixels = new int[0];
+    private long[] rowWords = new long[0];
+    private int[] edgePixels = new int[0];
+    private long[] edgeWords = new long[0];
+    private final int[] pixel = new int[1];
+    private final long[] pixelWord = new long[1];
+    private long[] visited = new long[0];
+    private int[] flood = new int[256];
+    private long scannedPixels;
+    private boolean reachedFrame;
+
+    /**
+     * Constructs a search that binarizes with the given binarizer.
+     *
+     * @param binarizer classifies the pixels of the window
+     */
+    public WindowSearch(DistanceImageBinarizer binarizer) {
+        this.binarizer = binarizer;
+    }
+
+    /**
+     * Searches a square window around (centerX, centerY), doubling it until no component cut
+     * off by an interior side could outrank its largest complete group.
+     *
+     * @param pixels the frame to search
+     * @param centerX the column the window is centered on
+     * @param centerY the row the window is centered on
+     * @param halfWidth the initial distance from the center to the sides of the window
+     * @return the largest complete group of the final window in frame coordinates, or null if a
+     *         window holds no group or the window has grown to the whole frame
+     */
+    public Group findAround(PixelSource pixels, int centerX, int centerY, long halfWidth) {
+        int width = pixels.getWidth();
+        int height = pixels.getHeight();
+
+        reachedFrame = false;
+        while (true) {
+            int left = (int) Math.max(0, centerX - halfWidth);
+            int top = (int) Math.max(0, centerY - halfWidth);
+            int right = (int) Math.min(width, centerX + halfWidth + 1);
+            int bottom = (int) Math.min(height, centerY + halfWidth + 1);
+            if (left == 0 && top == 0 && right == width && bottom == height) {
+                reachedFrame = true;
+                return null;
+            }
+
+            int innerSides = (left > 0 ? RunLengthLabeler.LEFT : 0)
+                    | (right < width ? RunLengthLabeler.RIGHT : 0)
+                    | (top > 0 ? RunLengthLabeler.TOP : 0)
+                    | (bottom < height ? RunLengthLabeler.BOTTOM : 0);
+            search(pixels, left, top, right, bottom, innerSides);
+            if (sink.size == 0 && sink.clippedSize == 0) {
+                return null;
+            }
+
+            if (sink.clippedSize == 0) {
+                return sink.toGroup(left, top);
+            }
+            // a cut off component may continue over the white pixels that connect to it outside
+            long limit = (long) sink.size - sink.clippedSize;
+            if (limit > 0 && countOutside(pixels, left, top, right, bottom, innerSides, limit) < limit) {
+                return sink.toGroup(left, top);
+            }
+            halfWidth *= 2;
+        }
+    }
+
+    /**
+     * Finds the largest group of the whole frame.
+     *
+     * @param pixels the frame to scan
+     * @return the largest group, or null if no pixel matches
+     */
+    public Group scan(PixelSource pixels) {
+        search(pixels, 0, 0, pixels.getWidth(), pixels.getHeight(), 0);
+        return sink.size == 0 ? null : sink.toGroup(0, 0);
+    }
+
+    /**
+     * @return whether the last findAround returned null because its window grew to the whole
+     *         frame, rather than because a window held no group
+     */
+    public boolean reachedFrame() {
+        return reachedFrame;
+    }
+
+    /**
+     * @return the number of pixels read so far, over all windows and scans
+     */
+    public long getScannedPixels() {
+        return scannedPixels;
+    }
+
+    /**
+     * Binarizes and labels the window [left, right) x [top, bottom) and leaves its largest
+     * complete group in the sink, with coordinates relative to the window, together with the
+     * number of pixels in components touching one of the innerSides.
+     */
+    private void search(PixelSource pixels, int left, int top, int right, int bottom, int innerSides) {
+        int width = right - left;
+        int wordsPerRow = (width + 63) >>> 6;
+        if (rowPixels.length < width) {
+            rowPixels = new int[width];
+        }
+        if (rowWords.length < wordsPerRow) {
+            rowWords = new long[wordsPerRow];
+        }
+
+        sink.clear(innerSides);
+        labeler.reset(width, sink);
+        for (int y = top; y < bottom; y++) {
+            pixels.readRow(y, left, width, rowPixels);
+            Arrays.fill(rowWords, 0, wordsPerRow, 0L);
+            binarizer.binarizeRow(rowPixels, width, rowWords, 0);
+            labeler.pushRow(rowWords, 0);
+        }
+        labeler.finish();
+        scannedPixels += (long) width * (bottom - top);
+    }
+
+    /**
+     * Counts the white pixels outside the window [left, right) x [top, bottom) that are
+     * connected to a white pixel on one of the innerSides without crossing the window, stopping
+     * once limit pixels are found.
+     */
+    private long countOutside(PixelSource pixels, int left, int top, int right, int bottom, int innerSides,
+            long limit) {
+        int width = pixels.getWidth();
+        int windowWidth = right - left;
+        int visitedWords = (int) (((long) width * pixels.getHeight() + 63) >>> 6);
+        if (visited.length < visitedWords) {
+            visited = new long[visitedWords];
+        }
+        if (edgePixels.length < windowWidth) {
+            edgePixels = new int[windowWidth];
+            edgeWords = new long[(windowWidth + 63) >>> 6];
+        }
+
+        // seed with the pixels just outside an inner side whose neighbour inside is white too
+        int count = 0;
+        if ((innerSides & RunLengthLabeler.TOP) != 0) {
+            count = seedRow(pixels, top - 1, top, left, windowWidth, count);
+        }
+        if ((innerSides & RunLengthLabeler.BOTTOM) != 0) {
+            count = seedRow(pixels, bottom, bottom - 1, left, windowWidth, count);
+        }
+        for (int y = top; y < bottom; y++) {
+            if ((innerSides & RunLengthLabeler.LEFT) != 0) {
+                binarize(pixels, y, left - 1, 2, edgePixels, edgeWords);
+                if ((edgeWords[0] & 3L) == 3L) {
+                    count = push(y * width + left - 1, count);
+                }
+            }
+            if ((innerSides & RunLengthLabeler.RIGHT) != 0) {
+                binarize(pixels, y, right - 1, 2, edgePixels, edgeWords);
+                if ((edgeWords[0] & 3L) == 3L) {
+                    count = push(y * width + right, count);
+                }
+            }
+        }
+
+        // flood outwards, never into the window
+        int head = 0;
+        while (head < count && count < limit) {
+            int position = flood[head++];
+            int x = position % width;
+            int y = position / width;
+            count = visit(pixels, x - 1, y, left, top, right, bottom, count);
+            count = visit(pixels, x + 1, y, left, top, right, bottom, count);
+            count = visit(pixels, x, y - 1, left, top, right, bottom, count);
+            count = visit(pixels, x, y + 1, left, top, right, bottom, count);
+        }
+
+        for (int i = 0; i < count; i++) {
+            visited[flood[i] >>> 6] &= ~(1L << flood[i]);
+        }
+        return count;
+    }
+
+    private int seedRow(PixelSource pixels, int outsideRow, int insideRow, int left, int length, int count) {
+        binarize(pixels, outsideRow, left, length, rowPixels, rowWords);
+        binarize(pixels, insideRow, left, length, edgePixels, edgeWords);
+        int width = pixels.getWidth();
+        for (int word = 0; word < (length + 63) >>> 6; word++) {
+            long both = rowWords[word] & edgeWords[word];
+            while (both != 0) {
+                count = push(outsideRow * width + left + (word << 6) + Long.numberOfTrailingZeros(both), count);
+                both &= both - 1;
+            }
+        }
+        return count;
+    }
+
+    private int visit(PixelSource pixels, int x, int y, int left, int top, int right, int bottom, int count) {
+        if (x < 0 || y < 0 || x >= pixels.getWidth() || y >= pixels.getHeight()
+                || (x >= left && x < right && y >= top && y < bottom)) {
+            return count;
+        }
+        int position = y * pixels.getWidth() + x;
+        if ((visited[position >>> 6] & (1L << position)) != 0) {
+            return count;
+        }
+        binarize(pixels, y, x, 1, pixel, pixelWord);
+        return (pixelWord[0] & 1L) != 0 ? push(position, count) : count;
+    }
+
+    private int push(int position, int count) {
+        if (count == flood.length) {
+            flood = Arrays.copyOf(flood, 2 * count);
+        }
+        flood[count] = position;
+        visited[position >>> 6] |= 1L << position;
+        return count + 1;
+    }
+
+    private void binarize(PixelSource pixels, int y, int x, int length, int[] dest, long[] words) {
+        pixels.readRow(y, x, length, dest);
+        Arrays.fill(words, 0, (length + 63) >>> 6, 0L);
+        binarizer.binarizeRow(dest, length, words, 0);
+        scannedPixels += length;
+    }
+
+    /**
+     * Keeps the largest component by Group order among those that touch none of the inner
+     * sides, and the number of pixels in those that do.
+     */
+    private static class WindowSink implements RunLengthLabeler.ComponentSink {
+        int innerSides;
+        int size;
+        long sumX;
+        long sumY;
+        long clippedSize;
+
+        void clear(int innerSides) {
+            this.innerSides = innerSides;
+            size = 0;
+            clippedSize = 0;
+        }
+
+        @Override
+        public void accept(int size, long sumX, long sumY) {
+            accept(size, sumX, sumY, 0);
+        }
+
+        @Override
+        public void accept(int size, long sumX, long sumY, int sides) {
+            if ((sides & innerSides) != 0) {
+                clippedSize += size;
+                return;
+            }
+            // ties are broken on the centroid like Group.compareTo; the window offset is the
+            // same for all components of one search, so it does not change the order
+            if (this.size == 0 || compare(size, sumX, sumY) > 0) {
+                this.size = size;
+                this.sumX = sumX;
+                this.sumY = sumY;
+            }
+        }
+
+        private int compare(int size, long sumX, long sumY) {
+            int comp = Integer.compare(size, this.size);
+            if (comp != 0) {
+                return comp;
+            }
+            comp = Long.compare(sumX / size, this.sumX / this.size);
+            if (comp != 0) {
+                return comp;
+            }
+            return Long.compare(sumY / size, this.sumY / this.size);
+        }
+
+        Group toGroup(int left, int top) {
+            long x = (sumX + (long) left * size) / size;
+            long y = (sumY + (long) top * size) / size;
+            return new Group(size, new Coordinate((int) x, (int) y));
+        }
+    }
+}
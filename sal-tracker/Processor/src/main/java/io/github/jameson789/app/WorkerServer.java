@@ -0,0 +1,334 @@
+package io.github.jameson789.app;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.Frame;
+
+/**
+ * A long-running worker that processes video jobs in one warm JVM instead of starting a new
+ * process per job.
+ *
+ * Every request is one line holding the arguments of a job exactly as they are given to
+ * ImageSummaryApp, separated by whitespace; arguments that contain whitespace are put in double
+ * quotes. Jobs run on a shared pool of worker threads, so they share the loaded native
+ * libraries, the compiled code and the cached color lookup tables. When a job ends, one line
+ * is written back:
+ *
+ *   done TASK_ID CSV_PATH
+ *   failed TASK_ID MESSAGE
+ *
+ * Replies are written in completion order, which need not be the request order. A request that
+ * can not be parsed is answered with "failed - MESSAGE". An empty line or a line starting with
+ * "#" is ignored, and "quit" stops reading requests.
+ *
+ * Requests come from stdin, with replies on stdout, or from the connections of a Unix-domain
+ * socket, where each connection receives the replies to its own jobs. When the requests of a
+ * stream end, the jobs still running are finished before the stream is closed. In stdin mode the
+ * progress output of the jobs is moved to stderr so that stdout only carries replies.
+ */
+public class WorkerServer implements AutoCloseable {
+    /**
+     * The number of jobs run at the same time unless configured otherwise.
+     */
+    public static final int DEFAULT_JOBS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /**
+     * Processes one job.
+     */
+    @FunctionalInterface
+    public interface Job {
+        /**
+         * Runs the job with the given arguments.
+         *
+         * @param args the arguments of the request line
+         * @return the CSV file written by the job
+         * @throws Exception if the job fails
+         */
+        public File run(String[] args) throws Exception;
+    }
+
+    private static final int WARM_UP_WIDTH = 320;
+    private static final int WARM_UP_HEIGHT = 240;
+    private static final int WARM_UP_FRAMES = 300;
+
+    private final Job job;
+    private final ExecutorService executor;
+
+    /**
+     * Constructs a server that runs up to the given number of jobs at the same time.
+     *
+     * @param job processes the jobs
+     * @param concurrentJobs the number of worker threads
+     * @throws IllegalArgumentException if concurrentJobs is not positive
+     */
+    public WorkerServer(Job job, int concurrentJobs) {
+        if (concurrentJobs <= 0) {
+            throw new IllegalArgumentException("concurrentJobs must be positive: " + concurrentJobs);
+        }
+        this.job = job;
+        this.executor = Executors.newFixedThreadPool(concurrentJobs);
+    }
+
+    /**
+     * Loads the FFmpeg native libraries up front and runs the frame analysis a few hundred times
+     * on a synthetic frame, so that the first job neither loads libraries nor runs interpreted.
+     * A library that fails to load is only reported, because jobs may not need it.
+     */
+    public void warmUp() {
+        try {
+            FFmpegFrameGrabber.tryLoad();
+        } catch (FFmpegFrameGrabber.Exception e) {
+            System.err.println("Could not preload all FFmpeg libraries: " + e.getMessage());
+        }
+        try (Frame frame = new Frame(WARM_UP_WIDTH, WARM_UP_HEIGHT, Frame.DEPTH_UBYTE, 3)) {
+            // a red square on black, so the analysis finds a group and stays silent
+            ByteBuffer pixels = (ByteBuffer) frame.image[0];
+            for (int y = 0; y < WARM_UP_HEIGHT; y++) {
+                for (int x = 0; x < WARM_UP_WIDTH; x++) {
+                    int index = y * frame.imageStride + 3 * x;
+                    boolean red = x >= 100 && x < 160 && y >= 80 && y < 140;
+                    pixels.put(index, (byte) 0).put(index + 1, (byte) 0).put(index + 2, (byte) (red ? 255 : 0));
+                }
+            }
+            ImageProcessor processor = new ImageProcessor(0xFF0000, 100);
+            for (int i = 0; i < WARM_UP_FRAMES; i++) {
+                processor.processFrame(frame);
+            }
+        }
+    }
+
+    /**
+     * Serves requests from stdin and writes replies to stdout until stdin ends. System.out is
+     * pointed at stderr meanwhile.
+     *
+     * @throws IOException if stdin can not be read
+     * @throws InterruptedException if interrupted while waiting for the last jobs
+     */
+    public void serveStandardStreams() throws IOException, InterruptedException {
+        PrintStream out = System.out;
+        Writer stdout = new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8);
+        System.setOut(System.err);
+        try {
+            serve(new InputStreamReader(System.in, StandardCharsets.UTF_8), stdout);
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    /**
+     * Listens on a Unix-domain socket and serves every connection on its own thread until the
+     * listening thread is interrupted. A stale socket file is replaced.
+     *
+     * @param socket the path of the socket file
+     * @throws IOException if the socket can not be bound
+     */
+    public void serve(Path socket) throws IOException {
+        Files.deleteIfExists(socket);
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(UnixDomainSocketAddress.of(socket));
+            System.out.println("Listening on " + socket);
+            while (!Thread.currentThread().isInterrupted()) {
+                SocketChannel connection = server.accept();
+                Thread thread = new Thread(() -> serveConnection(connection), "worker-connection");
+                thread.setDaemon(true);
+                thread.start();
+            }
+        } finally {
+            Files.deleteIfExists(socket);
+        }
+    }
+
+    private void serveConnection(SocketChannel connection) {
+        try (connection) {
+            serve(Channels.newReader(connection, StandardCharsets.UTF_8),
+                    Channels.newWriter(connection, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.err.println("Connection failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Serves the requests read from one stream. Returns once the stream has ended or sent
+     * "quit" and all its jobs have finished.
+     *
+     * @param requests the request lines
+     * @param replies receives one line per job
+     * @throws IOException if the requests can not be read
+     * @throws InterruptedException if interrupted while waiting for the last jobs
+     */
+    public void serve(Reader requests, Writer replies) throws IOException, InterruptedException {
+        BufferedReader reader = new BufferedReader(requests);
+        PrintWriter writer = new PrintWriter(replies, true);
+        List<Future<?>> running = new ArrayList<>();
+
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                if (line.equals("quit")) {
+                    break;
+                }
+
+                String[] args;
+                try {
+                    args = parseJob(line);
+                } catch (IllegalArgumentException e) {
+                    reply(writer, failedReply("-", e));
+                    continue;
+                }
+
+                running.removeIf(Future::isDone);
+                running.add(executor.submit(() -> runJob(args, writer)));
+            }
+        } finally {
+            for (Future<?> future : running) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    // runJob reports every failure itself
+                }
+            }
+        }
+    }
+
+    private void runJob(String[] args, PrintWriter writer) {
+        try {
+            reply(writer, doneReply(args[3], job.run(args)));
+        } catch (Throwable e) {
+            reply(writer, failedReply(args[3], e));
+        }
+    }
+
+    private static void reply(PrintWriter writer, String line) {
+        // println is atomic on a PrintWriter, so replies of concurrent jobs do not interleave
+        writer.println(line);
+    }
+
+    /**
+     * Formats the reply to a job that completed.
+     *
+     * @param taskId the task ID of the job
+     * @param output the CSV file written by the job
+     * @return the reply line
+     */
+    static String doneReply(String taskId, File output) {
+        return "done " + taskId + " " + output.getPath();
+    }
+
+    /**
+     * Formats the reply to a job that failed, with the message of the failure on one line.
+     * Failures other than IllegalArgumentException are unexpected, so their stack trace is
+     * printed to stderr as well.
+     *
+     * @param taskId the task ID of the job, "-" if the line could not be parsed
+     * @param failure the cause of the failure
+     * @return the reply line
+     */
+    static String failedReply(String taskId, Throwable failure) {
+        if (!(failure instanceof IllegalArgumentException)) {
+            failure.printStackTrace();
+        }
+        String message = failure.getMessage() == null ? failure.toString() : failure.getMessage();
+        return "failed " + taskId + " " + message.replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Splits a job line into the arguments of ImageSummaryApp, see tokenize.
+     *
+     * @param line the job line
+     * @return the arguments, at least four
+     * @throws IllegalArgumentException if a quote is not closed or there are fewer than four arguments
+     */
+    static String[] parseJob(String line) {
+        String[] args = tokenize(line);
+        if (args.length < 4) {
+            throw new IllegalArgumentException("Expected <input_video> <hex_target_color> <threshold> <task_id> [options]");
+        }
+        return args;
+    }
+
+    /**
+     * Splits a request line into arguments at whitespace. Double quotes group characters,
+     * including whitespace, into one argument and are removed.
+     *
+     * @param line the request line
+     * @return the arguments
+     * @throws IllegalArgumentException if a quote is not closed
+     */
+    public static String[] tokenize(String line) {
+        List<String> args = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        boolean inArgument = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+                inArgument = true;
+            } else if (Character.isWhitespace(c) && !quoted) {
+                if (inArgument) {
+                    args.add(current.toString());
+                    current.setLength(0);
+                    inArgument = false;
+                }
+            } else {
+                current.append(c);
+                inArgument = true;
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quote: " + line);
+        }
+        if (inArgument) {
+            args.add(current.toString());
+        }
+        return args.toArray(new String[0]);
+    }
+
+    /**
+     * Stops accepting jobs and waits for the running ones to finish. If interrupted while
+     * waiting, returns early with the interrupt flag set.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.HOURS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.jameson789.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class AdaptiveVideoProcessorTest {
+
+    private static final int WIDTH = 160;
+    private static final int HEIGHT = 96;
+    private static final int FPS = 25;
+    private static final int SECONDS = 20;
+
+    @TempDir
+    static Path tempDir;
+
+    static File idle;
+    static File moving;
+
+    @BeforeAll
+    static void writeVideos() throws Exception {
+        idle = tempDir.resolve("idle.mp4").toFile();
+        TestVideos.writeSquare(idle, WIDTH, HEIGHT, FPS, SECONDS, 50, frame -> 40);
+        moving = tempDir.resolve("moving.mp4").toFile();
+        TestVideos.writeSquare(moving, WIDTH, HEIGHT, FPS, SECONDS, 50, AdaptiveVideoProcessorTest::movingX);
+    }
+
+    /**
+     * Still for 10 seconds, then half a pixel per frame to the end.
+     */
+    private static int movingX(int frame) {
+        return frame < 10 * FPS ? 0 : (frame - 10 * FPS) / 2;
+    }
+
+    @Test
+    public void testIdleVideoIsSampledSparsely() throws Exception {
+        JobMetrics metrics = new JobMetrics();
+        List<String> rows = process(idle, 8, metrics);
+
+        // 0, 1, 3, 7, 15 and 23 would be the samples for doubling intervals capped at 8 seconds
+        assertTrue(rows.size() <= 6, rows.toString());
+        assertEquals(rows.size(), metrics.getFramesAnalyzed());
+        assertEquals(FPS * SECONDS, metrics.getFramesDecoded());
+        int center = 40 + (TestVideos.squareSize(HEIGHT) - 1) / 2;
+        for (String row : rows) {
+            assertEquals(center, Integer.parseInt(row.split(",")[1]), row);
+        }
+    }
+
+    @Test
+    public void testMovementIsSampledDenselyWithCorrectTimestamps() throws Exception {
+        List<String> rows = process(moving, 4, new JobMetrics());
+
+        int half = (TestVideos.squareSize(HEIGHT) - 1) / 2;
+        double previous = -1;
+        int idleSamples = 0;
+        int movingSamples = 0;
+        for (String row : rows) {
+            String[] fields = row.split(",");
+            double time = Double.parseDouble(fields[0]);
+            assertTrue(time > previous, rows.toString());
+            previous = time;
+
+            // the timestamp identifies the frame, which puts the square at a known position
+            int frame = (int) Math.round(time * FPS);
+            assertEquals(movingX(frame) + half, Integer.parseInt(fields[1]), 1, row);
+            if (time < 10) {
+                idleSamples++;
+            } else {
+                movingSamples++;
+            }
+        }
+        // 12.5 pixels per second with a tolerance of 4 pixels needs a few samples per second
+        assertTrue(idleSamples <= 4, rows.toString());
+        assertTrue(movingSamples >= 15, rows.toString());
+    }
+
+    @Test
+    public void testVideoTimeCoversTheWholeVideo() throws Exception {
+        // the real-time factor must not follow the number of samples, which varies with motion
+        JobMetrics idleMetrics = new JobMetrics();
+        process(idle, 8, idleMetrics);
+        JobMetrics movingMetrics = new JobMetrics();
+        process(moving, 4, movingMetrics);
+
+        assertTrue(idleMetrics.getFramesAnalyzed() < SECONDS);
+        assertTrue(movingMetrics.getFramesAnalyzed() > SECONDS);
+        assertEquals(SECONDS, idleMetrics.getVideoSeconds(), 1.0 / FPS);
+        assertEquals(SECONDS, movingMetrics.getVideoSeconds(), 1.0 / FPS);
+    }
+
+    private static List<String> process(File video, int maxSeconds, JobMetrics metrics) throws Exception {
+        StringWriter csv = new StringWriter();
+        try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(video);
+                PrintWriter writer = new PrintWriter(csv)) {
+            grabber.start();
+            new AdaptiveVideoProcessor(new ImageProcessor(TestVideos.SQUARE_COLOR, 120), maxSeconds, 4)
+                    .process(grabber, 0, writer, metrics, null);
+            grabber.stop();
+        }
+        return csv.toString().lines().toList();
+    }
+}
@@ -0,0 +1,123 @@
+package io.github.jameson789.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class BatchRunnerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testReadsManifest() throws Exception {
+        String manifest = """
+                # nightly backfill
+                a.mp4 FF0000 120 one
+
+                "with space.mp4" 00FF00 80 two --track
+                """;
+
+        BatchRunner.Manifest read = BatchRunner.readManifest(new StringReader(manifest));
+        List<String[]> jobs = read.jobs();
+
+        assertEquals(List.of(), read.errors());
+        assertEquals(2, jobs.size());
+        assertArrayEquals(new String[] {"a.mp4", "FF0000", "120", "one"}, jobs.get(0));
+        assertArrayEquals(new String[] {"with space.mp4", "00FF00", "80", "two", "--track"}, jobs.get(1));
+    }
+
+    @Test
+    public void testBadLinesFailWithoutStoppingTheBatch() throws Exception {
+        String manifest = """
+                a.mp4 FF0000 120 one
+                b.mp4 FF0000
+                "open 00FF00 80 two
+                c.mp4 0000FF 80 three
+                """;
+        BatchRunner.Manifest read = BatchRunner.readManifest(new StringReader(manifest));
+
+        assertEquals(2, read.jobs().size());
+        assertEquals(2, read.errors().size());
+        assertTrue(read.errors().get(0).startsWith("Line 2: Expected"), read.errors().toString());
+
+        StringWriter replies = new StringWriter();
+        int failed;
+        try (BatchRunner runner = new BatchRunner((args, pool) -> new File(args[3] + ".csv"), 2)) {
+            failed = runner.run(read, new PrintWriter(replies, true));
+        }
+
+        assertEquals(2, failed);
+        List<String> lines = new ArrayList<>(replies.toString().lines().toList());
+        lines.sort(null);
+        assertEquals(List.of(
+                "done one one.csv",
+                "done three three.csv",
+                "failed - Line 2: Expected <input_video> <hex_target_color> <threshold> <task_id> [options]",
+                "failed - Line 3: Unterminated quote: \"open 00FF00 80 two"), lines);
+    }
+
+    @Test
+    public void testReportsEveryJob() throws Exception {
+        StringWriter replies = new StringWriter();
+        List<String[]> jobs = List.of(
+                new String[] {"a.mp4", "FF0000", "120", "ok"},
+                new String[] {"b.mp4", "FF0000", "120", "bad"});
+
+        int failed;
+        try (BatchRunner runner = new BatchRunner((args, pool) -> {
+            assertNotNull(pool);
+            if (args[3].equals("bad")) {
+                throw new IllegalArgumentException("no such video");
+            }
+            return new File(args[3] + ".csv");
+        }, 2)) {
+            failed = runner.run(jobs, new PrintWriter(replies, true));
+        }
+
+        assertEquals(1, failed);
+        List<String> lines = new ArrayList<>(replies.toString().lines().toList());
+        lines.sort(null);
+        assertEquals(List.of("done ok ok.csv", "failed bad no such video"), lines);
+    }
+
+    @Test
+    public void testBatchWritesSameCsvsAsSeparateRuns() throws Exception {
+        File resultDir = tempDir.resolve("results").toFile();
+        File batchDir = tempDir.resolve("batch").toFile();
+        resultDir.mkdirs();
+        batchDir.mkdirs();
+
+        List<String[]> jobs = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            File video = tempDir.resolve("clip" + i + ".mp4").toFile();
+            TestVideos.writeMovingSquare(video, 160, 96, 25, 12 + 5 * i, 50);
+            jobs.add(new String[] {video.getPath(), "FF0000", "120", "task" + i});
+        }
+        jobs.add(new String[] {tempDir.resolve("missing.mp4").toString(), "FF0000", "120", "missing"});
+
+        int failed;
+        StringWriter replies = new StringWriter();
+        try (BatchRunner runner = new BatchRunner((args, pool) -> ImageSummaryApp.run(args, batchDir, pool), 2)) {
+            failed = runner.run(jobs, new PrintWriter(replies, true));
+        }
+
+        assertEquals(1, failed, replies.toString());
+        for (String[] job : jobs.subList(0, 3)) {
+            File expected = ImageSummaryApp.run(job, resultDir);
+            File actual = new File(batchDir, expected.getName());
+            assertEquals(Files.readAllLines(expected.toPath()), Files.readAllLines(actual.toPath()));
+            assertTrue(replies.toString().contains("done " + job[3] + " " + actual.getPath()), replies.toString());
+        }
+    }
+}
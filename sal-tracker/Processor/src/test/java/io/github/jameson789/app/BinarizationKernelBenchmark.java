@@ -0,0 +1,88 @@
+package io.github.jameson789.app;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Compares the ways a row of pixels can be classified against a target color: calling the
+ * distance finder per pixel, the color lookup table, and the scalar and vectorized squared
+ * distance kernels.
+ *
+ * A 1920x1080 frame of noise around the target color is classified repeatedly and the
+ * throughput of each path is printed in megapixels per second. The vectorized kernel is only
+ * measured when the Vector API is available, which needs the "vector" profile and the module
+ * added to the Maven JVM.
+ *
+ * Run with: MAVEN_OPTS="--add-modules jdk.incubator.vector" mvn -Pvector test-compile exec:java
+ *           -Dexec.classpathScope=test -Dexec.mainClass=io.github.jameson789.app.BinarizationKernelBenchmark
+ */
+public class BinarizationKernelBenchmark {
+    private static final int WIDTH = 1920;
+    private static final int HEIGHT = 1080;
+    private static final int TARGET = 0xD03020;
+    private static final int THRESHOLD = 60;
+
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        int[][] rows = new int[HEIGHT][WIDTH];
+        for (int[] row : rows) {
+            for (int col = 0; col < WIDTH; col++) {
+                row[col] = 0xFF000000 | (TARGET ^ random.nextInt(0x808080));
+            }
+        }
+        long[] words = new long[(WIDTH + 63) / 64];
+        int limit = EuclideanKernel.squaredLimit(THRESHOLD);
+
+        EuclideanColorDistance distance = new EuclideanColorDistance();
+        ColorLookupTable table = ColorLookupTable.compile(distance, TARGET, THRESHOLD);
+        EuclideanKernel scalar = new ScalarEuclideanKernel();
+        EuclideanKernel vector = EuclideanKernel.loadVectorized();
+
+        Path finderPath = row -> {
+            for (int col = 0; col < WIDTH; col++) {
+                if (distance.distance(row[col], TARGET) <= THRESHOLD) {
+                    words[col >>> 6] |= 1L << col;
+                }
+            }
+        };
+        Path tablePath = row -> {
+            for (int col = 0; col < WIDTH; col++) {
+                if (table.matches(row[col])) {
+                    words[col >>> 6] |= 1L << col;
+                }
+            }
+        };
+
+        measure("distance finder", finderPath, rows, words);
+        measure("lookup table", tablePath, rows, words);
+        measure("scalar kernel", row -> scalar.binarizeRow(row, WIDTH, TARGET, limit, words, 0), rows, words);
+        if (vector != null) {
+            measure("vector kernel", row -> vector.binarizeRow(row, WIDTH, TARGET, limit, words, 0), rows, words);
+        } else {
+            System.out.println("vector kernel: not available");
+        }
+    }
+
+    private interface Path {
+        void binarizeRow(int[] row);
+    }
+
+    private static void measure(String name, Path path, int[][] rows, long[] words) {
+        int frames = 40;
+        long checksum = 0;
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            for (int frame = 0; frame < frames; frame++) {
+                for (int[] row : rows) {
+                    Arrays.fill(words, 0L);
+                    path.binarizeRow(row);
+                    checksum += words[0] ^ words[words.length - 1];
+                }
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double megapixels = (double) frames * WIDTH * HEIGHT / 1e6;
+        System.out.printf("%-16s %8.1f Mpx/s  (checksum %d)%n", name, megapixels / (best / 1e9), checksum);
+    }
+}
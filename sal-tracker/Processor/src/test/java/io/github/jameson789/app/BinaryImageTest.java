@@ -0,0 +1,97 @@
+package io.github.jameson789.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class BinaryImageTest {
+
+    @Test
+    public void testRoundTripThroughArray() {
+        int[][] array = new int[3][130];
+        array[0][0] = 1;
+        array[0][63] = 1;
+        array[1][64] = 1;
+        array[2][129] = 1;
+
+        BinaryImage image = BinaryImage.fromArray(array);
+
+        assertEquals(130, image.getWidth());
+        assertEquals(3, image.getHeight());
+        assertEquals(3, image.getWordsPerRow());
+        assertArrayEquals(array, image.toArray());
+    }
+
+    @Test
+    public void testPixelLayout() {
+        BinaryImage image = new BinaryImage(70, 2);
+        image.set(65, 1, true);
+
+        long[] words = image.getWords();
+        assertEquals(4, words.length);
+        assertEquals(1L << 1, words[3]); // row 1, second word, bit 65 - 64
+        assertTrue(image.get(65, 1));
+        assertFalse(image.get(65, 0));
+    }
+
+    @Test
+    public void testSetAndClearPixels() {
+        BinaryImage image = new BinaryImage(5, 5);
+        image.set(2, 3, true);
+        image.set(4, 4, true);
+        assertEquals(2, image.countWhite());
+
+        image.set(2, 3, false);
+        assertFalse(image.get(2, 3));
+        assertEquals(1, image.countWhite());
+
+        image.clear();
+        assertEquals(0, image.countWhite());
+    }
+
+    @Test
+    public void testOnlyOnesAreWhite() {
+        int[][] array = {
+                {1, 2, -1},
+                {0, 1, 0}
+        };
+        int[][] expected = {
+                {1, 0, 0},
+                {0, 1, 0}
+        };
+
+        assertArrayEquals(expected, BinaryImage.fromArray(array).toArray());
+    }
+
+    @Test
+    public void testEmptyArray() {
+        BinaryImage image = BinaryImage.fromArray(new int[0][0]);
+        assertEquals(0, image.getWidth());
+        assertEquals(0, image.getHeight());
+        assertEquals(0, image.toArray().length);
+    }
+
+    @Test
+    public void testInvalidArraysThrow() {
+        assertThrows(IllegalArgumentException.class, () -> BinaryImage.fromArray(null));
+        assertThrows(IllegalArgumentException.class, () -> BinaryImage.fromArray(new int[][] {{1, 0}, {1}}));
+        assertThrows(IllegalArgumentException.class, () -> BinaryImage.fromArray(new int[][] {{1, 0}, null}));
+    }
+
+    @Test
+    public void testOutOfBoundsPixelThrows() {
+        BinaryImage image = new BinaryImage(3, 3);
+        assertThrows(IndexOutOfBoundsException.class, () -> image.get(3, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> image.set(0, -1, true));
+    }
+
+    @Test
+    public void testEquality() {
+        int[][] array = {
+                {1, 0},
+                {0, 1}
+        };
+        assertEquals(BinaryImage.fromArray(array), BinaryImage.fromArray(array));
+        assertNotEquals(BinaryImage.fromArray(array), new BinaryImage(2, 2));
+    }
+}
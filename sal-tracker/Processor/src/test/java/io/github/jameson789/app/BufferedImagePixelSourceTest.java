@@ -0,0 +1,96 @@
+package io.github.jameson789.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class BufferedImagePixelSourceTest {
+
+    @Test
+    public void testIntRgbMatchesGetRgb() {
+        assertRowsMatchGetRgb(randomImage(BufferedImage.TYPE_INT_RGB, 13, 7));
+    }
+
+    @Test
+    public void testIntArgbMatchesGetRgb() {
+        assertRowsMatchGetRgb(randomImage(BufferedImage.TYPE_INT_ARGB, 13, 7));
+    }
+
+    @Test
+    public void testThreeByteBgrMatchesGetRgb() {
+        assertRowsMatchGetRgb(randomImage(BufferedImage.TYPE_3BYTE_BGR, 13, 7));
+    }
+
+    @Test
+    public void testOtherTypesFallBackToGetRgb() {
+        assertRowsMatchGetRgb(randomImage(BufferedImage.TYPE_BYTE_GRAY, 13, 7));
+        assertRowsMatchGetRgb(randomImage(BufferedImage.TYPE_INT_BGR, 13, 7));
+    }
+
+    @Test
+    public void testSubimagesUseTheirOwnOrigin() {
+        assertRowsMatchGetRgb(randomImage(BufferedImage.TYPE_INT_RGB, 20, 10).getSubimage(3, 2, 9, 5));
+        assertRowsMatchGetRgb(randomImage(BufferedImage.TYPE_3BYTE_BGR, 20, 10).getSubimage(3, 2, 9, 5));
+    }
+
+    @Test
+    public void testReadsPartialRows() {
+        BufferedImage image = randomImage(BufferedImage.TYPE_INT_RGB, 10, 4);
+        PixelSource source = PixelSource.of(image);
+
+        int[] row = new int[3];
+        source.readRow(2, 5, 3, row);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(image.getRGB(5 + i, 2), row[i]);
+        }
+    }
+
+    @Test
+    public void testReadsSampledRows() {
+        BufferedImage[] images = {
+                randomImage(BufferedImage.TYPE_INT_RGB, 17, 6),
+                randomImage(BufferedImage.TYPE_INT_ARGB, 17, 6),
+                randomImage(BufferedImage.TYPE_3BYTE_BGR, 17, 6),
+                randomImage(BufferedImage.TYPE_BYTE_GRAY, 17, 6),
+                randomImage(BufferedImage.TYPE_3BYTE_BGR, 25, 9).getSubimage(4, 2, 17, 6)
+        };
+        for (BufferedImage image : images) {
+            PixelSource source = PixelSource.of(image);
+            int[] row = new int[4];
+            source.readSampledRow(3, 1, 4, 4, row);
+
+            for (int i = 0; i < 4; i++) {
+                assertEquals(image.getRGB(1 + 4 * i, 3), row[i], "Type " + image.getType() + " sample " + i);
+            }
+        }
+    }
+
+    private void assertRowsMatchGetRgb(BufferedImage image) {
+        PixelSource source = PixelSource.of(image);
+        assertEquals(image.getWidth(), source.getWidth());
+        assertEquals(image.getHeight(), source.getHeight());
+
+        int[] row = new int[image.getWidth()];
+        for (int y = 0; y < image.getHeight(); y++) {
+            source.readRow(y, 0, image.getWidth(), row);
+            for (int x = 0; x < image.getWidth(); x++) {
+                assertEquals(image.getRGB(x, y), row[x], "Pixel at (" + x + "," + y + ")");
+            }
+        }
+    }
+
+    private BufferedImage randomImage(int type, int width, int height) {
+        Random random = new Random(42);
+        BufferedImage image = new BufferedImage(width, height, type);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+        return image;
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.jameson789.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CheckpointTest {
+
+    @TempDir
+    static Path tempDir;
+
+    static File video;
+
+    @BeforeAll
+    static void writeVideo() throws Exception {
+        video = tempDir.resolve("resumable.mp4").toFile();
+        TestVideos.writeMovingSquare(video, 160, 96, 25, 9, 25);
+    }
+
+    @Test
+    public void testStartsFromZeroWithoutCheckpoint() throws Exception {
+        File csv = tempDir.resolve("fresh.csv").toFile();
+        Files.writeString(csv.toPath(), "stale\n");
+
+        Checkpoint checkpoint = new Checkpoint(csv, "key", 10);
+
+        assertEquals(0, checkpoint.resume());
+        assertEquals(0, csv.length());
+    }
+
+    @Test
+    public void testResumesAndDropsRowsAfterCheckpoint() throws Exception {
+        File csv = tempDir.resolve("resume.csv").toFile();
+        Checkpoint checkpoint = new Checkpoint(csv, "key", 10);
+        checkpoint.resume();
+        try (PrintWriter writer = checkpoint.openWriter()) {
+            writer.println("0,1,2");
+            writer.println("1,3,4");
+            checkpoint.save(2, writer);
+            // rows and a torn row written after the checkpoint, then a crash
+            writer.println("2,5,6");
+            writer.print("3,7");
+        }
+
+        Checkpoint restarted = new Checkpoint(csv, "key", 10);
+        assertEquals(2, restarted.resume());
+        try (PrintWriter writer = restarted.openWriter()) {
+            writer.println("2,5,6");
+        }
+        assertEquals(List.of("0,1,2", "1,3,4", "2,5,6"), Files.readAllLines(csv.toPath()));
+
+        restarted.finish();
+        assertFalse(restarted.getFile().exists());
+    }
+
+    @Test
+    public void testIgnoresCheckpointOfOtherJob() throws Exception {
+        File csv = tempDir.resolve("other.csv").toFile();
+        Checkpoint checkpoint = new Checkpoint(csv, "first", 10);
+        checkpoint.resume();
+        try (PrintWriter writer = checkpoint.openWriter()) {
+            writer.println("0,1,2");
+            checkpoint.save(1, writer);
+        }
+
+        assertEquals(0, new Checkpoint(csv, "second", 10).resume());
+        assertEquals(0, csv.length());
+    }
+
+    @Test
+    public void testIgnoresCheckpointBeyondCsv() throws Exception {
+        File csv = tempDir.resolve("truncated.csv").toFile();
+        Checkpoint checkpoint = new Checkpoint(csv, "key", 10);
+        checkpoint.resume();
+        try (PrintWriter writer = checkpoint.openWriter()) {
+            writer.println("0,1,2");
+            checkpoint.save(1, writer);
+        }
+        Files.writeString(csv.toPath(), "0");
+
+        assertEquals(0, new Checkpoint(csv, "key", 10).resume());
+    }
+
+    @Test
+    public void testKeyDependsOnArgumentsButNotTaskId() {
+        String[] args = {video.getPath(), "FF0000", "120", "task"};
+        String key = Checkpoint.key(video, args);
+
+        assertEquals(key, Checkpoint.key(video, new String[] {video.getPath(), "FF0000", "120", "other"}));
+        assertNotEquals(key, Checkpoint.key(video, new String[] {video.getPath(), "FF0000", "121", "task"}));
+        assertNotEquals(key, Checkpoint.key(video, new String[] {video.getPath(), "FF0000", "120", "task", "--track"}));
+    }
+
+    @Test
+    public void testResumedJobWritesSameCsv() throws Exception {
+        assertResumedJobWritesSameCsv("single");
+    }
+
+    @Test
+    public void testResumedPipelinedJobWritesSameCsv() throws Exception {
+        assertResumedJobWritesSameCsv("pipelined", "--workers=2");
+    }
+
+    @Test
+    public void testResumedSegmentedJobWritesSameCsv() throws Exception {
+        assertResumedJobWritesSameCsv("segmented", "--threads=2");
+    }
+
+    private void assertResumedJobWritesSameCsv(String task, String... options) throws Exception {
+        File resultDir = tempDir.resolve(task).toFile();
+        resultDir.mkdirs();
+        String[] args = new String[4 + options.length];
+        args[0] = video.getPath();
+        args[1] = "FF0000";
+        args[2] = "120";
+        args[3] = task;
+        System.arraycopy(options, 0, args, 4, options.length);
+
+        File csv = ImageSummaryApp.run(args, resultDir);
+        List<String> expected = Files.readAllLines(csv.toPath());
+        assertEquals(9, expected.size());
+        assertFalse(new Checkpoint(csv, "", 10).getFile().exists());
+
+        // simulate a crash after second 4: a checkpoint at second 5 and a torn row after it; the
+        // first row is marked, so a job that starts over instead of resuming would replace it
+        List<String> resumed = new ArrayList<>(expected);
+        resumed.set(0, "0,0,0");
+        Checkpoint checkpoint = new Checkpoint(csv, Checkpoint.key(video, args), 10);
+        checkpoint.resume();
+        try (PrintWriter writer = checkpoint.openWriter()) {
+            for (String row : resumed.subList(0, 5)) {
+                writer.println(row);
+            }
+            checkpoint.save(5, writer);
+            writer.print("5,9");
+        }
+
+        assertEquals(csv, ImageSummaryApp.run(args, resultDir));
+        assertEquals(resumed, Files.readAllLines(csv.toPath()));
+        assertFalse(checkpoint.getFile().exists());
+    }
+}
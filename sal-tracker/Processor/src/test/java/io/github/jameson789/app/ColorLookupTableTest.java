@@ -0,0 +1,59 @@
+package io.github.jameson789.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class ColorLookupTableTest {
+
+    @Test
+    public void testEuclideanTableMatchesDistanceForEveryColor() {
+        EuclideanColorDistance distance = new EuclideanColorDistance();
+        int[] targets = {0x000000, 0xFF0000, 0x7F80FF, 0xFFFFFF};
+        int[] thresholds = {-1, 0, 1, 37, 164, 441, 442};
+
+        for (int i = 0; i < thresholds.length; i++) {
+            int target = targets[i % targets.length];
+            int threshold = thresholds[i];
+            ColorLookupTable table = ColorLookupTable.compile(distance, target, threshold);
+
+            for (int color = 0; color < 1 << 24; color++) {
+                boolean expected = distance.distance(0xFF000000 | color, target) <= threshold;
+                if (table.matches(color) != expected) {
+                    fail(String.format("color %06X, target %06X, threshold %d", color, target, threshold));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testOtherFinderIsCalledForEveryOpaqueColor() {
+        // matches when the red byte is even and checks that the alpha byte is opaque
+        ColorDistanceFinder finder = (a, b) -> (a >>> 24) == 0xFF && ((a >> 16) & 1) == 0 ? 0 : 100;
+        ColorLookupTable table = ColorLookupTable.compile(finder, 0x000000, 10);
+
+        assertTrue(table.matches(0x00ABCD));
+        assertTrue(table.matches(0xFE0000));
+        assertFalse(table.matches(0x01ABCD));
+        assertFalse(table.matches(0xFFFFFF));
+    }
+
+    @Test
+    public void testMatchesIgnoresAlpha() {
+        ColorLookupTable table = ColorLookupTable.compile(new EuclideanColorDistance(), 0xFF0000, 0);
+
+        assertTrue(table.matches(0xFF0000));
+        assertTrue(table.matches(0xFFFF0000));
+        assertTrue(table.matches(0x12FF0000));
+    }
+
+    @Test
+    public void testTablesAreSharedBetweenEqualSettings() {
+        ColorLookupTable first = ColorLookupTable.of(new EuclideanColorDistance(), 0x00FF00, 25);
+        ColorLookupTable second = ColorLookupTable.of(new EuclideanColorDistance(), 0x00FF00, 25);
+        ColorLookupTable other = ColorLookupTable.of(new EuclideanColorDistance(), 0x00FF00, 26);
+
+        assertSame(first, second);
+        assertNotSame(first, other);
+    }
+}
@@ -0,0 +1,23 @@
+package io.github.jameson789.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class CsvRowsTest {
+
+    private static final String NL = System.lineSeparator();
+
+    @Test
+    public void testSingleTarget() {
+        assertEquals("3,10,20" + NL, CsvRows.format("3", new CentroidResult[] {new CentroidResult(10, 20)}));
+        assertEquals("", CsvRows.format("3", new CentroidResult[] {null}));
+    }
+
+    @Test
+    public void testSeveralTargetsGetTargetColumn() {
+        CentroidResult[] results = {new CentroidResult(1, 2), null, new CentroidResult(5, 6)};
+
+        assertEquals("1.250,1,2,0" + NL + "1.250,5,6,2" + NL, CsvRows.format("1.250", results));
+    }
+}
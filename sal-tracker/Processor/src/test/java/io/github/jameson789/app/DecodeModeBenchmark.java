@@ -0,0 +1,69 @@
+package io.github.jameson789.app;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+
+/**
+ * Compares the seeking and the streaming frame samplers on a long-GOP clip.
+ *
+ * Without arguments a 720p clip with one keyframe every 10 seconds is generated in the temp
+ * directory. A video path can be given as the first argument instead, with an optional hex
+ * color and threshold after it.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=io.github.jameson789.app.DecodeModeBenchmark
+ */
+public class DecodeModeBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        File video;
+        if (args.length > 0) {
+            video = new File(args[0]);
+        } else {
+            video = File.createTempFile("long-gop", ".mp4");
+            video.deleteOnExit();
+            System.out.println("Writing 60 s 1280x720 clip, 30 fps, GOP 300 to " + video);
+            TestVideos.writeMovingSquare(video, 1280, 720, 30, 60, 300);
+        }
+        int targetColor = args.length > 1 ? Integer.parseInt(args[1], 16) : TestVideos.SQUARE_COLOR;
+        int threshold = args.length > 2 ? Integer.parseInt(args[2]) : 120;
+
+        // warm up both paths once before measuring
+        run(new SeekingFrameSampler(), video, targetColor, threshold, 5);
+        run(new StreamingFrameSampler(), video, targetColor, threshold, 5);
+
+        long start = System.nanoTime();
+        List<String> seeked = run(new SeekingFrameSampler(), video, targetColor, threshold, Integer.MAX_VALUE);
+        long seekNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        List<String> streamed = run(new StreamingFrameSampler(), video, targetColor, threshold, Integer.MAX_VALUE);
+        long streamNanos = System.nanoTime() - start;
+
+        System.out.printf("seek:   %d samples in %.2f s%n", seeked.size(), seekNanos / 1e9);
+        System.out.printf("stream: %d samples in %.2f s%n", streamed.size(), streamNanos / 1e9);
+        System.out.printf("speedup: %.2fx, identical output: %b%n", (double) seekNanos / streamNanos,
+                seeked.equals(streamed));
+    }
+
+    private static List<String> run(FrameSampler sampler, File video, int targetColor, int threshold, int maxSeconds)
+            throws Exception {
+        List<String> rows = new ArrayList<>();
+        ImageProcessor processor = new ImageProcessor(targetColor, threshold);
+        try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(video)) {
+            grabber.start();
+            int seconds = (int) Math.min(maxSeconds, grabber.getLengthInTime() / 1000000.0);
+            sampler.sample(grabber, 0, seconds, (second, frame) -> {
+                CentroidResult result = processor.processFrame(frame);
+                if (result != null) {
+                    rows.add(second + "," + result.x() + "," + result.y());
+                }
+            });
+            grabber.stop();
+        }
+        return rows;
+    }
+}
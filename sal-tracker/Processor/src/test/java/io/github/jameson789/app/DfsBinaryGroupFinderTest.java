@@ -134,7 +134,7 @@ public class DfsBinaryGroupFinderTest {
     public void testNullInputThrowsException() {
         DfsBinaryGroupFinder finder = new DfsBinaryGroupFinder();
         assertThrows(IllegalArgumentException.class, () -> {
-            finder.findConnectedGroups(null);
+            finder.findConnectedGroups((int[][]) null);
         });
     }
 
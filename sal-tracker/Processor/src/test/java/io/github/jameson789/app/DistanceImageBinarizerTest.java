@@ -2,6 +2,10 @@ package io.github.jameson789.app;
 import org.junit.jupiter.api.Test;
 
 import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.Java2DFrameConverter;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -74,8 +78,60 @@ public class DistanceImageBinarizerTest {
         assertArrayEquals(expected, binarizer.toBinaryArray(image));
     }
 
+    @Test
+    public void testFrameMatchesConvertedImage() {
+        Frame frame = FramePixelSourceTest.randomFrame(17, 9, 3, 60);
+        BufferedImage image = new Java2DFrameConverter().getBufferedImage(frame);
+
+        DistanceImageBinarizer binarizer = new DistanceImageBinarizer(new EuclideanColorDistance(), 0x808080, 200);
+
+        assertArrayEquals(binarizer.toBinaryArray(image), binarizer.toBinaryArray(frame));
+    }
+
+    @Test
+    public void testBinaryImageMatchesArray() {
+        BufferedImage image = new BufferedImage(70, 3, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < 70; x += 3) {
+            image.setRGB(x, x % 3, 0xFF0000);
+        }
+
+        DistanceImageBinarizer binarizer = new DistanceImageBinarizer(new EuclideanColorDistance(), 0xFF0000, 10);
+        BinaryImage binary = binarizer.toBinaryImage(image);
+
+        assertEquals(24, binary.countWhite());
+        assertArrayEquals(binarizer.toBinaryArray(image), binary.toArray());
+    }
+
     //toBufferedImageTests
 
+    @Test
+    public void testLookupTableMatchesDistanceFinderOnLargeImage() {
+        // large enough for the lookup table, with a few translucent pixels that bypass it
+        Random random = new Random(11);
+        BufferedImage image = new BufferedImage(400, 200, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                int alpha = random.nextInt(50) == 0 ? random.nextInt(256) : 0xFF;
+                image.setRGB(x, y, (alpha << 24) | random.nextInt(1 << 24));
+            }
+        }
+        EuclideanColorDistance distance = new EuclideanColorDistance();
+        // a finder that treats translucent pixels differently, to show they skip the table
+        ColorDistanceFinder alphaAware = (a, b) -> (a >>> 24) == 0xFF ? distance.distance(a, b) : 0;
+
+        for (ColorDistanceFinder finder : new ColorDistanceFinder[] {distance, alphaAware}) {
+            DistanceImageBinarizer binarizer = new DistanceImageBinarizer(finder, 0x4080C0, 120);
+            int[][] result = binarizer.toBinaryArray(image);
+
+            for (int y = 0; y < image.getHeight(); y++) {
+                for (int x = 0; x < image.getWidth(); x++) {
+                    int expected = finder.distance(image.getRGB(x, y), 0x4080C0) <= 120 ? 1 : 0;
+                    assertEquals(expected, result[y][x], "pixel " + x + "," + y);
+                }
+            }
+        }
+    }
+
     @Test
     public void convertsAllOnesToWhitePixels() {
         int[][] binary = {
@@ -125,4 +181,85 @@ public class DistanceImageBinarizerTest {
         assertEquals(0x000000, image.getRGB(0, 1) & 0xFFFFFF);
         assertEquals(0xFFFFFF, image.getRGB(1, 1) & 0xFFFFFF);
     }
+
+    @Test
+    public void convertsBinaryImageLikeArray() {
+        int[][] binary = new int[2][67];
+        binary[0][66] = 1;
+        binary[1][3] = 1;
+
+        DistanceImageBinarizer binarizer = new DistanceImageBinarizer(null, 0, 0);
+        BufferedImage fromArray = binarizer.toBufferedImage(binary);
+        BufferedImage fromPacked = binarizer.toBufferedImage(BinaryImage.fromArray(binary));
+
+        for (int y = 0; y < 2; y++) {
+            for (int x = 0; x < 67; x++) {
+                assertEquals(fromArray.getRGB(x, y), fromPacked.getRGB(x, y));
+            }
+        }
+        assertEquals(0xFFFFFF, fromPacked.getRGB(66, 0) & 0xFFFFFF);
+        assertEquals(0x000000, fromPacked.getRGB(65, 0) & 0xFFFFFF);
+    }
+
+    @Test
+    public void testPreviewAtFullSizeMatchesBinaryArray() {
+        Random random = new Random(23);
+        DistanceImageBinarizer binarizer = new DistanceImageBinarizer(new EuclideanColorDistance(), 0xFF0000, 100);
+        for (int trial = 0; trial < 30; trial++) {
+            // widths that end inside a byte and inside a word
+            int width = 1 + random.nextInt(150);
+            int height = 1 + random.nextInt(20);
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    image.setRGB(x, y, random.nextBoolean() ? 0xF01010 : random.nextInt(0x1000000));
+                }
+            }
+
+            BufferedImage preview = binarizer.toPreview(PixelSource.of(image), width, height);
+            int[][] expected = binarizer.toBinaryArray(image);
+
+            assertEquals(BufferedImage.TYPE_BYTE_BINARY, preview.getType());
+            assertEquals(width, preview.getWidth());
+            assertEquals(height, preview.getHeight());
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    assertEquals(expected[y][x] == 1 ? 0xFFFFFF : 0x000000, preview.getRGB(x, y) & 0xFFFFFF,
+                            "trial " + trial + " pixel (" + x + "," + y + ")");
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPreviewIsDownscaledToFitBounds() {
+        BufferedImage image = new BufferedImage(100, 40, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < 40; y++) {
+            for (int x = 0; x < 100; x++) {
+                // columns divisible by 3 match
+                image.setRGB(x, y, x % 3 == 0 ? 0xFF0000 : 0x0000FF);
+            }
+        }
+        DistanceImageBinarizer binarizer = new DistanceImageBinarizer(new EuclideanColorDistance(), 0xFF0000, 10);
+
+        // a step of 3 reads columns 0, 3, 6, ... only, all of which match
+        BufferedImage preview = binarizer.toPreview(PixelSource.of(image), 40, 40);
+
+        assertEquals(34, preview.getWidth());
+        assertEquals(14, preview.getHeight());
+        for (int y = 0; y < preview.getHeight(); y++) {
+            for (int x = 0; x < preview.getWidth(); x++) {
+                assertEquals(0xFFFFFF, preview.getRGB(x, y) & 0xFFFFFF);
+            }
+        }
+    }
+
+    @Test
+    public void testPreviewStep() {
+        assertEquals(1, DistanceImageBinarizer.previewStep(640, 360, 640, 360));
+        assertEquals(1, DistanceImageBinarizer.previewStep(100, 50, 640, 360));
+        assertEquals(6, DistanceImageBinarizer.previewStep(3840, 2160, 640, 360));
+        assertEquals(7, DistanceImageBinarizer.previewStep(3840, 2160, 640, 320));
+        assertThrows(IllegalArgumentException.class, () -> DistanceImageBinarizer.previewStep(10, 10, 0, 10));
+    }
 }
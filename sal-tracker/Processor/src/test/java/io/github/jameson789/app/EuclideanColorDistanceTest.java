@@ -84,6 +84,12 @@ public class EuclideanColorDistanceTest {
         }
     }
 
+    @Test
+    public void testInstancesAreEqual() {
+        assertEquals(new EuclideanColorDistance(), new EuclideanColorDistance());
+        assertEquals(new EuclideanColorDistance().hashCode(), new EuclideanColorDistance().hashCode());
+    }
+
     // === Tests using Fake instead of Mockito ===
 
     @Test
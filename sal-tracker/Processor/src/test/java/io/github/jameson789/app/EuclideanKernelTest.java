@@ -0,0 +1,72 @@
+package io.github.jameson789.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class EuclideanKernelTest {
+
+    @Test
+    public void testSquaredLimit() {
+        assertEquals(-1, EuclideanKernel.squaredLimit(-5));
+        assertEquals(0, EuclideanKernel.squaredLimit(0));
+        assertEquals(1600, EuclideanKernel.squaredLimit(40));
+        assertEquals(EuclideanKernel.MAX_SQUARED_DISTANCE, EuclideanKernel.squaredLimit(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testScalarKernelMatchesDistanceFinder() {
+        assertMatchesDistanceFinder(new ScalarEuclideanKernel());
+    }
+
+    @Test
+    public void testVectorKernelMatchesDistanceFinder() {
+        // only runs in builds with the "vector" profile
+        EuclideanKernel kernel = EuclideanKernel.loadVectorized();
+        assumeTrue(kernel != null, "Vector API kernel not available");
+
+        assertMatchesDistanceFinder(kernel);
+    }
+
+    @Test
+    public void testKernelOnlyOrsIntoWords() {
+        long[] words = {0b1010L, -1L};
+        int[] row = new int[70];
+
+        new ScalarEuclideanKernel().binarizeRow(row, 70, 0xFFFFFF, 0, words, 0);
+
+        assertArrayEquals(new long[] {0b1010L, -1L}, words);
+    }
+
+    private void assertMatchesDistanceFinder(EuclideanKernel kernel) {
+        Random random = new Random(21);
+        EuclideanColorDistance distance = new EuclideanColorDistance();
+
+        for (int trial = 0; trial < 200; trial++) {
+            int width = 1 + random.nextInt(300);
+            int offset = random.nextInt(3);
+            int target = random.nextInt(1 << 24);
+            int threshold = random.nextInt(460) - 10;
+            int[] row = new int[width];
+            for (int col = 0; col < width; col++) {
+                // colors near the target so both outcomes are common
+                row[col] = random.nextBoolean() ? random.nextInt() : target ^ random.nextInt(0x404040);
+            }
+
+            long[] words = new long[offset + (width + 63) / 64];
+            kernel.binarizeRow(row, width, target, EuclideanKernel.squaredLimit(threshold), words, offset);
+
+            long[] expected = new long[words.length];
+            for (int col = 0; col < width; col++) {
+                if (distance.distance(row[col], target) <= threshold) {
+                    expected[offset + col / 64] |= 1L << col;
+                }
+            }
+            assertArrayEquals(expected, words, "trial " + trial + " " + Arrays.toString(words));
+        }
+    }
+}
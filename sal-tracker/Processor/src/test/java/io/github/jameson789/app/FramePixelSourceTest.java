@@ -0,0 +1,115 @@
+package io.github.jameson789.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.Java2DFrameConverter;
+import org.junit.jupiter.api.Test;
+
+public class FramePixelSourceTest {
+
+    @Test
+    public void testBgrFrameMatchesConvertedImage() {
+        Frame frame = randomFrame(11, 5, 3, 33);
+        BufferedImage image = new Java2DFrameConverter().getBufferedImage(frame);
+
+        PixelSource source = PixelSource.of(frame);
+        int[] row = new int[11];
+        for (int y = 0; y < 5; y++) {
+            source.readRow(y, 0, 11, row);
+            for (int x = 0; x < 11; x++) {
+                assertEquals(image.getRGB(x, y), row[x], "Pixel at (" + x + "," + y + ")");
+            }
+        }
+    }
+
+    @Test
+    public void testHonoursPaddedStride() {
+        // 7 pixels of 3 bytes padded to 32 bytes per row
+        Frame frame = new Frame(7, 2, Frame.DEPTH_UBYTE, 3, 32);
+        ByteBuffer buffer = (ByteBuffer) frame.image[0];
+        buffer.put(new byte[buffer.capacity()]).clear();
+        buffer.put(32 + 3 * 4, (byte) 0x30); // blue
+        buffer.put(32 + 3 * 4 + 1, (byte) 0x20); // green
+        buffer.put(32 + 3 * 4 + 2, (byte) 0x10); // red
+
+        int[] row = new int[7];
+        PixelSource.of(frame).readRow(1, 0, 7, row);
+
+        assertEquals(0xFF102030, row[4]);
+        assertEquals(0xFF000000, row[3]);
+    }
+
+    @Test
+    public void testBgraFrameIgnoresFourthByte() {
+        Frame frame = new Frame(2, 1, Frame.DEPTH_UBYTE, 4);
+        ByteBuffer buffer = (ByteBuffer) frame.image[0];
+        buffer.put(4, (byte) 0x33).put(5, (byte) 0x22).put(6, (byte) 0x11).put(7, (byte) 0x7F);
+
+        int[] row = new int[1];
+        PixelSource.of(frame).readRow(0, 1, 1, row);
+
+        assertEquals(0xFF112233, row[0]);
+    }
+
+    @Test
+    public void testSampledRowMatchesReadRow() {
+        Frame frame = randomFrame(13, 4, 3, 40);
+        PixelSource source = PixelSource.of(frame);
+        int[] row = new int[13];
+        int[] sampled = new int[4];
+        source.readRow(2, 0, 13, row);
+        source.readSampledRow(2, 1, 3, 4, sampled);
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(row[1 + 3 * i], sampled[i]);
+        }
+    }
+
+    @Test
+    public void testUnsupportedLayoutThrows() {
+        assertThrows(IllegalArgumentException.class, () -> PixelSource.of(new Frame(4, 4, Frame.DEPTH_UBYTE, 1)));
+        assertThrows(IllegalArgumentException.class, () -> PixelSource.of(new Frame(4, 4, Frame.DEPTH_FLOAT, 3)));
+        assertThrows(IllegalArgumentException.class, () -> PixelSource.of(new Frame()));
+    }
+
+    @Test
+    public void testResetReadsTheNewFrame() {
+        Frame wide = randomFrame(13, 4, 3, 40);
+        Frame narrow = randomFrame(5, 3, 4, 20);
+        FramePixelSource source = new FramePixelSource();
+        assertEquals(0, source.getWidth());
+
+        int[] row = new int[13];
+        int[] expected = new int[13];
+        assertSame(source, source.reset(wide));
+        source.readRow(3, 0, 13, row);
+        PixelSource.of(wide).readRow(3, 0, 13, expected);
+        assertArrayEquals(expected, row);
+
+        source.reset(narrow);
+        assertEquals(5, source.getWidth());
+        assertEquals(3, source.getHeight());
+        source.readRow(2, 0, 5, row);
+        PixelSource.of(narrow).readRow(2, 0, 5, expected);
+        assertArrayEquals(expected, row);
+
+        // a rejected frame leaves the source on the previous one
+        assertThrows(IllegalArgumentException.class, () -> source.reset(new Frame(4, 4, Frame.DEPTH_UBYTE, 1)));
+        assertEquals(5, source.getWidth());
+    }
+
+    static Frame randomFrame(int width, int height, int channels, int stride) {
+        Frame frame = new Frame(width, height, Frame.DEPTH_UBYTE, channels, stride);
+        ByteBuffer buffer = (ByteBuffer) frame.image[0];
+        Random random = new Random(7);
+        for (int i = 0; i < buffer.capacity(); i++) {
+            buffer.put(i, (byte) random.nextInt(256));
+        }
+        return frame;
+    }
+}
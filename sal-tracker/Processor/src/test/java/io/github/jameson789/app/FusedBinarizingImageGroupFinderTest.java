@@ -0,0 +1,133 @@
+package io.github.jameson789.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.Random;
+
+import org.bytedeco.javacv.Frame;
+import org.junit.jupiter.api.Test;
+
+public class FusedBinarizingImageGroupFinderTest {
+
+    @Test
+    public void testFindsGroupsInImage() {
+        BufferedImage image = new BufferedImage(5, 4, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, 0xFF0000);
+        image.setRGB(3, 1, 0xFF0000);
+        image.setRGB(3, 2, 0xFF0000);
+        image.setRGB(4, 2, 0xFF0000);
+
+        DistanceImageBinarizer binarizer = new DistanceImageBinarizer(new EuclideanColorDistance(), 0xFF0000, 10);
+        List<Group> groups = new FusedBinarizingImageGroupFinder(binarizer).findConnectedGroups(image);
+
+        assertEquals(List.of(
+                new Group(3, new Coordinate(3, 1)),
+                new Group(1, new Coordinate(0, 0))), groups);
+    }
+
+    @Test
+    public void testNoMatchingPixels() {
+        BufferedImage image = new BufferedImage(3, 3, BufferedImage.TYPE_INT_RGB);
+        DistanceImageBinarizer binarizer = new DistanceImageBinarizer(new EuclideanColorDistance(), 0xFF0000, 10);
+
+        assertTrue(new FusedBinarizingImageGroupFinder(binarizer).findConnectedGroups(image).isEmpty());
+    }
+
+    @Test
+    public void testMatchesTwoPassPipelineOnRandomImages() {
+        Random random = new Random(5);
+        DistanceImageBinarizer binarizer = new DistanceImageBinarizer(new EuclideanColorDistance(), 0x000000, 1);
+        FusedBinarizingImageGroupFinder fused = new FusedBinarizingImageGroupFinder(binarizer);
+        BinarizingImageGroupFinder twoPass = new BinarizingImageGroupFinder(binarizer, new UnionFindBinaryGroupFinder());
+
+        for (int trial = 0; trial < 50; trial++) {
+            int width = 1 + random.nextInt(160);
+            int height = 1 + random.nextInt(40);
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    image.setRGB(x, y, random.nextBoolean() ? 0x000000 : 0xFFFFFF);
+                }
+            }
+
+            assertEquals(twoPass.findConnectedGroups(image), fused.findConnectedGroups(image), "trial " + trial);
+        }
+    }
+
+    @Test
+    public void testFrameMatchesTwoPassPipeline() {
+        Frame frame = FramePixelSourceTest.randomFrame(90, 30, 3, 270);
+        DistanceImageBinarizer binarizer = new DistanceImageBinarizer(new EuclideanColorDistance(), 0x808080, 180);
+
+        assertEquals(
+                new BinarizingImageGroupFinder(binarizer, new UnionFindBinaryGroupFinder()).findConnectedGroups(frame),
+                new FusedBinarizingImageGroupFinder(binarizer).findConnectedGroups(frame));
+    }
+
+    @Test
+    public void testLargestGroupsMatchSortedGroupsOnRandomImages() {
+        Random random = new Random(8);
+        DistanceImageBinarizer binarizer = new DistanceImageBinarizer(new EuclideanColorDistance(), 0x000000, 1);
+        FusedBinarizingImageGroupFinder fused = new FusedBinarizingImageGroupFinder(binarizer);
+
+        for (int trial = 0; trial < 50; trial++) {
+            int width = 1 + random.nextInt(160);
+            int height = 1 + random.nextInt(40);
+            double density = random.nextDouble();
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    image.setRGB(x, y, random.nextDouble() < density ? 0x000000 : 0xFFFFFF);
+                }
+            }
+
+            List<Group> all = fused.findConnectedGroups(image);
+            assertEquals(all.isEmpty() ? null : all.get(0), fused.findLargestGroup(image), "trial " + trial);
+            assertEquals(all.subList(0, Math.min(3, all.size())), fused.findLargestGroups(image, 3), "trial " + trial);
+        }
+    }
+
+    @Test
+    public void testLargestGroupSkipsRowsThatCannotWin() {
+        // the stripe fills more than the rows below it, so those rows are never read
+        BufferedImage image = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < 6; y++) {
+            for (int x = 0; x < 10; x++) {
+                image.setRGB(x, y, 0xFF0000);
+            }
+        }
+        PixelSource source = PixelSource.of(image);
+        int[] rowsRead = new int[1];
+        PixelSource counting = new PixelSource() {
+            public int getWidth() {
+                return source.getWidth();
+            }
+
+            public int getHeight() {
+                return source.getHeight();
+            }
+
+            public void readRow(int y, int x, int length, int[] dest) {
+                rowsRead[0]++;
+                source.readRow(y, x, length, dest);
+            }
+        };
+
+        DistanceImageBinarizer binarizer = new DistanceImageBinarizer(new EuclideanColorDistance(), 0xFF0000, 10);
+        Group largest = new FusedBinarizingImageGroupFinder(binarizer).findLargestGroup(counting);
+
+        assertEquals(new Group(60, new Coordinate(4, 2)), largest);
+        assertTrue(rowsRead[0] < 10, "read " + rowsRead[0] + " rows");
+    }
+
+    @Test
+    public void testLargestGroupInFrameMatchesSortedGroups() {
+        Frame frame = FramePixelSourceTest.randomFrame(90, 30, 3, 270);
+        DistanceImageBinarizer binarizer = new DistanceImageBinarizer(new EuclideanColorDistance(), 0x808080, 180);
+        FusedBinarizingImageGroupFinder fused = new FusedBinarizingImageGroupFinder(binarizer);
+
+        assertEquals(fused.findConnectedGroups(frame).get(0), fused.findLargestGroup(frame));
+    }
+}
@@ -2,9 +2,18 @@ package io.github.jameson789.app;
 
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 import java.awt.Color;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.Java2DFrameConverter;
 
 public class ImageProcessorTest {
 
@@ -117,6 +126,41 @@ public class ImageProcessorTest {
         assertEquals(2, result.y()); // Center of the larger group
     }
 
+    @Test
+    public void testCustomGroupFinderMatchesDefault() {
+        BufferedImage image = new BufferedImage(64, 200, BufferedImage.TYPE_INT_RGB);
+        fillColor(image, Color.BLACK);
+        for (int y = 20; y < 180; y++) {
+            image.setRGB(30, y, 0xFF0000);
+            image.setRGB(31, y, 0xFF0000);
+        }
+        image.setRGB(5, 5, 0xFF0000);
+
+        DistanceImageBinarizer binarizer = new DistanceImageBinarizer(new EuclideanColorDistance(), 0xFF0000, 10);
+        ImageProcessor parallel = new ImageProcessor(binarizer,
+                new BinarizingImageGroupFinder(binarizer, new ParallelBinaryGroupFinder()));
+
+        assertEquals(new ImageProcessor(0xFF0000, 10).processImage(image), parallel.processImage(image));
+    }
+
+    @Test
+    public void testTrackingMatchesFullScanOnMovingBlob() {
+        ImageProcessor tracking = new ImageProcessor(0xFF0000, 10, true);
+        ImageProcessor fullScan = new ImageProcessor(0xFF0000, 10);
+
+        for (int step = 0; step < 10; step++) {
+            BufferedImage image = new BufferedImage(300, 200, BufferedImage.TYPE_INT_RGB);
+            fillColor(image, Color.BLACK);
+            for (int y = 50 + step; y < 60 + step; y++) {
+                for (int x = 40 + 5 * step; x < 52 + 5 * step; x++) {
+                    image.setRGB(x, y, 0xFF0000);
+                }
+            }
+
+            assertEquals(fullScan.processImage(image), tracking.processImage(image), "step " + step);
+        }
+    }
+
     @Test
     public void testCentroidForUniformImage() {
         BufferedImage image = new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB);
@@ -157,6 +201,154 @@ public class ImageProcessorTest {
         assertNotNull(processorHigh.processImage(image));
     }
 
+    @Test
+    public void testNullFrameReturnsNull() {
+        ImageProcessor processor = new ImageProcessor(0xFF0000, 50);
+        assertNull(processor.processFrame(null));
+    }
+
+    @Test
+    public void testFrameMatchesImage() {
+        BufferedImage image = new BufferedImage(6, 6, BufferedImage.TYPE_3BYTE_BGR);
+        fillColor(image, Color.BLACK);
+        image.setRGB(4, 1, 0xFF0000);
+        image.setRGB(4, 2, 0xFF0000);
+        image.setRGB(1, 4, 0xFF0000);
+
+        Frame frame = new Java2DFrameConverter().convert(image);
+        ImageProcessor processor = new ImageProcessor(0xFF0000, 10);
+
+        assertEquals(new CentroidResult(4, 1), processor.processFrame(frame));
+        assertEquals(processor.processImage(image), processor.processFrame(frame));
+    }
+
+    @Test
+    public void testSeveralTargetsInOneFrame() {
+        BufferedImage image = new BufferedImage(8, 6, BufferedImage.TYPE_3BYTE_BGR);
+        fillColor(image, Color.BLACK);
+        image.setRGB(4, 1, 0xFF0000);
+        image.setRGB(4, 2, 0xFF0000);
+        image.setRGB(1, 4, 0x00FF00);
+
+        Frame frame = new Java2DFrameConverter().convert(image);
+        ImageProcessor processor = new ImageProcessor(
+                List.of(new Target(0xFF0000, 10), new Target(0x00FF00, 10), new Target(0x0000FF, 10)));
+
+        assertEquals(3, processor.getTargetCount());
+        assertArrayEquals(new CentroidResult[] {new CentroidResult(4, 1), new CentroidResult(1, 4), null},
+                processor.processFrameTargets(frame));
+        assertEquals(new CentroidResult(4, 1), processor.processFrame(frame));
+        assertArrayEquals(new CentroidResult[] {new CentroidResult(4, 1)},
+                new ImageProcessor(0xFF0000, 10).processFrameTargets(frame));
+    }
+
+    @Test
+    public void testSweepSingleResultsUseThePositionalThreshold() {
+        // the red square is the largest group at 10, the dark red block at 200
+        BufferedImage image = new BufferedImage(40, 20, BufferedImage.TYPE_3BYTE_BGR);
+        fillColor(image, Color.BLACK);
+        for (int y = 2; y < 5; y++) {
+            for (int x = 2; x < 5; x++) {
+                image.setRGB(x, y, 0xFF0000);
+            }
+        }
+        for (int y = 5; y < 15; y++) {
+            for (int x = 20; x < 30; x++) {
+                image.setRGB(x, y, 0x900000);
+            }
+        }
+        Frame frame = new Java2DFrameConverter().convert(image);
+        ImageProcessor processor = new ImageProcessor(0xFF0000, 200, new int[] {10, 200});
+
+        assertArrayEquals(new CentroidResult[] {new CentroidResult(3, 3), new CentroidResult(24, 9)},
+                processor.processFrameTargets(frame));
+        assertEquals(new CentroidResult(24, 9), processor.processFrame(frame));
+        assertEquals(new CentroidResult(24, 9), processor.processImage(image));
+        assertEquals(new CentroidResult(3, 3), new ImageProcessor(0xFF0000, 10, new int[] {10, 200}).processFrame(frame));
+        assertThrows(IllegalArgumentException.class, () -> new ImageProcessor(0xFF0000, 100, new int[] {10, 200}));
+    }
+
+    @Test
+    public void testFrameWithoutGroupIsReportedOnceForAllThresholds() {
+        BufferedImage image = new BufferedImage(16, 8, BufferedImage.TYPE_3BYTE_BGR);
+        fillColor(image, Color.BLACK);
+        Frame frame = new Java2DFrameConverter().convert(image);
+        ImageProcessor processor = new ImageProcessor(0xFF0000, 10, new int[] {10, 20, 30, 40, 50});
+
+        PrintStream out = System.out;
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(printed, true, StandardCharsets.UTF_8));
+        try {
+            assertArrayEquals(new CentroidResult[5], processor.processFrameTargets(frame));
+        } finally {
+            System.setOut(out);
+        }
+
+        assertEquals(1, printed.toString(StandardCharsets.UTF_8).lines().count());
+    }
+
+    @Test
+    public void testBinarizedPreviewOfFrame() {
+        BufferedImage image = new BufferedImage(64, 48, BufferedImage.TYPE_3BYTE_BGR);
+        fillColor(image, Color.BLACK);
+        for (int y = 16; y < 32; y++) {
+            for (int x = 32; x < 48; x++) {
+                image.setRGB(x, y, 0xFF0000);
+            }
+        }
+        Frame frame = new Java2DFrameConverter().convert(image);
+
+        BufferedImage preview = new ImageProcessor(0xFF0000, 10).getBinarizedPreview(frame, 16, 16);
+
+        assertEquals(BufferedImage.TYPE_BYTE_BINARY, preview.getType());
+        assertEquals(16, preview.getWidth());
+        assertEquals(12, preview.getHeight());
+        assertEquals(Color.WHITE.getRGB(), preview.getRGB(9, 5));
+        assertEquals(Color.BLACK.getRGB(), preview.getRGB(4, 5));
+    }
+
+    @Test
+    public void testSteadyStateFramesAllocateAlmostNothing() {
+        BufferedImage image = new BufferedImage(1920, 1080, BufferedImage.TYPE_3BYTE_BGR);
+        for (int y = 500; y < 580; y++) {
+            for (int x = 900; x < 980; x++) {
+                image.setRGB(x, y, 0xFF0000);
+            }
+        }
+        Frame frame = new Java2DFrameConverter().convert(image);
+
+        assertFramesAllocateAtMost(new ImageProcessor(0xFF0000, 10), frame, 1024);
+        DistanceImageBinarizer binarizer = new DistanceImageBinarizer(new EuclideanColorDistance(), 0xFF0000, 10);
+        assertFramesAllocateAtMost(new ImageProcessor(binarizer, new IncrementalGroupFinder(binarizer)), frame, 1024);
+        assertFramesAllocateAtMost(new ImageProcessor(0xFF0000, 10, true), frame, 1024);
+        assertFramesAllocateAtMost(
+                new ImageProcessor(List.of(new Target(0xFF0000, 10), new Target(0x00FF00, 10))), frame, 1024);
+    }
+
+    /**
+     * Processes the frame until the buffers and the JIT have settled, then asserts the mean
+     * number of bytes the current thread allocates per frame.
+     */
+    private void assertFramesAllocateAtMost(ImageProcessor processor, Frame frame, long bytesPerFrame) {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        long threadId = Thread.currentThread().getId();
+
+        for (int i = 0; i < 200; i++) {
+            assertNotNull(processor.processFrameTargets(frame)[0]);
+        }
+        int frames = 100;
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < frames; i++) {
+            processor.processFrameTargets(frame);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(allocated / frames <= bytesPerFrame,
+                "Expected at most " + bytesPerFrame + " bytes per frame: " + allocated / frames);
+    }
+
     private void fillColor(BufferedImage image, Color color) {
         for (int y = 0; y < image.getHeight(); y++) {
             for (int x = 0; x < image.getWidth(); x++) {
@@ -6,12 +6,20 @@ import static org.junit.jupiter.api.Assertions.*;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
 
 public class ImageSummaryAppTest {
 
+    @TempDir
+    Path tempDir;
+
     private final ByteArrayOutputStream errContent = new ByteArrayOutputStream();
 
     @BeforeEach
@@ -67,4 +75,62 @@ public class ImageSummaryAppTest {
             ImageSummaryApp.main(new String[] { "video.mp4", "#FF0000", "180", "dummyTask" });
         });
     }
+
+    @Test
+    void testServerRejectsZeroJobs() {
+        ImageSummaryApp.main(new String[] { "--server", "--jobs=0" });
+
+        String err = errContent.toString();
+        assertTrue(err.contains("Expected a positive number: --jobs=0"), err);
+        assertFalse(err.contains("Worker server stopped."), err);
+    }
+
+    @Test
+    void testSeveralTargetsAddTargetColumn() throws Exception {
+        File video = tempDir.resolve("square.mp4").toFile();
+        TestVideos.writeMovingSquare(video, 160, 96, 25, 5, 25);
+
+        List<String> single = Files.readAllLines(ImageSummaryApp.run(
+                new String[] { video.getPath(), "FF0000", "120", "single" }, tempDir.toFile()).toPath());
+        assertEquals(5, single.size());
+
+        // a second target on the same square and a third that matches nothing
+        List<String> expected = new ArrayList<>();
+        for (String row : single) {
+            expected.add(row + ",0");
+            expected.add(row + ",1");
+        }
+        String[][] modes = { {}, { "--workers=2" }, { "--threads=2" } };
+        for (int i = 0; i < modes.length; i++) {
+            List<String> args = new ArrayList<>(List.of(video.getPath(), "FF0000", "120", "targets" + i,
+                    "--target=FF0000:60", "--target=0000FF:20"));
+            args.addAll(List.of(modes[i]));
+            File csv = ImageSummaryApp.run(args.toArray(new String[0]), tempDir.toFile());
+            assertEquals(expected, Files.readAllLines(csv.toPath()), String.join(" ", modes[i]));
+        }
+    }
+
+    @Test
+    void testSweepWritesThresholdColumnAndReport() throws Exception {
+        File video = tempDir.resolve("sweep.mp4").toFile();
+        TestVideos.writeMovingSquare(video, 160, 96, 25, 4, 25);
+
+        List<String> single = Files.readAllLines(ImageSummaryApp.run(
+                new String[] { video.getPath(), "FF0000", "120", "single" }, tempDir.toFile()).toPath());
+        File csv = ImageSummaryApp.run(
+                new String[] { video.getPath(), "FF0000", "120", "tuning", "--sweep=60,180", "--threads=2" },
+                tempDir.toFile());
+
+        // the square is the only match at every threshold, so all of them agree
+        List<String> expected = new ArrayList<>();
+        for (String row : single) {
+            for (int index = 0; index < 3; index++) {
+                expected.add(row + "," + index);
+            }
+        }
+        assertEquals(expected, Files.readAllLines(csv.toPath()));
+        List<String> report = Files.readAllLines(tempDir.resolve("sweep_tuning_sweep.txt"));
+        assertEquals("      120       4       4    0.00", report.get(3));
+        assertEquals("Suggested threshold: 120", report.get(5));
+    }
 }
@@ -0,0 +1,109 @@
+package io.github.jameson789.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class IncrementalGroupFinderTest {
+
+    private static final int TARGET = 0xFF0000;
+
+    @Test
+    public void testMatchesFullRecomputationOnChangingFrames() {
+        Random random = new Random(29);
+        IncrementalGroupFinder incremental = new IncrementalGroupFinder(binarizer());
+        FusedBinarizingImageGroupFinder full = new FusedBinarizingImageGroupFinder(binarizer());
+
+        // a frame spanning several tiles with partial tiles at the right and bottom edges
+        BufferedImage image = new BufferedImage(200, 150, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, random.nextInt(3) == 0 ? TARGET : 0x000000);
+            }
+        }
+
+        for (int frame = 0; frame < 40; frame++) {
+            // change a few rectangles, some of them across tile borders, and some frames not at all
+            int changes = random.nextInt(4);
+            for (int change = 0; change < changes; change++) {
+                int x0 = random.nextInt(image.getWidth());
+                int y0 = random.nextInt(image.getHeight());
+                int x1 = Math.min(image.getWidth(), x0 + 1 + random.nextInt(80));
+                int y1 = Math.min(image.getHeight(), y0 + 1 + random.nextInt(80));
+                int color = random.nextBoolean() ? TARGET : 0x000000;
+                boolean solid = random.nextBoolean();
+                for (int y = y0; y < y1; y++) {
+                    for (int x = x0; x < x1; x++) {
+                        if (solid || random.nextInt(3) == 0) {
+                            image.setRGB(x, y, color);
+                        }
+                    }
+                }
+            }
+
+            assertEquals(full.findConnectedGroups(image), incremental.findConnectedGroups(image), "frame " + frame);
+            assertEquals(full.findLargestGroup(image), incremental.findLargestGroup(image), "frame " + frame);
+        }
+    }
+
+    @Test
+    public void testJoinsGroupsAcrossTiles() {
+        // a ring around the corner where four tiles meet
+        BufferedImage image = new BufferedImage(130, 130, BufferedImage.TYPE_INT_RGB);
+        for (int i = 40; i < 90; i++) {
+            image.setRGB(i, 40, TARGET);
+            image.setRGB(i, 89, TARGET);
+            image.setRGB(40, i, TARGET);
+            image.setRGB(89, i, TARGET);
+        }
+
+        Group group = new IncrementalGroupFinder(binarizer()).findLargestGroup(image);
+
+        assertEquals(new FusedBinarizingImageGroupFinder(binarizer()).findLargestGroup(image), group);
+        assertEquals(196, group.size());
+    }
+
+    @Test
+    public void testOnlyClassifiesChangedTileRows() {
+        BufferedImage image = new BufferedImage(256, 128, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(10, 10, TARGET);
+        IncrementalGroupFinder finder = new IncrementalGroupFinder(binarizer());
+
+        finder.findLargestGroup(image);
+        assertEquals(256 * 128, finder.getClassifiedPixels());
+        assertEquals(8, finder.getLabeledTiles());
+
+        assertEquals(new Group(1, new Coordinate(10, 10)), finder.findLargestGroup(image));
+        assertEquals(256 * 128, finder.getClassifiedPixels());
+        assertEquals(8, finder.getLabeledTiles());
+
+        // one changed pixel reclassifies its row of its tile and relabels the tile
+        image.setRGB(200, 100, TARGET);
+        image.setRGB(201, 100, TARGET);
+        assertEquals(new Group(2, new Coordinate(200, 100)), finder.findLargestGroup(image));
+        assertEquals(256 * 128 + 64, finder.getClassifiedPixels());
+        assertEquals(9, finder.getLabeledTiles());
+    }
+
+    @Test
+    public void testProcessesFramesOfAnotherSizeInFull() {
+        IncrementalGroupFinder finder = new IncrementalGroupFinder(binarizer());
+        BufferedImage small = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB);
+        small.setRGB(3, 4, TARGET);
+        BufferedImage large = new BufferedImage(100, 70, BufferedImage.TYPE_INT_RGB);
+        large.setRGB(80, 60, TARGET);
+        large.setRGB(80, 61, TARGET);
+
+        assertEquals(new Group(1, new Coordinate(3, 4)), finder.findLargestGroup(small));
+        assertEquals(new Group(2, new Coordinate(80, 60)), finder.findLargestGroup(large));
+        assertEquals(new Group(1, new Coordinate(3, 4)), finder.findLargestGroup(small));
+        assertNull(finder.findLargestGroup(new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB)));
+    }
+
+    private static DistanceImageBinarizer binarizer() {
+        return new DistanceImageBinarizer(new EuclideanColorDistance(), TARGET, 50);
+    }
+}
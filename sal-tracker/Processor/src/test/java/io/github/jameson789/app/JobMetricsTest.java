@@ -0,0 +1,97 @@
+package io.github.jameson789.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class JobMetricsTest {
+
+    @TempDir
+    static Path tempDir;
+
+    static File video;
+
+    @BeforeAll
+    static void writeVideo() throws Exception {
+        video = tempDir.resolve("metrics.mp4").toFile();
+        TestVideos.writeMovingSquare(video, 160, 96, 25, 4, 25);
+    }
+
+    @Test
+    public void testCountsDecodedAndSkippedFrames() throws Exception {
+        JobMetrics metrics = new JobMetrics();
+        List<Integer> seconds = new ArrayList<>();
+        try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(video)) {
+            grabber.start();
+            new StreamingFrameSampler().sample(grabber, 0, 4,
+                    metrics.timeDecoding((second, frame) -> seconds.add(second)));
+            grabber.stop();
+        }
+
+        assertEquals(List.of(0, 1, 2, 3), seconds);
+        assertEquals(4, metrics.getHistogram(JobMetrics.Stage.DECODE).getCount());
+        // the frame after the last sample is never decoded
+        assertTrue(metrics.getFramesDecoded() >= 76 && metrics.getFramesDecoded() <= 100,
+                "decoded " + metrics.getFramesDecoded());
+        assertEquals(metrics.getFramesDecoded() - 4, metrics.getFramesSkipped());
+        assertEquals(4.0, metrics.getVideoSeconds());
+    }
+
+    @Test
+    public void testAnalyzeCountsGroupsAndPixels() throws Exception {
+        JobMetrics metrics = new JobMetrics();
+        ImageProcessor processor = new ImageProcessor(TestVideos.SQUARE_COLOR, 120);
+        try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(video)) {
+            grabber.start();
+            new StreamingFrameSampler().sample(grabber, 0, 4, metrics.timeDecoding((second, frame) -> {
+                assertNotNull(metrics.analyze(processor, frame)[0]);
+            }));
+            grabber.stop();
+        }
+
+        assertEquals(4, metrics.getFramesAnalyzed());
+        assertEquals(0, metrics.getFramesWithoutGroup());
+        assertEquals(4L * 160 * 96, metrics.getPixelsClassified());
+        assertEquals(4, metrics.getHistogram(JobMetrics.Stage.ANALYZE).getCount());
+    }
+
+    @Test
+    public void testTrackingClassifiesFewerPixels() throws Exception {
+        JobMetrics metrics = new JobMetrics();
+        ImageProcessor processor = new ImageProcessor(TestVideos.SQUARE_COLOR, 120, true);
+        try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(video)) {
+            grabber.start();
+            new StreamingFrameSampler().sample(grabber, 0, 4,
+                    metrics.timeDecoding((second, frame) -> metrics.analyze(processor, frame)));
+            grabber.stop();
+        }
+
+        assertEquals(4, metrics.getFramesAnalyzed());
+        assertTrue(metrics.getPixelsClassified() > 0);
+        assertTrue(metrics.getPixelsClassified() < 4L * 160 * 96);
+    }
+
+    @Test
+    public void testJsonSummary() {
+        JobMetrics metrics = new JobMetrics();
+        metrics.record(JobMetrics.Stage.WRITE, 2_000_000);
+        String json = metrics.toJson();
+
+        assertTrue(json.startsWith("{\"elapsedSeconds\":"), json);
+        assertTrue(json.contains("\"framesAnalyzed\":0"), json);
+        assertTrue(json.contains("\"videoSeconds\":0.000,"), json);
+        assertTrue(json.contains("\"realTimeFactor\":"), json);
+        assertTrue(json.contains("\"decode\":{\"count\":0,"), json);
+        assertTrue(json.contains("\"write\":{\"count\":1,\"totalMillis\":2.000,"), json);
+        assertTrue(json.endsWith("}}"), json);
+        assertFalse(json.contains("\n"));
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.jameson789.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class LargestGroupsTest {
+
+    @Test
+    public void testKeepsLargestInDescendingOrder() {
+        LargestGroups largest = new LargestGroups(2);
+        largest.accept(3, 3, 6);
+        largest.accept(5, 20, 5);
+        largest.accept(1, 9, 9);
+        largest.accept(4, 4, 0);
+
+        assertEquals(List.of(
+                new Group(5, new Coordinate(4, 1)),
+                new Group(4, new Coordinate(1, 0))), largest.toList());
+        assertEquals(new Group(5, new Coordinate(4, 1)), largest.getLargest());
+        assertEquals(4, largest.getMinimumSize());
+    }
+
+    @Test
+    public void testTiesAreBrokenLikeGroupOrder() {
+        LargestGroups largest = new LargestGroups(1);
+        largest.offer(new Group(2, new Coordinate(1, 5)));
+        largest.offer(new Group(2, new Coordinate(3, 0)));
+        largest.offer(new Group(2, new Coordinate(3, 1)));
+        largest.offer(new Group(2, new Coordinate(0, 9)));
+
+        assertEquals(new Group(2, new Coordinate(3, 1)), largest.getLargest());
+    }
+
+    @Test
+    public void testMatchesSortingOnRandomGroups() {
+        Random random = new Random(3);
+        for (int trial = 0; trial < 100; trial++) {
+            int k = 1 + random.nextInt(6);
+            LargestGroups largest = new LargestGroups(k);
+            List<Group> groups = new ArrayList<>();
+            for (int i = random.nextInt(20); i > 0; i--) {
+                Group group = new Group(1 + random.nextInt(5), new Coordinate(random.nextInt(3), random.nextInt(3)));
+                groups.add(group);
+                largest.offer(group);
+            }
+
+            groups.sort(Collections.reverseOrder());
+            assertEquals(groups.subList(0, Math.min(k, groups.size())), largest.toList(), "trial " + trial);
+        }
+    }
+
+    @Test
+    public void testMinimumSizeIsZeroUntilFull() {
+        LargestGroups largest = new LargestGroups(2);
+        largest.accept(7, 0, 0);
+
+        assertEquals(0, largest.getMinimumSize());
+    }
+
+    @Test
+    public void testEmptyAndClear() {
+        LargestGroups largest = new LargestGroups(1);
+        assertNull(largest.getLargest());
+
+        largest.accept(1, 0, 0);
+        largest.clear();
+
+        assertNull(largest.getLargest());
+        assertTrue(largest.toList().isEmpty());
+    }
+
+    @Test
+    public void testNonPositiveKThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new LargestGroups(0));
+    }
+}
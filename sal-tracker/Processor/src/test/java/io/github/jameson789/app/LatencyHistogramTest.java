@@ -0,0 +1,76 @@
+package io.github.jameson789.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testEmptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMaxNanos());
+        assertEquals(0, histogram.getPercentileNanos(50));
+    }
+
+    @Test
+    public void testCountTotalAndMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(10);
+        histogram.record(1_000);
+        histogram.record(-5);
+
+        assertEquals(3, histogram.getCount());
+        assertEquals(1_010, histogram.getTotalNanos());
+        assertEquals(1_000, histogram.getMaxNanos());
+    }
+
+    @Test
+    public void testPercentilesWithinBucketResolution() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 1_000_000; nanos++) {
+            histogram.record(nanos * 1_000);
+        }
+
+        for (double percentile : new double[] {1, 50, 90, 99, 99.9}) {
+            double exact = percentile / 100 * 1_000_000_000L;
+            long reported = histogram.getPercentileNanos(percentile);
+            assertTrue(reported >= exact, percentile + ": " + reported);
+            assertTrue(reported <= exact * 1.25, percentile + ": " + reported);
+        }
+        assertEquals(1_000_000_000L, histogram.getPercentileNanos(100));
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(0);
+        histogram.record(3);
+        histogram.record(3);
+
+        assertEquals(0, histogram.getPercentileNanos(30));
+        assertEquals(3, histogram.getPercentileNanos(50));
+    }
+
+    @Test
+    public void testConcurrentRecording() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int n = 0; n < 10_000; n++) {
+                    histogram.record(n);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(40_000, histogram.getCount());
+        assertEquals(9_999, histogram.getMaxNanos());
+    }
+}
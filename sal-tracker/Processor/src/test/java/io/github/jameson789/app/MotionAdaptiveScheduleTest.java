@@ -0,0 +1,62 @@
+package io.github.jameson789.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class MotionAdaptiveScheduleTest {
+
+    private static final long FRAME = 40_000;
+    private static final long MAX = 8_000_000;
+
+    @Test
+    public void testStartsAtOneSecond() {
+        MotionAdaptiveSchedule schedule = new MotionAdaptiveSchedule(FRAME, MAX, 4);
+        assertEquals(1_000_000, schedule.next(new CentroidResult(10, 10)));
+    }
+
+    @Test
+    public void testWidensWhileIdleUpToMaximum() {
+        MotionAdaptiveSchedule schedule = new MotionAdaptiveSchedule(FRAME, MAX, 4);
+        schedule.next(new CentroidResult(10, 10));
+
+        assertEquals(2_000_000, schedule.next(new CentroidResult(12, 11)));
+        assertEquals(4_000_000, schedule.next(new CentroidResult(10, 10)));
+        assertEquals(8_000_000, schedule.next(new CentroidResult(10, 10)));
+        assertEquals(8_000_000, schedule.next(new CentroidResult(10, 10)));
+    }
+
+    @Test
+    public void testWidensWhileNothingIsFound() {
+        MotionAdaptiveSchedule schedule = new MotionAdaptiveSchedule(FRAME, MAX, 4);
+        schedule.next(null);
+        assertEquals(2_000_000, schedule.next(null));
+    }
+
+    @Test
+    public void testNarrowsInProportionToMovement() {
+        MotionAdaptiveSchedule schedule = new MotionAdaptiveSchedule(FRAME, MAX, 4);
+        schedule.next(new CentroidResult(0, 0));
+
+        // 40 pixels in one second: aim for 4 pixels, a tenth of a second
+        assertEquals(100_000, schedule.next(new CentroidResult(40, 0)));
+        // 400 pixels in a tenth of a second: limited to one frame
+        assertEquals(FRAME, schedule.next(new CentroidResult(40, 400)));
+    }
+
+    @Test
+    public void testNarrowsFullyWhenGroupAppearsOrDisappears() {
+        MotionAdaptiveSchedule schedule = new MotionAdaptiveSchedule(FRAME, MAX, 4);
+        schedule.next(null);
+        assertEquals(FRAME, schedule.next(new CentroidResult(5, 5)));
+        schedule.next(new CentroidResult(5, 5));
+        assertEquals(FRAME, schedule.next(null));
+    }
+
+    @Test
+    public void testInvalidArgumentsThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new MotionAdaptiveSchedule(0, MAX, 4));
+        assertThrows(IllegalArgumentException.class, () -> new MotionAdaptiveSchedule(FRAME, FRAME - 1, 4));
+        assertThrows(IllegalArgumentException.class, () -> new MotionAdaptiveSchedule(FRAME, MAX, -1));
+    }
+}
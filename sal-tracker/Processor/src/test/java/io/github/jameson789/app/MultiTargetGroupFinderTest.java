@@ -0,0 +1,74 @@
+package io.github.jameson789.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class MultiTargetGroupFinderTest {
+
+    private static final int[] COLORS = {0xFF0000, 0x00FF00, 0x0000FF, 0x202020};
+
+    @Test
+    public void testFindsLargestGroupOfEveryTarget() {
+        BufferedImage image = new BufferedImage(6, 3, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, 0xFF0000);
+        image.setRGB(1, 0, 0xFF0000);
+        image.setRGB(4, 2, 0x00FF00);
+
+        Group[] groups = finder(0xFF0000, 0x00FF00, 0x0000FF).findLargestGroups(image);
+
+        assertEquals(new Group(2, new Coordinate(0, 0)), groups[0]);
+        assertEquals(new Group(1, new Coordinate(4, 2)), groups[1]);
+        assertNull(groups[2]);
+    }
+
+    @Test
+    public void testMatchesOneFinderPerTargetOnRandomImages() {
+        Random random = new Random(11);
+        MultiTargetGroupFinder multi = finder(COLORS);
+        List<FusedBinarizingImageGroupFinder> single = new ArrayList<>();
+        for (int color : COLORS) {
+            single.add(new FusedBinarizingImageGroupFinder(binarizer(color)));
+        }
+
+        for (int trial = 0; trial < 50; trial++) {
+            int width = 1 + random.nextInt(200);
+            int height = 1 + random.nextInt(60);
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    // mostly background, with one color dominating, so targets finish early at different rows
+                    int pick = random.nextInt(10);
+                    image.setRGB(x, y, pick < COLORS.length ? COLORS[pick] : pick < 8 ? COLORS[0] : 0xFFFFFF);
+                }
+            }
+
+            Group[] groups = multi.findLargestGroups(image);
+            for (int t = 0; t < COLORS.length; t++) {
+                assertEquals(single.get(t).findLargestGroup(image), groups[t], "trial " + trial + " target " + t);
+            }
+        }
+    }
+
+    @Test
+    public void testRequiresTargets() {
+        assertThrows(IllegalArgumentException.class, () -> new MultiTargetGroupFinder(List.of()));
+    }
+
+    private static MultiTargetGroupFinder finder(int... colors) {
+        List<DistanceImageBinarizer> binarizers = new ArrayList<>();
+        for (int color : colors) {
+            binarizers.add(binarizer(color));
+        }
+        return new MultiTargetGroupFinder(binarizers);
+    }
+
+    private static DistanceImageBinarizer binarizer(int color) {
+        return new DistanceImageBinarizer(new EuclideanColorDistance(), color, 30);
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.jameson789.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+public class ParallelBinaryGroupFinderTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @AfterAll
+    static void shutDownPool() {
+        POOL.shutdown();
+    }
+
+    @Test
+    public void testGroupSpanningEveryStripe() {
+        // a snake that crosses all stripe borders several times
+        BinaryImage image = new BinaryImage(70, 200);
+        for (int y = 0; y < 200; y++) {
+            image.set(y % 20 < 10 ? 3 : 66, y, true);
+            if (y % 10 == 9) {
+                for (int x = 3; x <= 66; x++) {
+                    image.set(x, y, true);
+                }
+            }
+        }
+
+        assertEquals(new UnionFindBinaryGroupFinder().findConnectedGroups(image),
+                new ParallelBinaryGroupFinder(POOL, 6).findConnectedGroups(image));
+    }
+
+    @Test
+    public void testUShapeJoinedInLaterStripe() {
+        // two columns in the first stripe are only joined by a row in the last one
+        BinaryImage image = new BinaryImage(10, 96);
+        for (int y = 0; y < 96; y++) {
+            image.set(1, y, true);
+            image.set(8, y, true);
+        }
+        for (int x = 1; x <= 8; x++) {
+            image.set(x, 95, true);
+        }
+
+        List<Group> groups = new ParallelBinaryGroupFinder(POOL, 3).findConnectedGroups(image);
+
+        assertEquals(new UnionFindBinaryGroupFinder().findConnectedGroups(image), groups);
+        assertEquals(1, groups.size());
+    }
+
+    @Test
+    public void testMatchesSequentialOnRandomImages() {
+        Random random = new Random(77);
+        ParallelBinaryGroupFinder parallel = new ParallelBinaryGroupFinder(POOL, 5);
+        UnionFindBinaryGroupFinder sequential = new UnionFindBinaryGroupFinder();
+
+        for (int trial = 0; trial < 60; trial++) {
+            int width = 1 + random.nextInt(200);
+            int height = 1 + random.nextInt(300);
+            double density = random.nextDouble();
+            BinaryImage image = new BinaryImage(width, height);
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    image.set(x, y, random.nextDouble() < density);
+                }
+            }
+
+            List<Group> expected = sequential.findConnectedGroups(image);
+            assertEquals(expected, parallel.findConnectedGroups(image), "trial " + trial);
+            assertEquals(expected.isEmpty() ? null : expected.get(0), parallel.findLargestGroup(image), "trial " + trial);
+            assertEquals(expected.subList(0, Math.min(3, expected.size())), parallel.findLargestGroups(image, 3),
+                    "trial " + trial);
+        }
+    }
+
+    @Test
+    public void testLargeBlobAcrossStripes() {
+        BinaryImage image = new BinaryImage(3840, 2160);
+        for (int y = 100; y < 2100; y++) {
+            for (int x = 200; x < 3700; x++) {
+                image.set(x, y, true);
+            }
+        }
+
+        List<Group> groups = new ParallelBinaryGroupFinder(POOL, 16).findConnectedGroups(image);
+
+        assertEquals(List.of(new Group(3500 * 2000, new Coordinate(1949, 1099))), groups);
+    }
+
+    @Test
+    public void testArrayInput() {
+        int[][] image = {
+                {1, 0, 1},
+                {0, 0, 0},
+                {1, 1, 0}
+        };
+
+        assertEquals(List.of(
+                new Group(2, new Coordinate(0, 2)),
+                new Group(1, new Coordinate(2, 0)),
+                new Group(1, new Coordinate(0, 0))), new ParallelBinaryGroupFinder().findConnectedGroups(image));
+    }
+
+    @Test
+    public void testInvalidInputThrowsException() {
+        ParallelBinaryGroupFinder finder = new ParallelBinaryGroupFinder();
+        assertThrows(IllegalArgumentException.class, () -> finder.findConnectedGroups((int[][]) null));
+        assertThrows(IllegalArgumentException.class, () -> finder.findConnectedGroups(new int[0][0]));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelBinaryGroupFinder(POOL, 0));
+    }
+}
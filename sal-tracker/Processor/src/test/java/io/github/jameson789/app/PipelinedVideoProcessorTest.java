@@ -0,0 +1,99 @@
+package io.github.jameson789.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Path;
+
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.Frame;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class PipelinedVideoProcessorTest {
+
+    @TempDir
+    static Path tempDir;
+
+    static File video;
+
+    @BeforeAll
+    static void writeVideo() throws Exception {
+        video = tempDir.resolve("pipeline.mp4").toFile();
+        TestVideos.writeMovingSquare(video, 160, 96, 25, 10, 50);
+    }
+
+    @Test
+    public void testMatchesSingleThread() throws Exception {
+        String expected = singleThreaded();
+
+        assertEquals(10, expected.lines().count());
+        assertEquals(expected, pipelined(new StreamingFrameSampler(), 1));
+        assertEquals(expected, pipelined(new StreamingFrameSampler(), 3));
+    }
+
+    @Test
+    public void testSeekingSamplerMatchesSingleThread() throws Exception {
+        assertEquals(singleThreaded(), pipelined(new SeekingFrameSampler(), 2));
+    }
+
+    @Test
+    public void testDecoderFailureIsReported() {
+        FrameSampler failing = (grabber, start, end, handler) -> {
+            throw new IllegalStateException("decoder failed");
+        };
+
+        Exception e = assertThrows(IllegalStateException.class, () -> pipelined(failing, 2));
+        assertEquals("decoder failed", e.getMessage());
+    }
+
+    @Test
+    public void testWorkerFailureIsReported() {
+        // a frame layout FramePixelSource does not support makes the workers fail
+        FrameSampler grayscale = (grabber, start, end, handler) -> {
+            for (int second = start; second < end; second++) {
+                handler.handle(second, new Frame(8, 8, Frame.DEPTH_UBYTE, 1));
+            }
+        };
+
+        assertThrows(IllegalArgumentException.class, () -> pipelined(grayscale, 2));
+    }
+
+    @Test
+    public void testInvalidWorkerCountThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new PipelinedVideoProcessor(() -> new ImageProcessor(0, 0), new StreamingFrameSampler(), 0));
+    }
+
+    private String pipelined(FrameSampler sampler, int workers) throws Exception {
+        StringWriter csv = new StringWriter();
+        try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(video);
+                PrintWriter writer = new PrintWriter(csv)) {
+            grabber.start();
+            new PipelinedVideoProcessor(() -> new ImageProcessor(TestVideos.SQUARE_COLOR, 120), sampler, workers)
+                    .process(grabber, 10, writer);
+            grabber.stop();
+        }
+        return csv.toString();
+    }
+
+    private String singleThreaded() throws Exception {
+        StringWriter csv = new StringWriter();
+        try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(video);
+                PrintWriter writer = new PrintWriter(csv)) {
+            grabber.start();
+            ImageProcessor processor = new ImageProcessor(TestVideos.SQUARE_COLOR, 120);
+            new StreamingFrameSampler().sample(grabber, 0, 10, (second, frame) -> {
+                CentroidResult result = processor.processFrame(frame);
+                if (result != null) {
+                    writer.printf("%d,%d,%d%n", second, result.x(), result.y());
+                }
+            });
+            grabber.stop();
+        }
+        return csv.toString();
+    }
+}
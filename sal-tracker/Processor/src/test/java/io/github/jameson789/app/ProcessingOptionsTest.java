@@ -0,0 +1,138 @@
+package io.github.jameson789.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class ProcessingOptionsTest {
+
+    private static final String[] POSITIONAL = {"video.mp4", "FF0000", "120", "task"};
+
+    @Test
+    public void testDefaults() {
+        ProcessingOptions options = ProcessingOptions.parse(POSITIONAL, 4);
+
+        assertInstanceOf(StreamingFrameSampler.class, options.getSampler());
+        assertEquals(1, options.getThreads());
+        assertEquals(0, options.getWorkers());
+        assertFalse(options.isTracking());
+    }
+
+    @Test
+    public void testTrack() {
+        assertTrue(ProcessingOptions.parse(with("--track"), 4).isTracking());
+    }
+
+    @Test
+    public void testDecodeAndThreads() {
+        ProcessingOptions options = ProcessingOptions.parse(with("--decode=seek", "--threads=8"), 4);
+
+        assertInstanceOf(SeekingFrameSampler.class, options.getSampler());
+        assertEquals(8, options.getThreads());
+    }
+
+    @Test
+    public void testWorkers() {
+        assertEquals(3, ProcessingOptions.parse(with("--workers=3"), 4).getWorkers());
+    }
+
+    @Test
+    public void testPyramid() {
+        ProcessingOptions options = ProcessingOptions.parse(with("--pyramid=8", "--tolerance=0"), 4);
+
+        assertEquals(8, options.getPyramidScale());
+        assertEquals(0, options.getTolerance());
+        assertEquals(ProcessingOptions.DEFAULT_TOLERANCE, ProcessingOptions.parse(POSITIONAL, 4).getTolerance());
+        assertThrows(IllegalArgumentException.class, () -> ProcessingOptions.parse(with("--pyramid=1"), 4));
+        assertThrows(IllegalArgumentException.class, () -> ProcessingOptions.parse(with("--tolerance=-1"), 4));
+        assertThrows(IllegalArgumentException.class,
+                () -> ProcessingOptions.parse(with("--pyramid=4", "--track"), 4));
+    }
+
+    @Test
+    public void testMetricsInterval() {
+        assertEquals(0, ProcessingOptions.parse(POSITIONAL, 4).getMetricsInterval());
+        assertEquals(5, ProcessingOptions.parse(with("--metrics-interval=5"), 4).getMetricsInterval());
+        assertThrows(IllegalArgumentException.class,
+                () -> ProcessingOptions.parse(with("--metrics-interval=0"), 4));
+    }
+
+    @Test
+    public void testAdaptive() {
+        ProcessingOptions options = ProcessingOptions.parse(with("--adaptive=8", "--motion-tolerance=2"), 4);
+
+        assertEquals(8, options.getAdaptiveMaxInterval());
+        assertEquals(2, options.getMotionTolerance());
+        assertEquals(0, ProcessingOptions.parse(POSITIONAL, 4).getAdaptiveMaxInterval());
+        assertThrows(IllegalArgumentException.class, () -> ProcessingOptions.parse(with("--adaptive=0"), 4));
+        assertThrows(IllegalArgumentException.class,
+                () -> ProcessingOptions.parse(with("--adaptive=8", "--workers=2"), 4));
+        assertThrows(IllegalArgumentException.class,
+                () -> ProcessingOptions.parse(with("--adaptive=8", "--threads=2"), 4));
+    }
+
+    @Test
+    public void testTargets() {
+        ProcessingOptions options = ProcessingOptions.parse(with("--target=00ff00:40", "--target=0000FF:90"), 4);
+
+        assertEquals(List.of(new Target(0x00FF00, 40), new Target(0x0000FF, 90)), options.getExtraTargets());
+        assertEquals(3, options.newImageProcessor(0xFF0000, 120).getTargetCount());
+        assertEquals(1, ProcessingOptions.parse(POSITIONAL, 4).newImageProcessor(0xFF0000, 120).getTargetCount());
+        assertThrows(IllegalArgumentException.class, () -> ProcessingOptions.parse(with("--target=00FF00"), 4));
+        assertThrows(IllegalArgumentException.class, () -> ProcessingOptions.parse(with("--target=green:40"), 4));
+        assertThrows(IllegalArgumentException.class,
+                () -> ProcessingOptions.parse(with("--target=00FF00:40", "--track"), 4));
+    }
+
+    @Test
+    public void testSweep() {
+        ProcessingOptions options = ProcessingOptions.parse(with("--sweep=160,80,120", "--sweep=40"), 4);
+
+        assertTrue(options.isSweep());
+        assertArrayEquals(new int[] {40, 80, 100, 120, 160}, options.getSweepThresholds(100));
+        assertEquals(4, options.newImageProcessor(0xFF0000, 120).getTargetCount());
+        assertFalse(ProcessingOptions.parse(POSITIONAL, 4).isSweep());
+        assertArrayEquals(new int[] {120}, ProcessingOptions.parse(POSITIONAL, 4).getSweepThresholds(120));
+        assertThrows(IllegalArgumentException.class, () -> ProcessingOptions.parse(with("--sweep=80,,120"), 4));
+        assertThrows(IllegalArgumentException.class, () -> ProcessingOptions.parse(with("--sweep=-5"), 4));
+        assertThrows(IllegalArgumentException.class,
+                () -> ProcessingOptions.parse(with("--sweep=80", "--pyramid=4"), 4));
+        assertThrows(IllegalArgumentException.class,
+                () -> ProcessingOptions.parse(with("--sweep=80", "--target=00FF00:40"), 4));
+    }
+
+    @Test
+    public void testIncremental() {
+        ProcessingOptions options = ProcessingOptions.parse(with("--incremental", "--threads=2"), 4);
+
+        assertTrue(options.isIncremental());
+        assertFalse(ProcessingOptions.parse(POSITIONAL, 4).isIncremental());
+        assertThrows(IllegalArgumentException.class,
+                () -> ProcessingOptions.parse(with("--incremental", "--track"), 4));
+        assertThrows(IllegalArgumentException.class,
+                () -> ProcessingOptions.parse(with("--incremental", "--sweep=80"), 4));
+    }
+
+    @Test
+    public void testThreadsAndWorkersCannotBeCombined() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ProcessingOptions.parse(with("--threads=2", "--workers=2"), 4));
+    }
+
+    @Test
+    public void testInvalidOptionsThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> ProcessingOptions.parse(with("--decode=fast"), 4));
+        assertThrows(IllegalArgumentException.class, () -> ProcessingOptions.parse(with("--threads=0"), 4));
+        assertThrows(IllegalArgumentException.class, () -> ProcessingOptions.parse(with("--threads=many"), 4));
+        assertThrows(IllegalArgumentException.class, () -> ProcessingOptions.parse(with("--workers=-1"), 4));
+    }
+
+    private static String[] with(String... options) {
+        String[] args = new String[POSITIONAL.length + options.length];
+        System.arraycopy(POSITIONAL, 0, args, 0, POSITIONAL.length);
+        System.arraycopy(options, 0, args, POSITIONAL.length, options.length);
+        return args;
+    }
+}
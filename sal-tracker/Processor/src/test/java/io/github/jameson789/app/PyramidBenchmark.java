@@ -0,0 +1,119 @@
+package io.github.jameson789.app;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/**
+ * Measures the speed and the error of PyramidGroupFinder against full resolution scans.
+ *
+ * A sequence of 1920x1080 frames is generated, each with an elliptical target blob that moves
+ * and changes size, a few smaller blobs of the target color, thin lines of the target color and
+ * scattered noise pixels. Every frame is searched in full with FusedBinarizingImageGroupFinder
+ * and coarse to fine for several scales and tolerances. For each setting the time per frame,
+ * the share of frames that fell back to a full scan, the number of frames whose result differs
+ * from the full scan and the largest and mean centroid distance in pixels are printed.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=io.github.jameson789.app.PyramidBenchmark
+ */
+public class PyramidBenchmark {
+    private static final int WIDTH = 1920;
+    private static final int HEIGHT = 1080;
+    private static final int FRAMES = 60;
+    private static final int TARGET = 0xD03020;
+    private static final int THRESHOLD = 60;
+
+    public static void main(String[] args) {
+        BufferedImage[] frames = generate(new Random(5));
+        DistanceImageBinarizer binarizer = new DistanceImageBinarizer(new EuclideanColorDistance(), TARGET, THRESHOLD);
+
+        FusedBinarizingImageGroupFinder fullScan = new FusedBinarizingImageGroupFinder(binarizer);
+        Group[] expected = new Group[FRAMES];
+        long fullNanos = time(() -> {
+            for (int i = 0; i < FRAMES; i++) {
+                expected[i] = fullScan.findLargestGroup(frames[i]);
+            }
+        });
+        System.out.printf("full scan:               %7.2f ms/frame%n", fullNanos / 1e6 / FRAMES);
+
+        for (int scale : new int[] {4, 8}) {
+            for (int tolerance : new int[] {0, 2, 4, 8}) {
+                PyramidGroupFinder finder = new PyramidGroupFinder(binarizer, scale, tolerance);
+                Group[] found = new Group[FRAMES];
+                long nanos = time(() -> {
+                    for (int i = 0; i < FRAMES; i++) {
+                        found[i] = finder.findLargestGroup(frames[i]);
+                    }
+                });
+
+                int differing = 0;
+                double maxError = 0;
+                double totalError = 0;
+                for (int i = 0; i < FRAMES; i++) {
+                    double error = distance(expected[i], found[i]);
+                    if (error > 0 || (expected[i] == null) != (found[i] == null)) {
+                        differing++;
+                    }
+                    maxError = Math.max(maxError, error);
+                    totalError += error;
+                }
+                System.out.printf(
+                        "scale 1/%d tolerance %d: %7.2f ms/frame, %5.1f%% full scans, %d/%d differ, "
+                                + "max error %.1f px, mean error %.2f px%n",
+                        scale, tolerance, nanos / 1e6 / FRAMES, 100.0 * finder.getFullScans() / finder.getFrames(),
+                        differing, FRAMES, maxError, totalError / FRAMES);
+            }
+        }
+    }
+
+    private static BufferedImage[] generate(Random random) {
+        BufferedImage[] frames = new BufferedImage[FRAMES];
+        Color target = new Color(TARGET);
+        for (int i = 0; i < FRAMES; i++) {
+            BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = image.createGraphics();
+            graphics.setColor(new Color(0x204060));
+            graphics.fillRect(0, 0, WIDTH, HEIGHT);
+            graphics.setColor(target);
+
+            // the tracked blob
+            int radius = 20 + (i % 20) * 3;
+            graphics.fillOval(200 + i * 25, 300 + (int) (200 * Math.sin(i / 6.0)), 2 * radius, (int) (1.5 * radius));
+            // smaller distractors
+            for (int blob = 0; blob < 5; blob++) {
+                graphics.fillOval(random.nextInt(WIDTH - 40), random.nextInt(HEIGHT - 40),
+                        8 + random.nextInt(30), 8 + random.nextInt(30));
+            }
+            // thin lines fall between the coarse samples
+            for (int line = 0; line < 3; line++) {
+                graphics.fillRect(random.nextInt(WIDTH - 300), random.nextInt(HEIGHT), 150 + random.nextInt(150), 1);
+            }
+            graphics.dispose();
+
+            for (int speck = 0; speck < 2000; speck++) {
+                image.setRGB(random.nextInt(WIDTH), random.nextInt(HEIGHT), TARGET);
+            }
+            frames[i] = image;
+        }
+        return frames;
+    }
+
+    private static double distance(Group expected, Group found) {
+        if (expected == null || found == null) {
+            return 0;
+        }
+        return Math.hypot(expected.centroid().x() - found.centroid().x(), expected.centroid().y() - found.centroid().y());
+    }
+
+    private static long time(Runnable run) {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            run.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
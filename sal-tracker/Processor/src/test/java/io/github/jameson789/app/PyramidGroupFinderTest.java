@@ -0,0 +1,141 @@
+package io.github.jameson789.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class PyramidGroupFinderTest {
+
+    private static final int RED = 0xFF0000;
+
+    @Test
+    public void testBlobIsRefinedToFullResolution() {
+        BufferedImage image = frame(400, 300);
+        fill(image, 101, 57, 23, 17);
+        fill(image, 300, 200, 5, 5);
+
+        PyramidGroupFinder finder = new PyramidGroupFinder(binarizer(), 4, 4);
+
+        assertEquals(fullScan(image), finder.findLargestGroup(image));
+        assertEquals(0, finder.getFullScans());
+        assertTrue(finder.getScannedPixels() < 400 * 300 / 2, "scanned " + finder.getScannedPixels());
+    }
+
+    @Test
+    public void testRefinesEveryCandidate() {
+        // the smaller blob at full resolution looks larger when subsampled by 8
+        BufferedImage image = frame(640, 480);
+        fill(image, 100, 100, 17, 17);
+        fill(image, 400, 300, 24, 15);
+
+        PyramidGroupFinder finder = new PyramidGroupFinder(binarizer(), 8, 8);
+
+        assertEquals(new Group(24 * 15, new Coordinate(411, 307)), finder.findLargestGroup(image));
+    }
+
+    @Test
+    public void testGroupAcrossRefinementWindowBeatsSmallerCompleteGroup() {
+        // the refinement window of the bar cuts off most of it, while the blob below it lies
+        // completely inside and close enough to the estimate to pass the tolerance check
+        BufferedImage image = frame(640, 480);
+        fill(image, 120, 200, 400, 4);
+        fill(image, 300, 208, 20, 20);
+
+        PyramidGroupFinder finder = new PyramidGroupFinder(binarizer(), 4, 20);
+
+        assertEquals(new Group(1600, new Coordinate(319, 201)), fullScan(image));
+        assertEquals(fullScan(image), finder.findLargestGroup(image));
+    }
+
+    @Test
+    public void testDisagreementFallsBackToFullScan() {
+        // a comb: every fourth column is sampled, so the coarse pass sees one solid block
+        BufferedImage image = frame(200, 200);
+        for (int x = 40; x < 120; x += 2) {
+            fill(image, x, 50, 1, 60);
+        }
+        fill(image, 40, 50, 1, 61);
+
+        PyramidGroupFinder finder = new PyramidGroupFinder(binarizer(), 4, 2);
+
+        assertEquals(fullScan(image), finder.findLargestGroup(image));
+        assertEquals(1, finder.getFullScans());
+    }
+
+    @Test
+    public void testMatchesFullScanWhenEveryBlobIsSampled() {
+        // blobs at least as wide as the scale, one per quadrant, so each is its own candidate
+        Random random = new Random(3);
+        PyramidGroupFinder finder = new PyramidGroupFinder(binarizer(), 4, 4);
+        for (int i = 0; i < 20; i++) {
+            BufferedImage image = frame(160, 120);
+            for (int quadrant = 0; quadrant < 4; quadrant++) {
+                fill(image, (quadrant % 2) * 80 + random.nextInt(40), (quadrant / 2) * 60 + random.nextInt(30),
+                        4 + random.nextInt(30), 4 + random.nextInt(20));
+            }
+
+            assertEquals(fullScan(image), finder.findLargestGroup(image), "image " + i);
+        }
+    }
+
+    @Test
+    public void testNoiseRarelyFallsBackToFullScan() {
+        // specks and small blobs around the target must not push refinements to the whole frame
+        Random random = new Random(5);
+        PyramidGroupFinder finder = new PyramidGroupFinder(binarizer(), 4, 4);
+        for (int i = 0; i < 20; i++) {
+            BufferedImage image = frame(1920, 1080);
+            for (int speck = 0; speck < 2000; speck++) {
+                image.setRGB(random.nextInt(1920), random.nextInt(1080), RED);
+            }
+            for (int blob = 0; blob < 5; blob++) {
+                fill(image, random.nextInt(1880), random.nextInt(1040), 8 + random.nextInt(20), 8 + random.nextInt(20));
+            }
+            fill(image, 200 + 40 * i, 300 + 10 * i, 60, 45);
+
+            assertEquals(fullScan(image), finder.findLargestGroup(image), "image " + i);
+        }
+
+        assertTrue(finder.getFullScans() <= 2, "full scans: " + finder.getFullScans());
+        assertTrue(finder.getScannedPixels() < 20 * 1920L * 1080 / 5, "scanned " + finder.getScannedPixels());
+    }
+
+    @Test
+    public void testEmptyAndSmallFrames() {
+        PyramidGroupFinder finder = new PyramidGroupFinder(binarizer(), 8, 4);
+        assertNull(finder.findLargestGroup(frame(50, 40)));
+
+        BufferedImage tiny = frame(3, 2);
+        tiny.setRGB(2, 1, RED);
+        assertEquals(new Group(1, new Coordinate(2, 1)), finder.findLargestGroup(tiny));
+    }
+
+    @Test
+    public void testInvalidArgumentsThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new PyramidGroupFinder(binarizer(), 1, 4));
+        assertThrows(IllegalArgumentException.class, () -> new PyramidGroupFinder(binarizer(), 4, -1));
+    }
+
+    private static Group fullScan(BufferedImage image) {
+        return new FusedBinarizingImageGroupFinder(binarizer()).findLargestGroup(image);
+    }
+
+    private static DistanceImageBinarizer binarizer() {
+        return new DistanceImageBinarizer(new EuclideanColorDistance(), RED, 10);
+    }
+
+    private static BufferedImage frame(int width, int height) {
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    private static void fill(BufferedImage image, int left, int top, int width, int height) {
+        for (int y = top; y < top + height; y++) {
+            for (int x = left; x < left + width; x++) {
+                image.setRGB(x, y, RED);
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package io.github.jameson789.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class RegionTrackerTest {
+
+    private static final int RED = 0xFF0000;
+
+    @Test
+    public void testSmallMovesAreFoundInWindow() {
+        RegionTracker tracker = new RegionTracker(binarizer());
+        FusedBinarizingImageGroupFinder fullScan = new FusedBinarizingImageGroupFinder(binarizer());
+
+        for (int step = 0; step < 20; step++) {
+            BufferedImage image = frame(640, 480);
+            fill(image, 100 + 7 * step, 200 + 3 * step, 12, 9);
+
+            assertEquals(fullScan.findLargestGroup(image), tracker.findLargestGroup(image), "step " + step);
+        }
+
+        assertEquals(1, tracker.getFullScans());
+        assertTrue(tracker.getScannedPixels() < 2L * 640 * 480,
+                "scanned " + tracker.getScannedPixels() + " pixels");
+    }
+
+    @Test
+    public void testGrowingBlobEnlargesWindow() {
+        RegionTracker tracker = new RegionTracker(binarizer());
+        FusedBinarizingImageGroupFinder fullScan = new FusedBinarizingImageGroupFinder(binarizer());
+
+        BufferedImage image = frame(400, 400);
+        fill(image, 195, 195, 10, 10);
+        assertEquals(fullScan.findLargestGroup(image), tracker.findLargestGroup(image));
+
+        // now a long bar that sticks out of every window around the old centroid but the last
+        image = frame(400, 400);
+        fill(image, 20, 195, 360, 10);
+
+        assertEquals(fullScan.findLargestGroup(image), tracker.findLargestGroup(image));
+    }
+
+    @Test
+    public void testLostBlobFallsBackToFullScan() {
+        RegionTracker tracker = new RegionTracker(binarizer());
+
+        BufferedImage image = frame(300, 300);
+        fill(image, 10, 10, 5, 5);
+        tracker.findLargestGroup(image);
+
+        image = frame(300, 300);
+        fill(image, 250, 250, 6, 6);
+
+        assertEquals(new Group(36, new Coordinate(252, 252)), tracker.findLargestGroup(image));
+        assertEquals(2, tracker.getFullScans());
+    }
+
+    @Test
+    public void testSpeckLeftInWindowFallsBackToFullScan() {
+        RegionTracker tracker = new RegionTracker(binarizer());
+        BufferedImage image = frame(500, 500);
+        fill(image, 100, 100, 20, 20);
+        fill(image, 125, 100, 1, 1);
+        tracker.findLargestGroup(image);
+
+        // the blob jumps out of the window, the speck stays inside it
+        image = frame(500, 500);
+        fill(image, 400, 400, 20, 20);
+        fill(image, 125, 100, 1, 1);
+
+        assertEquals(new Group(400, new Coordinate(409, 409)), tracker.findLargestGroup(image));
+        assertEquals(2, tracker.getFullScans());
+    }
+
+    @Test
+    public void testBlobAtFrameBorderIsAccepted() {
+        RegionTracker tracker = new RegionTracker(binarizer());
+        BufferedImage image = frame(500, 500);
+        fill(image, 0, 0, 8, 8);
+        tracker.findLargestGroup(image);
+
+        image = frame(500, 500);
+        fill(image, 0, 0, 9, 8);
+
+        assertEquals(new Group(72, new Coordinate(4, 3)), tracker.findLargestGroup(image));
+        assertEquals(1, tracker.getFullScans());
+    }
+
+    @Test
+    public void testMatchesFullScanOnNoisyRandomWalk() {
+        Random random = new Random(4);
+        RegionTracker tracker = new RegionTracker(binarizer());
+        FusedBinarizingImageGroupFinder fullScan = new FusedBinarizingImageGroupFinder(binarizer());
+        int x = 200;
+        int y = 150;
+
+        for (int step = 0; step < 40; step++) {
+            BufferedImage image = frame(400, 300);
+            // noise specks never outgrow the blob
+            for (int i = 0; i < 200; i++) {
+                image.setRGB(random.nextInt(400), random.nextInt(300), RED);
+            }
+            x = Math.max(0, Math.min(380, x + random.nextInt(21) - 10));
+            y = Math.max(0, Math.min(285, y + random.nextInt(21) - 10));
+            fill(image, x, y, 20, 15);
+
+            assertEquals(fullScan.findLargestGroup(image), tracker.findLargestGroup(image), "step " + step);
+        }
+    }
+
+    @Test
+    public void testNoiseOnWindowSidesDoesNotGrowWindow() {
+        Random random = new Random(7);
+        RegionTracker tracker = new RegionTracker(binarizer());
+        FusedBinarizingImageGroupFinder fullScan = new FusedBinarizingImageGroupFinder(binarizer());
+        int frames = 30;
+
+        for (int step = 0; step < frames; step++) {
+            BufferedImage image = frame(1920, 1080);
+            for (int i = 0; i < 2000; i++) {
+                image.setRGB(random.nextInt(1920), random.nextInt(1080), RED);
+            }
+            fill(image, 400 + 10 * step, 500 + 4 * step, 40, 30);
+
+            assertEquals(fullScan.findLargestGroup(image), tracker.findLargestGroup(image), "step " + step);
+        }
+
+        // specks cut off by the window sides must not grow it to the whole frame
+        assertEquals(1, tracker.getFullScans());
+        assertTrue(tracker.getScannedPixels() < frames * 1920L * 1080 / 10,
+                "scanned " + tracker.getScannedPixels() + " pixels");
+    }
+
+    @Test
+    public void testGroupCutOffByWindowBeatsSmallerCompleteGroup() {
+        RegionTracker tracker = new RegionTracker(binarizer());
+        FusedBinarizingImageGroupFinder fullScan = new FusedBinarizingImageGroupFinder(binarizer());
+        BufferedImage image = frame(200, 200);
+        fill(image, 95, 95, 10, 10);
+        tracker.findLargestGroup(image);
+
+        // the window is [68, 133); only 80 of the 400 pixels of the moved blob are inside it,
+        // while a complete 90 pixel blob is
+        image = frame(200, 200);
+        fill(image, 125, 95, 40, 10);
+        fill(image, 76, 76, 9, 10);
+
+        assertEquals(new Group(400, new Coordinate(144, 99)), fullScan.findLargestGroup(image));
+        assertEquals(fullScan.findLargestGroup(image), tracker.findLargestGroup(image));
+    }
+
+    @Test
+    public void testFrameSizeChangeRescans() {
+        RegionTracker tracker = new RegionTracker(binarizer());
+        BufferedImage image = frame(200, 200);
+        fill(image, 50, 50, 4, 4);
+        tracker.findLargestGroup(image);
+
+        image = frame(100, 100);
+        fill(image, 50, 50, 4, 4);
+        tracker.findLargestGroup(image);
+
+        assertEquals(2, tracker.getFullScans());
+    }
+
+    private static DistanceImageBinarizer binarizer() {
+        return new DistanceImageBinarizer(new EuclideanColorDistance(), RED, 10);
+    }
+
+    private static BufferedImage frame(int width, int height) {
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    private static void fill(BufferedImage image, int left, int top, int width, int height) {
+        for (int y = top; y < top + height; y++) {
+            for (int x = left; x < left + width; x++) {
+                image.setRGB(x, y, RED);
+            }
+        }
+    }
+}
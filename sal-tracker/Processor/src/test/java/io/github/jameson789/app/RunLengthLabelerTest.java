@@ -0,0 +1,123 @@
+package io.github.jameson789.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class RunLengthLabelerTest {
+
+    @Test
+    public void testEmitsComponentWhenItEnds() {
+        int[][] array = {
+                {1, 1, 0},
+                {0, 0, 0},
+                {0, 0, 1}
+        };
+        BinaryImage image = BinaryImage.fromArray(array);
+        List<String> emitted = new ArrayList<>();
+
+        RunLengthLabeler labeler = new RunLengthLabeler();
+        labeler.reset(3, (size, sumX, sumY) -> emitted.add(size + "," + sumX + "," + sumY));
+
+        labeler.pushRow(image.getWords(), 0);
+        assertTrue(emitted.isEmpty());
+        labeler.pushRow(image.getWords(), 1);
+        assertEquals(List.of("2,1,0"), emitted);
+        labeler.pushRow(image.getWords(), 2);
+        labeler.finish();
+        assertEquals(List.of("2,1,0", "1,2,2"), emitted);
+    }
+
+    @Test
+    public void testMergesBranchesAcrossRows() {
+        int[][] array = {
+                {1, 0, 1, 0, 1},
+                {1, 0, 1, 0, 1},
+                {1, 1, 1, 1, 1},
+                {0, 0, 1, 0, 0}
+        };
+        assertEquals(List.of(new Group(12, new Coordinate(2, 1))), label(BinaryImage.fromArray(array)));
+    }
+
+    @Test
+    public void testRunsCrossingWordBoundaries() {
+        BinaryImage image = new BinaryImage(128, 2);
+        for (int x = 0; x < 128; x++) {
+            image.set(x, 0, true);
+        }
+        image.set(127, 1, true);
+
+        assertEquals(List.of(new Group(129, new Coordinate(63, 0))), label(image));
+    }
+
+    @Test
+    public void testMatchesUnionFindOnRandomImages() {
+        Random random = new Random(99);
+        UnionFindBinaryGroupFinder reference = new UnionFindBinaryGroupFinder();
+
+        for (int trial = 0; trial < 300; trial++) {
+            int width = 1 + random.nextInt(200);
+            int height = 1 + random.nextInt(50);
+            double density = random.nextDouble();
+            BinaryImage image = new BinaryImage(width, height);
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    image.set(x, y, random.nextDouble() < density);
+                }
+            }
+
+            assertEquals(reference.findConnectedGroups(image), label(image), "trial " + trial);
+        }
+    }
+
+    @Test
+    public void testReportsSidesTouched() {
+        int[][] array = {
+                {0, 0, 0, 0, 1},
+                {1, 0, 1, 0, 1},
+                {0, 0, 0, 0, 0},
+                {0, 1, 1, 0, 0}
+        };
+        BinaryImage image = BinaryImage.fromArray(array);
+        List<String> emitted = new ArrayList<>();
+
+        RunLengthLabeler labeler = new RunLengthLabeler();
+        labeler.reset(5, new RunLengthLabeler.ComponentSink() {
+            public void accept(int size, long sumX, long sumY) {
+                fail("sides not reported");
+            }
+
+            public void accept(int size, long sumX, long sumY, int sides) {
+                emitted.add(size + ":" + sides);
+            }
+        });
+        for (int y = 0; y < 4; y++) {
+            labeler.pushRow(image.getWords(), y);
+        }
+        labeler.finish();
+
+        assertEquals(List.of(
+                "1:" + RunLengthLabeler.LEFT,
+                "1:0",
+                "2:" + (RunLengthLabeler.TOP | RunLengthLabeler.RIGHT),
+                "2:" + RunLengthLabeler.BOTTOM), emitted);
+    }
+
+    private List<Group> label(BinaryImage image) {
+        List<Group> groups = new ArrayList<>();
+        RunLengthLabeler labeler = new RunLengthLabeler();
+        labeler.reset(image.getWidth(), (size, sumX, sumY) ->
+                groups.add(new Group(size, new Coordinate((int) (sumX / size), (int) (sumY / size)))));
+        for (int y = 0; y < image.getHeight(); y++) {
+            labeler.pushRow(image.getWords(), y * image.getWordsPerRow());
+        }
+        labeler.finish();
+        groups.sort(Collections.reverseOrder());
+        return groups;
+    }
+}
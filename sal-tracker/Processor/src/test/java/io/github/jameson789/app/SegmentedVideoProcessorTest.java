@@ -0,0 +1,112 @@
+package io.github.jameson789.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Path;
+
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class SegmentedVideoProcessorTest {
+
+    @TempDir
+    static Path tempDir;
+
+    static File video;
+
+    @BeforeAll
+    static void writeVideo() throws Exception {
+        video = tempDir.resolve("segments.mp4").toFile();
+        // 25 fps with a keyframe every 3 seconds, so segments start between keyframes
+        TestVideos.writeMovingSquare(video, 160, 96, 25, 12, 75);
+    }
+
+    @Test
+    public void testStreamingSegmentsMatchSingleThread() throws Exception {
+        String expected = singleThreaded(new StreamingFrameSampler());
+
+        assertEquals(12, expected.lines().count());
+        assertEquals(expected, segmented(new StreamingFrameSampler(), 4, 2));
+        assertEquals(expected, segmented(new StreamingFrameSampler(), 3, 5));
+    }
+
+    @Test
+    public void testSeekingSegmentsMatchSingleThread() throws Exception {
+        assertEquals(singleThreaded(new SeekingFrameSampler()), segmented(new SeekingFrameSampler(), 2, 4));
+    }
+
+    @Test
+    public void testTrackingSegmentsMatchSingleThread() throws Exception {
+        StringWriter csv = new StringWriter();
+        try (PrintWriter writer = new PrintWriter(csv)) {
+            new SegmentedVideoProcessor(video.getPath(), () -> new ImageProcessor(TestVideos.SQUARE_COLOR, 120, true),
+                    new StreamingFrameSampler(), 3, 4).process(12, writer);
+        }
+
+        assertEquals(singleThreaded(new StreamingFrameSampler()), csv.toString());
+    }
+
+    @Test
+    public void testSegmentPastEndOfVideoIsEmpty() throws Exception {
+        assertEquals(singleThreaded(new StreamingFrameSampler()), segmented(new StreamingFrameSampler(), 2, 4, 20));
+    }
+
+    @Test
+    public void testMissingVideoFails() {
+        SegmentedVideoProcessor processor = new SegmentedVideoProcessor(
+                tempDir.resolve("missing.mp4").toString(), () -> new ImageProcessor(TestVideos.SQUARE_COLOR, 120),
+                new StreamingFrameSampler(), 2, 1);
+
+        assertThrows(Exception.class, () -> processor.process(4, new PrintWriter(new StringWriter())));
+    }
+
+    @Test
+    public void testSegmentSeconds() {
+        assertEquals(SegmentedVideoProcessor.MIN_SEGMENT_SECONDS, SegmentedVideoProcessor.segmentSeconds(12, 8));
+        assertEquals(225, SegmentedVideoProcessor.segmentSeconds(7200, 8));
+    }
+
+    @Test
+    public void testInvalidThreadCountThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SegmentedVideoProcessor("video.mp4", () -> new ImageProcessor(0, 0), new StreamingFrameSampler(), 0));
+    }
+
+    private String segmented(FrameSampler sampler, int threads, int segmentSeconds) throws Exception {
+        return segmented(sampler, threads, segmentSeconds, 12);
+    }
+
+    private String segmented(FrameSampler sampler, int threads, int segmentSeconds, int endSecond) throws Exception {
+        StringWriter csv = new StringWriter();
+        try (PrintWriter writer = new PrintWriter(csv)) {
+            new SegmentedVideoProcessor(video.getPath(), () -> new ImageProcessor(TestVideos.SQUARE_COLOR, 120), sampler,
+                    threads, segmentSeconds).process(endSecond, writer);
+        }
+        return csv.toString();
+    }
+
+    /**
+     * The loop of ImageSummaryApp: one grabber and processor for the whole video.
+     */
+    private String singleThreaded(FrameSampler sampler) throws Exception {
+        StringWriter csv = new StringWriter();
+        try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(video);
+                PrintWriter writer = new PrintWriter(csv)) {
+            grabber.start();
+            ImageProcessor processor = new ImageProcessor(TestVideos.SQUARE_COLOR, 120);
+            sampler.sample(grabber, 0, 12, (second, frame) -> {
+                CentroidResult result = processor.processFrame(frame);
+                if (result != null) {
+                    writer.printf("%d,%d,%d%n", second, result.x(), result.y());
+                }
+            });
+            grabber.stop();
+        }
+        return csv.toString();
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.jameson789.app;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures the startup cost of processor jars by running each of them as a new process, the
+ * way the backend does.
+ *
+ * Every configuration is a jar, optionally followed by ":" and a CDS archive to start it with.
+ * The configurations take turns running a job on the given video, and the median wall time
+ * from process start to the first "Frame loaded" line (time to first frame) and to process
+ * exit is printed for each. The first round is discarded, so the native libraries are already
+ * extracted to the JavaCPP cache when the measured runs start.
+ *
+ * Build the two jars to compare first, see the "linux-x86_64" profile in the README, then run:
+ *
+ *   mvn test-compile exec:java -Dexec.classpathScope=test
+ *       -Dexec.mainClass=io.github.jameson789.app.StartupBenchmark
+ *       -Dexec.args="VIDEO ALL_PLATFORMS_JAR LINUX_JAR LINUX_JAR:ARCHIVE"
+ */
+public class StartupBenchmark {
+    private static final int RUNS = 9;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: StartupBenchmark <video> <jar>[:<archive>]...");
+        }
+        String video = args[0];
+        Path results = Files.createTempDirectory("startup-benchmark");
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+        String[] configurations = Arrays.copyOfRange(args, 1, args.length);
+        List<List<String>> commands = new ArrayList<>();
+        for (String configuration : configurations) {
+            String[] parts = configuration.split(":", 2);
+            List<String> command = new ArrayList<>(List.of(java));
+            if (parts.length > 1) {
+                command.add("-XX:SharedArchiveFile=" + parts[1]);
+            }
+            command.addAll(List.of("-jar", parts[0], video, "FF0000", "100", "startup"));
+            commands.add(command);
+        }
+
+        // the configurations take turns, so drift in machine load affects them all alike
+        long[][] firstFrame = new long[configurations.length][RUNS];
+        long[][] total = new long[configurations.length][RUNS];
+        for (int run = -1; run < RUNS; run++) {
+            for (int i = 0; i < configurations.length; i++) {
+                long[] times = measure(commands.get(i), results.toFile());
+                if (run >= 0) {
+                    firstFrame[i][run] = times[0];
+                    total[i][run] = times[1];
+                }
+            }
+        }
+
+        for (int i = 0; i < configurations.length; i++) {
+            String jar = configurations[i].split(":", 2)[0];
+            System.out.printf("%s%n    %6d ms to first frame, %6d ms total, jar %d MB%n", configurations[i],
+                    median(firstFrame[i]), median(total[i]), new File(jar).length() >> 20);
+        }
+    }
+
+    /**
+     * Runs the command and returns the milliseconds to the first frame and to the exit.
+     */
+    private static long[] measure(List<String> command, File results) throws Exception {
+        ProcessBuilder builder = new ProcessBuilder(command).redirectErrorStream(true);
+        builder.environment().put("RESULT_PATH", results.getPath());
+
+        long start = System.nanoTime();
+        Process process = builder.start();
+        long firstFrame = -1;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (firstFrame < 0 && line.startsWith("Frame loaded")) {
+                    firstFrame = System.nanoTime() - start;
+                }
+            }
+        }
+        int exit = process.waitFor();
+        long total = System.nanoTime() - start;
+        if (exit != 0 || firstFrame < 0) {
+            throw new IllegalStateException("Run failed with exit code " + exit + ": " + command);
+        }
+        return new long[] {firstFrame / 1_000_000, total / 1_000_000};
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
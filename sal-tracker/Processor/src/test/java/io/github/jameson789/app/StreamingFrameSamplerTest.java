@@ -0,0 +1,84 @@
+package io.github.jameson789.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.Java2DFrameConverter;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class StreamingFrameSamplerTest {
+
+    @TempDir
+    static Path tempDir;
+
+    static File video;
+
+    @BeforeAll
+    static void writeVideo() throws Exception {
+        video = tempDir.resolve("long-gop.mp4").toFile();
+        // 25 fps with a keyframe every 4 seconds
+        TestVideos.writeMovingSquare(video, 160, 96, 25, 9, 100);
+    }
+
+    @Test
+    public void testSamplesSameFramesAsSeeking() throws Exception {
+        List<String> seeked = sampleTimestamps(new SeekingFrameSampler(), 0, 9);
+        List<String> streamed = sampleTimestamps(new StreamingFrameSampler(), 0, 9);
+
+        assertEquals(9, seeked.size());
+        assertEquals(seeked, streamed);
+    }
+
+    @Test
+    public void testSamplesSameCentroidsAsSeeking() throws Exception {
+        assertEquals(sampleCentroids(new SeekingFrameSampler()), sampleCentroids(new StreamingFrameSampler()));
+    }
+
+    @Test
+    public void testStartsFromGivenSecond() throws Exception {
+        List<String> seeked = sampleTimestamps(new SeekingFrameSampler(), 3, 7);
+        List<String> streamed = sampleTimestamps(new StreamingFrameSampler(), 3, 7);
+
+        assertEquals(4, streamed.size());
+        assertTrue(streamed.get(0).startsWith("3:"));
+        assertEquals(seeked, streamed);
+    }
+
+    @Test
+    public void testStopsAtEndOfVideo() throws Exception {
+        List<String> streamed = sampleTimestamps(new StreamingFrameSampler(), 0, 20);
+        assertEquals(9, streamed.size());
+    }
+
+    private List<String> sampleTimestamps(FrameSampler sampler, int start, int end) throws Exception {
+        List<String> samples = new ArrayList<>();
+        try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(video)) {
+            grabber.start();
+            sampler.sample(grabber, start, end, (second, frame) -> samples.add(second + ":" + frame.timestamp));
+            grabber.stop();
+        }
+        return samples;
+    }
+
+    private List<String> sampleCentroids(FrameSampler sampler) throws Exception {
+        List<String> rows = new ArrayList<>();
+        ImageProcessor processor = new ImageProcessor(TestVideos.SQUARE_COLOR, 120);
+        Java2DFrameConverter converter = new Java2DFrameConverter();
+        try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(video)) {
+            grabber.start();
+            sampler.sample(grabber, 0, 9, (second, frame) -> {
+                CentroidResult result = processor.processImage(converter.getBufferedImage(frame));
+                rows.add(second + "," + result);
+            });
+            grabber.stop();
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.jameson789.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+public class SweepReportTest {
+
+    private static final int[] THRESHOLDS = {40, 80, 120};
+
+    @Test
+    public void testCountsStableFrames() {
+        SweepReport report = new SweepReport(THRESHOLDS, 2);
+        report.add(new CentroidResult[] {new CentroidResult(9, 10), new CentroidResult(10, 10), new CentroidResult(11, 10)});
+        report.add(new CentroidResult[] {new CentroidResult(10, 10), new CentroidResult(10, 11), new CentroidResult(40, 51)});
+
+        assertEquals(2, report.getFrames());
+        assertEquals(2, report.getFramesWithGroup(0));
+        assertEquals(2, report.getFramesWithGroup(2));
+        // the ends of the sweep are never stable, and the middle agrees with both neighbours only in frame 0
+        assertEquals(0, report.getStableFrames(0));
+        assertEquals(1, report.getStableFrames(1));
+        assertEquals(0, report.getStableFrames(2));
+        assertEquals(1.0, report.getMeanShift(0), 1e-9);
+        assertEquals((1.0 + 50.0) / 2, report.getMeanShift(1), 1e-9);
+        assertTrue(Double.isNaN(report.getMeanShift(2)));
+        assertEquals(80, report.getSuggestedThreshold());
+    }
+
+    @Test
+    public void testReadsSweepCsv() throws Exception {
+        String csv = "0,10,10,0\n0,10,11,1\n0,11,11,2\n1,10,10,1\n2,5,5,0\n2,5,5,1\n2,6,5,2\n";
+
+        SweepReport report = SweepReport.read(new StringReader(csv), THRESHOLDS, 2);
+
+        assertEquals(3, report.getFrames());
+        assertEquals(2, report.getFramesWithGroup(0));
+        assertEquals(3, report.getFramesWithGroup(1));
+        assertEquals(2, report.getStableFrames(1));
+        assertEquals(80, report.getSuggestedThreshold());
+    }
+
+    @Test
+    public void testWritesTable() {
+        SweepReport report = new SweepReport(THRESHOLDS, 4);
+        report.add(new CentroidResult[] {new CentroidResult(1, 1), new CentroidResult(1, 1), null});
+        report.add(new CentroidResult[] {new CentroidResult(1, 1), new CentroidResult(1, 1), new CentroidResult(1, 2)});
+
+        StringWriter out = new StringWriter();
+        report.write(new PrintWriter(out));
+
+        String[] lines = out.toString().split("\\R");
+        assertEquals("Threshold sweep over 2 frames, centroids agree within 4.0 pixels", lines[0]);
+        assertEquals("threshold  frames  stable   shift", lines[1]);
+        assertEquals("       40       2       0    0.00", lines[2]);
+        assertEquals("       80       2       1    1.00", lines[3]);
+        assertEquals("      120       1       0       -", lines[4]);
+        assertEquals("Suggested threshold: 80", lines[5]);
+    }
+
+    @Test
+    public void testWithoutStableFrames() {
+        SweepReport report = new SweepReport(THRESHOLDS, 0);
+        report.add(new CentroidResult[3]);
+        report.add(new CentroidResult[] {new CentroidResult(1, 1), null, new CentroidResult(1, 1)});
+        assertEquals(-1, report.getSuggestedThreshold());
+    }
+
+    @Test
+    public void testRejectsInvalidRows() {
+        assertThrows(IllegalArgumentException.class,
+                () -> SweepReport.read(new StringReader("0,1,2,3\n"), THRESHOLDS, 2));
+        assertThrows(IllegalArgumentException.class,
+                () -> SweepReport.read(new StringReader("0,x,2,0\n"), THRESHOLDS, 2));
+    }
+}
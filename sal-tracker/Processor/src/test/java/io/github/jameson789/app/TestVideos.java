@@ -0,0 +1,87 @@
+package io.github.jameson789.app;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.function.IntUnaryOperator;
+
+import org.bytedeco.ffmpeg.global.avcodec;
+import org.bytedeco.javacv.FFmpegFrameRecorder;
+import org.bytedeco.javacv.Java2DFrameConverter;
+
+/**
+ * Writes small synthetic videos for tests and benchmarks.
+ *
+ * Every frame is black with a red square that moves one step to the right per frame, so the
+ * largest red group of each frame identifies the frame it was taken from.
+ */
+public class TestVideos {
+
+    public static final int SQUARE_COLOR = 0xFF0000;
+
+    /**
+     * Encodes a clip with a moving red square.
+     *
+     * @param file the output file, the container is picked from its extension
+     * @param width the frame width
+     * @param height the frame height
+     * @param fps the frame rate
+     * @param seconds the clip length in seconds
+     * @param gopSize the number of frames between keyframes
+     * @throws Exception if encoding fails
+     */
+    public static void writeMovingSquare(File file, int width, int height, int fps, int seconds, int gopSize)
+            throws Exception {
+        int square = squareSize(height);
+        writeSquare(file, width, height, fps, seconds, gopSize, frame -> frame % (width - square));
+    }
+
+    /**
+     * Encodes a clip with a red square whose left edge is at the given x of every frame.
+     *
+     * @param file the output file, the container is picked from its extension
+     * @param width the frame width
+     * @param height the frame height
+     * @param fps the frame rate
+     * @param seconds the clip length in seconds
+     * @param gopSize the number of frames between keyframes
+     * @param x the left edge of the square for each frame number
+     * @throws Exception if encoding fails
+     */
+    public static void writeSquare(File file, int width, int height, int fps, int seconds, int gopSize,
+            IntUnaryOperator x) throws Exception {
+        int square = squareSize(height);
+        Java2DFrameConverter converter = new Java2DFrameConverter();
+
+        try (FFmpegFrameRecorder recorder = new FFmpegFrameRecorder(file, width, height)) {
+            recorder.setVideoCodec(avcodec.AV_CODEC_ID_MPEG4);
+            recorder.setFrameRate(fps);
+            recorder.setGopSize(gopSize);
+            recorder.setVideoQuality(2);
+            recorder.start();
+
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+            for (int frame = 0; frame < fps * seconds; frame++) {
+                Graphics2D g = image.createGraphics();
+                g.setColor(Color.BLACK);
+                g.fillRect(0, 0, width, height);
+                g.setColor(new Color(SQUARE_COLOR));
+                g.fillRect(x.applyAsInt(frame), (height - square) / 2, square, square);
+                g.dispose();
+                recorder.record(converter.convert(image));
+            }
+            recorder.stop();
+        }
+    }
+
+    /**
+     * Returns the side of the square in a clip of the given height.
+     *
+     * @param height the frame height
+     * @return the side in pixels
+     */
+    public static int squareSize(int height) {
+        return Math.max(4, Math.min(height / 8, 32));
+    }
+}
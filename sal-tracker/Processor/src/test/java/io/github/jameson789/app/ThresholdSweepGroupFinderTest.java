@@ -0,0 +1,81 @@
+package io.github.jameson789.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class ThresholdSweepGroupFinderTest {
+
+    private static final int[] THRESHOLDS = {0, 10, 40, 90, 200, 500};
+
+    @Test
+    public void testFindsLargestGroupAtEveryThreshold() {
+        BufferedImage image = new BufferedImage(6, 3, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, 0xFF0000);
+        image.setRGB(3, 1, 0xF00000);
+        image.setRGB(4, 1, 0xF00000);
+        image.setRGB(5, 1, 0xF00000);
+
+        Group[] groups = new ThresholdSweepGroupFinder(new EuclideanColorDistance(), 0xFF0000, new int[] {0, 15})
+                .findLargestGroups(PixelSource.of(image));
+
+        assertEquals(new Group(1, new Coordinate(0, 0)), groups[0]);
+        assertEquals(new Group(3, new Coordinate(4, 1)), groups[1]);
+    }
+
+    @Test
+    public void testMatchesOneFinderPerThresholdOnRandomImages() {
+        assertMatchesOneFinderPerThreshold(new EuclideanColorDistance());
+    }
+
+    @Test
+    public void testMatchesOneFinderPerThresholdWithOtherDistance() {
+        ColorDistanceFinder manhattan = (a, b) -> Math.abs(((a >> 16) & 0xFF) - ((b >> 16) & 0xFF))
+                + Math.abs(((a >> 8) & 0xFF) - ((b >> 8) & 0xFF)) + Math.abs((a & 0xFF) - (b & 0xFF));
+        assertMatchesOneFinderPerThreshold(manhattan);
+    }
+
+    private void assertMatchesOneFinderPerThreshold(ColorDistanceFinder distance) {
+        Random random = new Random(17);
+        int color = 0x80C040;
+        ThresholdSweepGroupFinder sweep = new ThresholdSweepGroupFinder(distance, color, THRESHOLDS);
+        FusedBinarizingImageGroupFinder[] single = new FusedBinarizingImageGroupFinder[THRESHOLDS.length];
+        for (int t = 0; t < THRESHOLDS.length; t++) {
+            single[t] = new FusedBinarizingImageGroupFinder(new DistanceImageBinarizer(distance, color, THRESHOLDS[t]));
+        }
+
+        for (int trial = 0; trial < 50; trial++) {
+            int width = 1 + random.nextInt(200);
+            int height = 1 + random.nextInt(60);
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    // the target color with noise of every size, so each pixel lands at a random level
+                    int noise = random.nextInt(8) << random.nextInt(6);
+                    int red = Math.min(255, 0x80 + random.nextInt(noise + 1));
+                    int green = Math.max(0, 0xC0 - random.nextInt(noise + 1));
+                    image.setRGB(x, y, (red << 16) | (green << 8) | 0x40);
+                }
+            }
+
+            Group[] groups = sweep.findLargestGroups(PixelSource.of(image));
+            for (int t = 0; t < THRESHOLDS.length; t++) {
+                assertEquals(single[t].findLargestGroup(image), groups[t], "trial " + trial + " threshold " + THRESHOLDS[t]);
+            }
+        }
+    }
+
+    @Test
+    public void testRejectsInvalidThresholds() {
+        ColorDistanceFinder distance = new EuclideanColorDistance();
+        assertThrows(IllegalArgumentException.class, () -> new ThresholdSweepGroupFinder(distance, 0, new int[0]));
+        assertThrows(IllegalArgumentException.class, () -> new ThresholdSweepGroupFinder(distance, 0, new int[] {-1}));
+        assertThrows(IllegalArgumentException.class, () -> new ThresholdSweepGroupFinder(distance, 0, new int[] {20, 10}));
+        assertThrows(IllegalArgumentException.class, () -> new ThresholdSweepGroupFinder(distance, 0, new int[] {10, 10}));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ThresholdSweepGroupFinder(distance, 0, new int[ThresholdSweepGroupFinder.MAX_THRESHOLDS + 1]));
+    }
+}
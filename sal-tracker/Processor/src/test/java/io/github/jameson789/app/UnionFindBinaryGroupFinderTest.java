@@ -0,0 +1,204 @@
+package io.github.jameson789.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class UnionFindBinaryGroupFinderTest {
+
+    @Test
+    public void testSingleFullGroup() {
+        int[][] image = {
+                {1, 1},
+                {1, 1}
+        };
+        List<Group> groups = new UnionFindBinaryGroupFinder().findConnectedGroups(image);
+
+        assertEquals(List.of(new Group(4, new Coordinate(0, 0))), groups);
+    }
+
+    @Test
+    public void testDisconnectedGroups() {
+        int[][] image = {
+                {1, 0, 1},
+                {0, 0, 0},
+                {1, 1, 0}
+        };
+        List<Group> groups = new UnionFindBinaryGroupFinder().findConnectedGroups(image);
+
+        assertEquals(List.of(
+                new Group(2, new Coordinate(0, 2)),
+                new Group(1, new Coordinate(2, 0)),
+                new Group(1, new Coordinate(0, 0))), groups);
+    }
+
+    @Test
+    public void testNoDiagonalConnection() {
+        int[][] image = {
+                {1, 0},
+                {0, 1}
+        };
+        List<Group> groups = new UnionFindBinaryGroupFinder().findConnectedGroups(image);
+
+        assertEquals(List.of(
+                new Group(1, new Coordinate(1, 1)),
+                new Group(1, new Coordinate(0, 0))), groups);
+    }
+
+    @Test
+    public void testMergesLabelsThatMeetLater() {
+        // a U shape gets two labels in the first row that are only joined in the last one
+        int[][] image = {
+                {1, 0, 0, 1},
+                {1, 0, 0, 1},
+                {1, 1, 1, 1}
+        };
+        List<Group> groups = new UnionFindBinaryGroupFinder().findConnectedGroups(image);
+
+        assertEquals(List.of(new Group(8, new Coordinate(1, 1))), groups);
+    }
+
+    @Test
+    public void testGroupsSpanningWordBoundaries() {
+        BinaryImage image = new BinaryImage(130, 2);
+        for (int x = 60; x < 70; x++) {
+            image.set(x, 0, true);
+        }
+        image.set(127, 1, true);
+        image.set(128, 1, true);
+
+        List<Group> groups = new UnionFindBinaryGroupFinder().findConnectedGroups(image);
+
+        assertEquals(List.of(
+                new Group(10, new Coordinate(64, 0)),
+                new Group(2, new Coordinate(127, 1))), groups);
+    }
+
+    @Test
+    public void testImageWithNoGroups() {
+        assertTrue(new UnionFindBinaryGroupFinder().findConnectedGroups(new int[2][2]).isEmpty());
+    }
+
+    @Test
+    public void testInvalidInputThrowsException() {
+        UnionFindBinaryGroupFinder finder = new UnionFindBinaryGroupFinder();
+        assertThrows(IllegalArgumentException.class, () -> finder.findConnectedGroups((int[][]) null));
+        assertThrows(IllegalArgumentException.class, () -> finder.findConnectedGroups(new int[0][0]));
+        assertThrows(IllegalArgumentException.class, () -> finder.findConnectedGroups(new int[][] {{1, 0}, {1}}));
+        assertThrows(IllegalArgumentException.class, () -> finder.findConnectedGroups(new int[][] {{1, 0}, null}));
+    }
+
+    @Test
+    public void testMatchesDfsOnRandomImages() {
+        Random random = new Random(1234);
+        UnionFindBinaryGroupFinder finder = new UnionFindBinaryGroupFinder();
+
+        for (int trial = 0; trial < 200; trial++) {
+            int width = 1 + random.nextInt(150);
+            int height = 1 + random.nextInt(40);
+            double density = random.nextDouble();
+            int[][] image = new int[height][width];
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    image[y][x] = random.nextDouble() < density ? 1 : 0;
+                }
+            }
+
+            // the same instance is reused across sizes, DFS gets a copy because it clears the input
+            List<Group> expected = new DfsBinaryGroupFinder().findConnectedGroups(copy(image));
+            assertEquals(expected, finder.findConnectedGroups(image), "trial " + trial);
+        }
+    }
+
+    @Test
+    public void testLargeBlobDoesNotOverflowStack() {
+        BinaryImage image = new BinaryImage(3840, 2160);
+        for (int y = 100; y < 2100; y++) {
+            for (int x = 200; x < 3700; x++) {
+                image.set(x, y, true);
+            }
+        }
+
+        List<Group> groups = new UnionFindBinaryGroupFinder().findConnectedGroups(image);
+
+        assertEquals(List.of(new Group(3500 * 2000, new Coordinate(1949, 1099))), groups);
+    }
+
+    @Test
+    public void testLargestGroupsMatchSortedGroupsOnRandomImages() {
+        Random random = new Random(99);
+        UnionFindBinaryGroupFinder finder = new UnionFindBinaryGroupFinder();
+
+        for (int trial = 0; trial < 200; trial++) {
+            int width = 1 + random.nextInt(150);
+            int height = 1 + random.nextInt(40);
+            double density = random.nextDouble();
+            BinaryImage image = new BinaryImage(width, height);
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    image.set(x, y, random.nextDouble() < density);
+                }
+            }
+
+            List<Group> all = finder.findConnectedGroups(image);
+            int k = 1 + random.nextInt(5);
+            assertEquals(all.isEmpty() ? null : all.get(0), finder.findLargestGroup(image), "trial " + trial);
+            assertEquals(all.subList(0, Math.min(k, all.size())), finder.findLargestGroups(image, k), "trial " + trial);
+        }
+    }
+
+    @Test
+    public void testLargestGroupStopsBeforeGroupsThatCannotWin() {
+        // the blob at the top outweighs every white pixel below it
+        BinaryImage image = new BinaryImage(20, 20);
+        for (int y = 0; y < 5; y++) {
+            for (int x = 0; x < 20; x++) {
+                image.set(x, y, true);
+            }
+        }
+        image.set(3, 10, true);
+        image.set(15, 18, true);
+
+        assertEquals(new Group(100, new Coordinate(9, 2)), new UnionFindBinaryGroupFinder().findLargestGroup(image));
+    }
+
+    @Test
+    public void testLargestGroupWaitsForOpenGroupsThatMayMerge() {
+        // two columns stay separate until the last row joins them into the largest group
+        int[][] image = {
+                {1, 0, 0, 0, 1, 1, 1},
+                {1, 0, 0, 0, 1, 1, 1},
+                {1, 0, 1, 0, 0, 0, 0},
+                {1, 0, 1, 0, 0, 0, 0},
+                {1, 1, 1, 0, 0, 0, 0}
+        };
+
+        assertEquals(new Group(9, new Coordinate(0, 2)), new UnionFindBinaryGroupFinder().findLargestGroup(image));
+    }
+
+    @Test
+    public void testLargestGroupsOnEmptyImage() {
+        UnionFindBinaryGroupFinder finder = new UnionFindBinaryGroupFinder();
+
+        assertNull(finder.findLargestGroup(new int[3][3]));
+        assertTrue(finder.findLargestGroups(new int[3][3], 2).isEmpty());
+    }
+
+    @Test
+    public void testLargestGroupsInvalidInputThrowsException() {
+        UnionFindBinaryGroupFinder finder = new UnionFindBinaryGroupFinder();
+        assertThrows(IllegalArgumentException.class, () -> finder.findLargestGroup((int[][]) null));
+        assertThrows(IllegalArgumentException.class, () -> finder.findLargestGroups(new int[][] {{1}}, 0));
+    }
+
+    private int[][] copy(int[][] image) {
+        int[][] copy = new int[image.length][];
+        for (int i = 0; i < image.length; i++) {
+            copy[i] = image[i].clone();
+        }
+        return copy;
+    }
+}
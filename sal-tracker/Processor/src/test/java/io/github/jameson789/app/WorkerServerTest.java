@@ -0,0 +1,157 @@
+package io.github.jameson789.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class WorkerServerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testTokenize() {
+        assertArrayEquals(new String[] {"a.mp4", "FF0000", "20", "job"},
+                WorkerServer.tokenize("  a.mp4\tFF0000 20   job "));
+        assertArrayEquals(new String[] {"my video.mp4", "FF0000", "", "x"},
+                WorkerServer.tokenize("\"my video.mp4\" FF0000 \"\" x"));
+        assertThrows(IllegalArgumentException.class, () -> WorkerServer.tokenize("\"open"));
+    }
+
+    @Test
+    public void testRepliesOncePerJob() throws Exception {
+        String requests = String.join("\n",
+                "# comment",
+                "video.mp4 FF0000 20 first",
+                "",
+                "video.mp4 FF0000 20 broken",
+                "too few",
+                "\"unterminated",
+                "video.mp4 FF0000 20 second --threads=2");
+        StringWriter replies = new StringWriter();
+
+        try (WorkerServer server = new WorkerServer(args -> {
+            if (args[3].equals("broken")) {
+                throw new IllegalStateException("cannot\nopen");
+            }
+            return new File("out", args[3] + "_" + args.length + ".csv");
+        }, 1)) {
+            server.serve(new StringReader(requests), replies);
+        }
+
+        List<String> lines = replies.toString().lines().sorted().toList();
+        assertEquals(List.of(
+                "done first " + new File("out", "first_4.csv").getPath(),
+                "done second " + new File("out", "second_5.csv").getPath(),
+                "failed - Expected <input_video> <hex_target_color> <threshold> <task_id> [options]",
+                "failed - Unterminated quote: \"unterminated",
+                "failed broken cannot open"), lines);
+    }
+
+    @Test
+    public void testJobsRunConcurrentlyAndQuitStops() throws Exception {
+        CountDownLatch started = new CountDownLatch(2);
+        String requests = "v.mp4 FF0000 1 a\nv.mp4 FF0000 1 b\nquit\nv.mp4 FF0000 1 never\n";
+        StringWriter replies = new StringWriter();
+
+        try (WorkerServer server = new WorkerServer(args -> {
+            // both jobs must be running at once to get past the latch
+            started.countDown();
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            return new File(args[3]);
+        }, 2)) {
+            server.serve(new StringReader(requests), replies);
+        }
+
+        assertEquals(List.of("done a a", "done b b"), replies.toString().lines().sorted().toList());
+    }
+
+    @Test
+    public void testServesUnixDomainSocket() throws Exception {
+        Path socket = tempDir.resolve("worker.sock");
+        WorkerServer server = new WorkerServer(args -> new File(args[3] + ".csv"), 2);
+        Thread listener = new Thread(() -> {
+            try {
+                server.serve(socket);
+            } catch (Exception e) {
+                // closed by the interrupt at the end of the test
+            }
+        });
+        listener.start();
+
+        try {
+            try (SocketChannel channel = connect(socket)) {
+                PrintWriter writer = new PrintWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), true);
+                BufferedReader reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8));
+
+                writer.println("v.mp4 00FF00 10 job1");
+                assertEquals("done job1 job1.csv", reader.readLine());
+                writer.println("v.mp4 00FF00 10 job2");
+                assertEquals("done job2 job2.csv", reader.readLine());
+            }
+        } finally {
+            listener.interrupt();
+            listener.join(5000);
+            server.close();
+        }
+        assertFalse(Files.exists(socket));
+    }
+
+    /**
+     * Connects to the socket, retrying while the server is still starting: the socket file
+     * appears on bind, slightly before the server listens.
+     */
+    private static SocketChannel connect(Path socket) throws Exception {
+        for (int attempt = 0; ; attempt++) {
+            SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+            try {
+                channel.connect(UnixDomainSocketAddress.of(socket));
+                return channel;
+            } catch (IOException e) {
+                channel.close();
+                if (attempt == 100) {
+                    throw e;
+                }
+                Thread.sleep(20);
+            }
+        }
+    }
+
+    @Test
+    public void testRunsRealJob() throws Exception {
+        File video = tempDir.resolve("clip.mp4").toFile();
+        TestVideos.writeMovingSquare(video, 160, 96, 25, 3, 25);
+        StringWriter replies = new StringWriter();
+        String request = "\"" + video.getPath() + "\" FF0000 120 warm";
+
+        try (WorkerServer server = new WorkerServer(args -> ImageSummaryApp.run(args, tempDir.toFile()), 1)) {
+            server.warmUp();
+            server.serve(new StringReader(request), replies);
+        }
+
+        File csv = tempDir.resolve("clip_warm.csv").toFile();
+        assertEquals("done warm " + csv.getPath(), replies.toString().strip());
+        List<String> rows = Files.readAllLines(csv.toPath());
+        assertEquals(3, rows.size());
+        assertTrue(rows.get(0).startsWith("0,"), Arrays.toString(rows.toArray()));
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.jameson789.app;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * An EuclideanKernel built on the Vector API. It computes the squared distances of a whole
+ * vector of pixels at once and turns the comparison mask into packed mask bits by OR-reducing
+ * a vector of lane bits. VectorMask.toLong would be simpler but is not intrinsified on JDK 17.
+ *
+ * The preferred species has a power-of-two lane count of at most 16, so the lanes of one step
+ * never straddle two 64-bit words. Pixels left over after the last full vector are classified
+ * one at a time.
+ *
+ * This class is only compiled by the "vector" Maven profile, and only loads when the JVM runs
+ * with --add-modules jdk.incubator.vector. Use EuclideanKernel.loadVectorized to get it.
+ */
+public class VectorEuclideanKernel implements EuclideanKernel {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    // lane i holds 1 << i, so OR-ing the matching lanes gives the mask bits of one step
+    private static final IntVector LANE_BITS = IntVector.broadcast(SPECIES, 1)
+            .lanewise(VectorOperators.LSHL, IntVector.zero(SPECIES).addIndex(1));
+    private static final IntVector ZERO = IntVector.zero(SPECIES);
+
+    @Override
+    public void binarizeRow(int[] rowPixels, int width, int targetColor, int limit, long[] words, int wordOffset) {
+        int targetRed = (targetColor >> 16) & 0xff;
+        int targetGreen = (targetColor >> 8) & 0xff;
+        int targetBlue = targetColor & 0xff;
+
+        int lanes = SPECIES.length();
+        int bound = SPECIES.loopBound(width);
+        int col = 0;
+        for (; col < bound; col += lanes) {
+            IntVector pixels = IntVector.fromArray(SPECIES, rowPixels, col);
+            IntVector red = pixels.lanewise(VectorOperators.LSHR, 16).and(0xff).sub(targetRed);
+            IntVector green = pixels.lanewise(VectorOperators.LSHR, 8).and(0xff).sub(targetGreen);
+            IntVector blue = pixels.and(0xff).sub(targetBlue);
+            IntVector squared = red.mul(red).add(green.mul(green)).add(blue.mul(blue));
+
+            VectorMask<Integer> matches = squared.compare(VectorOperators.LE, limit);
+            long bits = ZERO.blend(LANE_BITS, matches).reduceLanes(VectorOperators.OR) & 0xFFFFFFFFL;
+            if (bits != 0) {
+                words[wordOffset + (col >>> 6)] |= bits << col;
+            }
+        }
+
+        for (; col < width; col++) {
+            int pixel = rowPixels[col];
+            int redDiff = ((pixel >> 16) & 0xff) - targetRed;
+            int greenDiff = ((pixel >> 8) & 0xff) - targetGreen;
+            int blueDiff = (pixel & 0xff) - targetBlue;
+
+            if (redDiff * redDiff + greenDiff * greenDiff + blueDiff * blueDiff <= limit) {
+                words[wordOffset + (col >>> 6)] |= 1L << col;
+            }
+        }
+    }
+}